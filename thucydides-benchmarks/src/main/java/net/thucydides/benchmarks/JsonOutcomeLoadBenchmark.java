@@ -0,0 +1,92 @@
+package net.thucydides.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.reports.json.jackson.JacksonJSONConverter;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a run's worth of JSON outcomes, either fully validating each one or, as for outcomes written by
+ * the same version of Thucydides, only checking their essential fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JsonOutcomeLoadBenchmark {
+
+    private static final TestResult[] RESULTS = {TestResult.SUCCESS, TestResult.SUCCESS, TestResult.FAILURE,
+                                                  TestResult.PENDING};
+
+    @Param({"true", "false"})
+    public String alwaysValidate;
+
+    @Param({"5", "50"})
+    public int stepCount;
+
+    private static final int OUTCOME_COUNT = 100;
+
+    /**
+     * Snapshot builds never trust their own outcomes, so the outcomes are written and read as a released version.
+     */
+    private static final String RELEASED_VERSION = "1.0.0";
+
+    private JacksonJSONConverter converter;
+    private List<byte[]> serializedOutcomes;
+
+    @Setup
+    public void writeOutcomes() throws IOException {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("json.always.validate", alwaysValidate);
+        converter = new JacksonJSONConverter(environmentVariables, RELEASED_VERSION) {};
+
+        ImmutableList.Builder<byte[]> builder = ImmutableList.builder();
+        Story story = Story.withId("benchmark", "Benchmark story");
+        for (int i = 0; i < OUTCOME_COUNT; i++) {
+            TestOutcome outcome = TestOutcome.forTestInStory("test " + i, story);
+            for (int step = 0; step < stepCount; step++) {
+                outcome.recordStep(TestStep.forStepCalled("step " + step).withResult(RESULTS[step % RESULTS.length]));
+            }
+            outcome.addTags(ImmutableList.of(TestTag.withName("feature " + (i % 10)).andType("feature")));
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            converter.toJson(outcome, json);
+            builder.add(json.toByteArray());
+        }
+        serializedOutcomes = builder.build();
+    }
+
+    /**
+     * Each invocation loads every outcome once, so throughput is in runs loaded per second.
+     */
+    @Benchmark
+    public int loadOutcomes() throws IOException {
+        int stepsLoaded = 0;
+        for (byte[] json : serializedOutcomes) {
+            stepsLoaded += converter.fromJson(new ByteArrayInputStream(json)).getTestSteps().size();
+        }
+        return stepsLoaded;
+    }
+}
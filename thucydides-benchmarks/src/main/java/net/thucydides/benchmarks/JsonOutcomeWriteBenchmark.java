@@ -0,0 +1,137 @@
+package net.thucydides.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.model.DataSetDescriptor;
+import net.thucydides.core.model.DataTable;
+import net.thucydides.core.model.DataTableRow;
+import net.thucydides.core.model.FailureCause;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.model.features.ApplicationFeature;
+import net.thucydides.core.reports.json.jackson.JSONDataSetDescriptorMixin;
+import net.thucydides.core.reports.json.jackson.JSONDataTableMixin;
+import net.thucydides.core.reports.json.jackson.JSONDataTableRowMixin;
+import net.thucydides.core.reports.json.jackson.JSONFailureCauseMixin;
+import net.thucydides.core.reports.json.jackson.JSONFeatureMixin;
+import net.thucydides.core.reports.json.jackson.JSONScreenshotAndHtmlMixin;
+import net.thucydides.core.reports.json.jackson.JSONStackTraceElementMixin;
+import net.thucydides.core.reports.json.jackson.JSONStoryMixin;
+import net.thucydides.core.reports.json.jackson.JSONTestOutcomeMixin;
+import net.thucydides.core.reports.json.jackson.JSONTestStepMixin;
+import net.thucydides.core.reports.json.jackson.JSONTestTagMixin;
+import net.thucydides.core.reports.json.jackson.JSONThrowableMixin;
+import net.thucydides.core.reports.json.jackson.JacksonJSONConverter;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a run's worth of outcomes with the hand-written outcome and step serializers, and with the
+ * mixin-only bean mapping they replaced. The bean mapping is only configured here, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JsonOutcomeWriteBenchmark {
+
+    private static final int OUTCOME_COUNT = 100;
+
+    private static final OutputStream NOWHERE = new OutputStream() {
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {}
+    };
+
+    @Param({"5", "50"})
+    public int stepCount;
+
+    private List<TestOutcome> outcomes;
+    private ObjectWriter streamingWriter;
+    private ObjectWriter beanWriter;
+
+    @Setup
+    public void createOutcomes() {
+        ImmutableList.Builder<TestOutcome> builder = ImmutableList.builder();
+        Story story = Story.withId("benchmark", "Benchmark story");
+        for (int i = 0; i < OUTCOME_COUNT; i++) {
+            TestOutcome outcome = TestOutcome.forTestInStory("test " + i, story);
+            TestStep group = TestStep.forStepCalled("group " + i).withResult(TestResult.SUCCESS);
+            for (int step = 0; step < stepCount; step++) {
+                group.addChildStep(TestStep.forStepCalled("step " + step).withResult(TestResult.SUCCESS));
+            }
+            outcome.recordStep(group);
+            outcome.addTags(ImmutableList.of(TestTag.withName("feature " + (i % 10)).andType("feature")));
+            builder.add(outcome);
+        }
+        outcomes = builder.build();
+        streamingWriter = JacksonJSONConverter.createMapper().writerWithType(TestOutcome.class);
+        beanWriter = beanMapper().writerWithType(TestOutcome.class);
+    }
+
+    @Benchmark
+    public void streamingSerializers() throws IOException {
+        for (TestOutcome outcome : outcomes) {
+            streamingWriter.writeValue(NOWHERE, outcome);
+        }
+    }
+
+    @Benchmark
+    public void beanMapping() throws IOException {
+        for (TestOutcome outcome : outcomes) {
+            beanWriter.writeValue(NOWHERE, outcome);
+        }
+    }
+
+    private static ObjectMapper beanMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JodaModule());
+        mapper.registerModule(new GuavaModule());
+        mapper.registerModule(new SimpleModule() {
+            @Override
+            public void setupModule(SetupContext context) {
+                context.setMixInAnnotations(TestOutcome.class, JSONTestOutcomeMixin.class);
+                context.setMixInAnnotations(Story.class, JSONStoryMixin.class);
+                context.setMixInAnnotations(TestStep.class, JSONTestStepMixin.class);
+                context.setMixInAnnotations(ApplicationFeature.class, JSONFeatureMixin.class);
+                context.setMixInAnnotations(TestTag.class, JSONTestTagMixin.class);
+                context.setMixInAnnotations(ScreenshotAndHtmlSource.class, JSONScreenshotAndHtmlMixin.class);
+                context.setMixInAnnotations(DataTable.class, JSONDataTableMixin.class);
+                context.setMixInAnnotations(DataSetDescriptor.class, JSONDataSetDescriptorMixin.class);
+                context.setMixInAnnotations(DataTableRow.class, JSONDataTableRowMixin.class);
+                context.setMixInAnnotations(StackTraceElement.class, JSONStackTraceElementMixin.class);
+                context.setMixInAnnotations(Throwable.class, JSONThrowableMixin.class);
+                context.setMixInAnnotations(FailureCause.class, JSONFailureCauseMixin.class);
+            }
+        });
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        return mapper;
+    }
+}
@@ -0,0 +1,144 @@
+package net.thucydides.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.reports.TestOutcomes;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.lambdaj.Lambda.exists;
+import static ch.lambdaj.Lambda.filter;
+import static ch.lambdaj.Lambda.having;
+import static ch.lambdaj.Lambda.on;
+import static ch.lambdaj.Lambda.sum;
+import static org.hamcrest.Matchers.equalToIgnoringCase;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Compares the lambdaj queries the reporting model used to run with the loop and index based queries
+ * that replaced them. The lambdaj variants are kept here, and only here, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TestOutcomeQueryBenchmark {
+
+    private static final TestResult[] RESULTS = {TestResult.SUCCESS, TestResult.SUCCESS, TestResult.SUCCESS,
+                                                  TestResult.FAILURE, TestResult.ERROR, TestResult.PENDING};
+
+    @Param({"1000", "6000"})
+    public int outcomeCount;
+
+    @Param({"40", "400"})
+    public int tagCount;
+
+    private List<TestOutcome> outcomes;
+    private TestOutcomes testOutcomes;
+
+    @Setup
+    public void createOutcomes() {
+        ImmutableList.Builder<TestOutcome> builder = ImmutableList.builder();
+        Story story = Story.withId("benchmark", "Benchmark story");
+        for (int i = 0; i < outcomeCount; i++) {
+            TestOutcome outcome = TestOutcome.forTestInStory("test " + i, story);
+            outcome.recordStep(TestStep.forStepCalled("step " + i).withResult(RESULTS[i % RESULTS.length]));
+            outcome.addTags(ImmutableList.of(TestTag.withName("feature " + (i % tagCount)).andType("feature"),
+                                             TestTag.withName("component " + (i % 7)).andType("component")));
+            builder.add(outcome);
+        }
+        outcomes = builder.build();
+        testOutcomes = TestOutcomes.of(outcomes);
+        testOutcomes.getTags();
+    }
+
+    @Benchmark
+    public List<TestOutcome> lambdajPassingTests() {
+        return filter(having(on(TestOutcome.class).getResult(), is(TestResult.SUCCESS)), outcomes);
+    }
+
+    @Benchmark
+    public TestOutcomes indexedPassingTests() {
+        return testOutcomes.getPassingTests();
+    }
+
+    @Benchmark
+    public int lambdajTestCount() {
+        return sum(outcomes, on(TestOutcome.class).getTestCount());
+    }
+
+    @Benchmark
+    public int loopTestCount() {
+        return testOutcomes.getTestCount();
+    }
+
+    /**
+     * The aggregate report filters the outcomes by every tag, then each tag subset by result.
+     */
+    @Benchmark
+    public int lambdajTagByResultReports() {
+        int reportCount = 0;
+        for (int tag = 0; tag < tagCount; tag++) {
+            List<TestOutcome> tagged = filter(havingTagNamed("feature " + tag), outcomes);
+            reportCount += filter(having(on(TestOutcome.class).getResult(), is(TestResult.FAILURE)), tagged).size();
+        }
+        return reportCount;
+    }
+
+    @Benchmark
+    public int indexedTagByResultReports() {
+        int reportCount = 0;
+        for (int tag = 0; tag < tagCount; tag++) {
+            reportCount += testOutcomes.withTag("feature " + tag).getFailingTests().getTotal();
+        }
+        return reportCount;
+    }
+
+    /**
+     * Includes the cost of building the index, as for a freshly loaded set of outcomes.
+     */
+    @Benchmark
+    public int indexedTagByResultReportsOnNewOutcomes() {
+        TestOutcomes freshOutcomes = TestOutcomes.of(outcomes);
+        int reportCount = 0;
+        for (int tag = 0; tag < tagCount; tag++) {
+            reportCount += freshOutcomes.withTag("feature " + tag).getFailingTests().getTotal();
+        }
+        return reportCount;
+    }
+
+    private static Matcher<TestOutcome> havingTagNamed(final String tagName) {
+        return new BaseMatcher<TestOutcome>() {
+            @Override
+            public boolean matches(Object item) {
+                return exists(((TestOutcome) item).getTags(), having(on(TestTag.class).getName(), equalToIgnoringCase(tagName)));
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a test outcome tagged ").appendValue(tagName);
+            }
+        };
+    }
+}
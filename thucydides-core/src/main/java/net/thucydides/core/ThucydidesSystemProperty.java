@@ -562,6 +562,90 @@ public enum ThucydidesSystemProperty {
      */
     THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS,
 
+    /**
+     * How many threads should be used to process (resize and save) screenshots.
+     * If set to more than 1, a pool of worker threads is used instead of a single background thread.
+     */
+    THUCYDIDES_SCREENSHOT_PROCESSOR_THREADS,
+
+    /**
+     * The maximum number of screenshots that can be waiting to be processed when a screenshot processing thread pool
+     * is used. When the queue is full, the test thread waits until there is room for another screenshot.
+     * Defaults to 100.
+     */
+    THUCYDIDES_SCREENSHOT_QUEUE_SIZE,
+
+    /**
+     * If set, a screenshot that looks almost the same as the previous one is not stored again:
+     * the previous screenshot is used instead. Screenshots are compared using a 256-bit perceptual hash,
+     * and this property defines how many bits may differ for two screenshots to be considered the same.
+     * Not set by default, in which case only byte-for-byte identical screenshots are merged.
+     */
+    THUCYDIDES_SIMILAR_SCREENSHOT_DISTANCE,
+
+    /**
+     * A directory where screenshots are stored once and shared between builds.
+     * If set, the screenshots in the output directory are hard links to the files in this directory,
+     * and screenshots that are no longer used by any build are removed when the aggregate reports are generated.
+     */
+    THUCYDIDES_SCREENSHOT_STORE,
+
+    /**
+     * The format used to save screenshots: png (the default), indexed-png or jpeg.
+     * Indexed PNG screenshots use a 256-colour palette, and JPEG screenshots are lossy but much smaller.
+     */
+    THUCYDIDES_SCREENSHOT_FORMAT,
+
+    /**
+     * The deflate compression level used for PNG screenshots, from 0 (no compression) to 9 (best compression).
+     */
+    THUCYDIDES_SCREENSHOT_COMPRESSION_LEVEL,
+
+    /**
+     * The quality of JPEG screenshots, from 1 to 100. Defaults to 85.
+     */
+    THUCYDIDES_SCREENSHOT_JPEG_QUALITY,
+
+    /**
+     * The maximum number of screenshots per second taken after individual web element actions.
+     * Screenshots taken at the start or end of a step, and screenshots of failures, are not limited.
+     */
+    THUCYDIDES_MAX_SCREENSHOTS_PER_SECOND,
+
+    /**
+     * If set to true, screenshots after individual web element actions are only taken if the DOM has changed
+     * since the previous screenshot. DOM changes are counted in the browser using a mutation observer.
+     */
+    THUCYDIDES_SKIP_SCREENSHOTS_OF_UNCHANGED_PAGES,
+
+    /**
+     * How many threads are used to generate reports: the reports for each test outcome written at the end of
+     * a test class, and the pages of the aggregate reports. Also used to load test outcomes for the aggregate reports.
+     * Defaults to the number of available processors; set it to 1 to render the aggregate pages one at a time.
+     */
+    THUCYDIDES_REPORT_THREADS,
+
+    /**
+     * Only re-render the aggregate report pages whose test outcomes have changed since the last aggregation.
+     * Defaults to false. Delete the report directory (or its report-manifest.properties file) to force a full
+     * rebuild after changing the report configuration.
+     */
+    THUCYDIDES_INCREMENTAL_REPORTS,
+
+    /**
+     * Aggregate report pages listing more tests than this load their test table from a separate data file
+     * after the page is displayed, and only build the rows being shown. Defaults to 0, which renders every
+     * row into the page.
+     */
+    THUCYDIDES_REPORT_LAZY_TABLE_THRESHOLD,
+
+    /**
+     * Where the report resources (stylesheets, scripts and images) are unpacked, once for each version of the
+     * report resources jar, before being linked into each report directory.
+     * Defaults to a .thucydides/report-resources directory in the user's home directory.
+     */
+    THUCYDIDES_REPORT_RESOURCE_CACHE,
+
     /**
      * If provided, only classes and/or methods with tags in this list will be executed. The parameter expects
      * a tag or comma-separated list of tags in the shortened form.
@@ -587,6 +671,9 @@ public enum ThucydidesSystemProperty {
     /**
      * What format should test results be generated in.
      * By default, this is "json,xml".
+     * "binary" stores outcomes in a compact binary form that is smaller and faster to load;
+     * put it first to have the aggregate reports read the binary outcomes.
+     * "archive" appends every outcome of a test run to a single file per JVM instead of writing one file per test.
      */
     OUTPUT_FORMATS,
 
@@ -635,6 +722,12 @@ public enum ThucydidesSystemProperty {
      */
     JSON_PRETTY_PRINTING,
 
+    /**
+     * Fully validate every JSON test outcome that is loaded, including those written by this version of Thucydides.
+     * By default, outcomes written by the same version only get a quick check of their essential fields.
+     */
+    JSON_ALWAYS_VALIDATE,
+
     /**
      * What charset to use for JSON processing.
      * Defaults to UTF-8
@@ -0,0 +1,182 @@
+package net.thucydides.core.images;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.zip.Deflater;
+
+/**
+ * Describes how processed images are saved: as PNG files with a given deflate level, as PNG files using
+ * a palette of at most 256 colours, or as lossy JPEG files of a given quality.
+ * The file suffix depends on the encoding, so that the same image saved in different ways never shares a name.
+ */
+public class ImageEncoding {
+
+    public enum Format {
+        PNG, INDEXED_PNG, JPEG
+    }
+
+    public static final int DEFAULT_JPEG_QUALITY = 85;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageEncoding.class);
+
+    private final Format format;
+    private final int compressionLevel;
+    private final int quality;
+
+    private ImageEncoding(Format format, int compressionLevel, int quality) {
+        this.format = format;
+        this.compressionLevel = compressionLevel;
+        this.quality = quality;
+    }
+
+    public static ImageEncoding png() {
+        return new ImageEncoding(Format.PNG, Deflater.DEFAULT_COMPRESSION, DEFAULT_JPEG_QUALITY);
+    }
+
+    public static ImageEncoding indexedPng() {
+        return new ImageEncoding(Format.INDEXED_PNG, Deflater.DEFAULT_COMPRESSION, DEFAULT_JPEG_QUALITY);
+    }
+
+    public static ImageEncoding jpeg() {
+        return new ImageEncoding(Format.JPEG, Deflater.DEFAULT_COMPRESSION, DEFAULT_JPEG_QUALITY);
+    }
+
+    /**
+     * Read the encoding from the thucydides.screenshot.format, thucydides.screenshot.compression.level
+     * and thucydides.screenshot.jpeg.quality properties.
+     */
+    public static ImageEncoding fromConfiguration(EnvironmentVariables environmentVariables) {
+        Format format = formatFrom(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_FORMAT.from(environmentVariables));
+        int compressionLevel = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_COMPRESSION_LEVEL,
+                                                                         Deflater.DEFAULT_COMPRESSION);
+        int quality = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_JPEG_QUALITY,
+                                                                DEFAULT_JPEG_QUALITY);
+        return new ImageEncoding(format, Deflater.DEFAULT_COMPRESSION, DEFAULT_JPEG_QUALITY)
+                .withCompressionLevel(compressionLevel)
+                .withQuality(quality);
+    }
+
+    private static Format formatFrom(String formatName) {
+        if (StringUtils.isBlank(formatName)) {
+            return Format.PNG;
+        }
+        try {
+            return Format.valueOf(formatName.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown screenshot format '{}': using PNG", formatName);
+            return Format.PNG;
+        }
+    }
+
+    /**
+     * The deflate level used for PNG images, from 0 to 9, or -1 for the default level.
+     */
+    public ImageEncoding withCompressionLevel(int compressionLevel) {
+        int level = (compressionLevel < 0) ? Deflater.DEFAULT_COMPRESSION : Math.min(compressionLevel, Deflater.BEST_COMPRESSION);
+        return new ImageEncoding(format, level, quality);
+    }
+
+    /**
+     * The quality of JPEG images, from 1 to 100.
+     */
+    public ImageEncoding withQuality(int quality) {
+        return new ImageEncoding(format, compressionLevel, Math.max(1, Math.min(quality, 100)));
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Images encoded with the default settings are plain PNG images, like the screenshots returned by WebDriver,
+     * so they do not need to be encoded again unless they are modified in some other way.
+     */
+    public boolean isDefault() {
+        return (format == Format.PNG) && (compressionLevel == Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public String getFileSuffix() {
+        switch (format) {
+            case INDEXED_PNG:
+                return "_INDEXED.png";
+            case JPEG:
+                return "_Q" + quality + ".jpg";
+            default:
+                return ".png";
+        }
+    }
+
+    public byte[] encode(BufferedImage image) throws IOException {
+        switch (format) {
+            case INDEXED_PNG:
+                return new PngEncoder(compressionLevel).encode(new PaletteQuantizer().toIndexedColors(image));
+            case JPEG:
+                return encodeAsJpeg(image);
+            default:
+                return encodeAsPng(image);
+        }
+    }
+
+    private byte[] encodeAsPng(BufferedImage image) throws IOException {
+        if (compressionLevel == Deflater.DEFAULT_COMPRESSION) {
+            ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", outStream);
+            return outStream.toByteArray();
+        }
+        return new PngEncoder(compressionLevel).encode(image);
+    }
+
+    private byte[] encodeAsJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG image writer available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageStream = ImageIO.createImageOutputStream(outStream)) {
+            ImageWriteParam parameters = writer.getDefaultWriteParam();
+            parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parameters.setCompressionQuality(quality / 100f);
+            writer.setOutput(imageStream);
+            writer.write(null, new IIOImage(withoutTransparency(image), null, null), parameters);
+        } finally {
+            writer.dispose();
+        }
+        return outStream.toByteArray();
+    }
+
+    /**
+     * JPEG images cannot have an alpha channel, so transparent areas are painted white.
+     */
+    private BufferedImage withoutTransparency(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        BufferedImage opaqueImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = opaqueImage.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return opaqueImage;
+    }
+
+    @Override
+    public String toString() {
+        return format + ((format == Format.JPEG) ? " (quality " + quality + ")" : " (compression level " + compressionLevel + ")");
+    }
+}
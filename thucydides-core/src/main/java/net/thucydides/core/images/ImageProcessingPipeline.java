@@ -0,0 +1,116 @@
+package net.thucydides.core.images;
+
+import com.jhlabs.image.BoxBlurFilter;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Blurs, resizes and re-encodes a PNG image, decoding and encoding it at most once.
+ * The image dimensions are read from the PNG header, so an image that needs neither blurring nor resizing,
+ * and that is to be saved as a default PNG file, is returned as it is without ever being decoded.
+ */
+public class ImageProcessingPipeline {
+
+    private static final int BLUR_ITERATIONS = 3;
+
+    private final int blurRadius;
+    private final int targetWidth;
+    private final ImageEncoding encoding;
+
+    private ImageProcessingPipeline(int blurRadius, int targetWidth, ImageEncoding encoding) {
+        this.blurRadius = blurRadius;
+        this.targetWidth = targetWidth;
+        this.encoding = encoding;
+    }
+
+    public static ImageProcessingPipeline forImages() {
+        return new ImageProcessingPipeline(0, 0, ImageEncoding.png());
+    }
+
+    /**
+     * Apply a box blur with the given radius. A radius of 0 means no blurring.
+     */
+    public ImageProcessingPipeline blurredWithRadius(int radius) {
+        return new ImageProcessingPipeline(radius, targetWidth, encoding);
+    }
+
+    /**
+     * Scale images to the given width, keeping their proportions. A width of 0 means no resizing.
+     */
+    public ImageProcessingPipeline resizedToWidth(int width) {
+        return new ImageProcessingPipeline(blurRadius, width, encoding);
+    }
+
+    /**
+     * Save the processed images using the given encoding rather than as default PNG files.
+     */
+    public ImageProcessingPipeline encodedAs(ImageEncoding encoding) {
+        return new ImageProcessingPipeline(blurRadius, targetWidth, encoding);
+    }
+
+    public boolean requiresProcessing(SimpleImageInfo imageInfo) {
+        return (blurRadius > 0) || needsResizing(imageInfo.getWidth()) || !encoding.isDefault();
+    }
+
+    public byte[] process(byte[] imageData) throws IOException {
+        if (!requiresProcessing(new SimpleImageInfo(imageData))) {
+            return imageData;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageData));
+        if (image == null) {
+            throw new IOException("Could not decode image");
+        }
+        if (blurRadius > 0) {
+            image = blur(image);
+        }
+        if (needsResizing(image.getWidth())) {
+            image = resize(image);
+        }
+        return encoding.encode(image);
+    }
+
+    private boolean needsResizing(int width) {
+        return (targetWidth > 0) && (width != targetWidth);
+    }
+
+    private BufferedImage blur(BufferedImage image) {
+        BoxBlurFilter boxBlurFilter = new BoxBlurFilter();
+        boxBlurFilter.setRadius(blurRadius);
+        boxBlurFilter.setIterations(BLUR_ITERATIONS);
+        return boxBlurFilter.filter(image, deepCopy(image));
+    }
+
+    private BufferedImage deepCopy(BufferedImage srcImage) {
+        ColorModel cm = srcImage.getColorModel();
+        boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
+        WritableRaster raster = srcImage.copyData(null);
+        return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
+    }
+
+    private BufferedImage resize(BufferedImage image) {
+        int targetHeight = (int) (((double) targetWidth / (double) image.getWidth()) * (double) image.getHeight());
+        int type = image.getType() == 0? BufferedImage.TYPE_INT_ARGB : image.getType();
+        BufferedImage resizedImage = new BufferedImage(targetWidth, targetHeight, type);
+        Graphics2D g = resizedImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        g.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        g.dispose();
+        return resizedImage;
+    }
+}
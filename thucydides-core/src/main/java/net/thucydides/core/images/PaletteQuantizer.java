@@ -0,0 +1,145 @@
+package net.thucydides.core.images;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reduces an image to a palette of at most 256 colours.
+ * Web page screenshots rarely use more than a few hundred distinct colours, so images that fit into the palette
+ * are converted exactly. Otherwise the palette is made up of the most common colours, averaged over buckets
+ * of 5 bits per channel, and each pixel is mapped to the nearest colour in the palette.
+ * Transparency is ignored.
+ */
+class PaletteQuantizer {
+
+    private static final int MAXIMUM_PALETTE_SIZE = 256;
+    private static final int BUCKET_COUNT = 1 << 15;
+
+    BufferedImage toIndexedColors(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        Map<Integer, Integer> exactPalette = exactPaletteFor(pixels);
+        int[] palette;
+        byte[] indexes = new byte[pixels.length];
+        if (exactPalette != null) {
+            palette = new int[exactPalette.size()];
+            for (Map.Entry<Integer, Integer> color : exactPalette.entrySet()) {
+                palette[color.getValue()] = color.getKey();
+            }
+            for (int i = 0; i < pixels.length; i++) {
+                indexes[i] = exactPalette.get(pixels[i] & 0xFFFFFF).byteValue();
+            }
+        } else {
+            palette = approximatePaletteFor(pixels);
+            int[] nearestColors = new int[BUCKET_COUNT];
+            Arrays.fill(nearestColors, -1);
+            for (int i = 0; i < pixels.length; i++) {
+                int bucket = bucketOf(pixels[i]);
+                if (nearestColors[bucket] < 0) {
+                    nearestColors[bucket] = nearestColorTo(pixels[i], palette);
+                }
+                indexes[i] = (byte) nearestColors[bucket];
+            }
+        }
+
+        BufferedImage indexedImage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModelFor(palette));
+        byte[] imageData = ((DataBufferByte) indexedImage.getRaster().getDataBuffer()).getData();
+        System.arraycopy(indexes, 0, imageData, 0, indexes.length);
+        return indexedImage;
+    }
+
+    /**
+     * Map each distinct color to its palette index, or return null if there are too many colours.
+     */
+    private Map<Integer, Integer> exactPaletteFor(int[] pixels) {
+        Map<Integer, Integer> palette = new HashMap<>();
+        for (int pixel : pixels) {
+            Integer color = pixel & 0xFFFFFF;
+            if (!palette.containsKey(color)) {
+                if (palette.size() == MAXIMUM_PALETTE_SIZE) {
+                    return null;
+                }
+                palette.put(color, palette.size());
+            }
+        }
+        return palette;
+    }
+
+    private int[] approximatePaletteFor(int[] pixels) {
+        final int[] counts = new int[BUCKET_COUNT];
+        long[] redTotals = new long[BUCKET_COUNT];
+        long[] greenTotals = new long[BUCKET_COUNT];
+        long[] blueTotals = new long[BUCKET_COUNT];
+        for (int pixel : pixels) {
+            int bucket = bucketOf(pixel);
+            counts[bucket]++;
+            redTotals[bucket] += (pixel >> 16) & 0xFF;
+            greenTotals[bucket] += (pixel >> 8) & 0xFF;
+            blueTotals[bucket] += pixel & 0xFF;
+        }
+
+        Integer[] buckets = new Integer[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = i;
+        }
+        Arrays.sort(buckets, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer bucket1, Integer bucket2) {
+                return Integer.compare(counts[bucket2], counts[bucket1]);
+            }
+        });
+
+        int paletteSize = 0;
+        int[] palette = new int[MAXIMUM_PALETTE_SIZE];
+        while (paletteSize < MAXIMUM_PALETTE_SIZE && counts[buckets[paletteSize]] > 0) {
+            int bucket = buckets[paletteSize];
+            int count = counts[bucket];
+            palette[paletteSize++] = (int) (redTotals[bucket] / count) << 16
+                                   | (int) (greenTotals[bucket] / count) << 8
+                                   | (int) (blueTotals[bucket] / count);
+        }
+        return Arrays.copyOf(palette, paletteSize);
+    }
+
+    private int nearestColorTo(int pixel, int[] palette) {
+        int red = (pixel >> 16) & 0xFF;
+        int green = (pixel >> 8) & 0xFF;
+        int blue = pixel & 0xFF;
+        int nearestColor = 0;
+        int smallestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            int redDifference = red - ((palette[i] >> 16) & 0xFF);
+            int greenDifference = green - ((palette[i] >> 8) & 0xFF);
+            int blueDifference = blue - (palette[i] & 0xFF);
+            int distance = redDifference * redDifference + greenDifference * greenDifference + blueDifference * blueDifference;
+            if (distance < smallestDistance) {
+                smallestDistance = distance;
+                nearestColor = i;
+            }
+        }
+        return nearestColor;
+    }
+
+    private int bucketOf(int pixel) {
+        return ((pixel >> 9) & 0x7C00) | ((pixel >> 6) & 0x03E0) | ((pixel >> 3) & 0x001F);
+    }
+
+    private IndexColorModel colorModelFor(int[] palette) {
+        byte[] reds = new byte[palette.length];
+        byte[] greens = new byte[palette.length];
+        byte[] blues = new byte[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            reds[i] = (byte) (palette[i] >> 16);
+            greens[i] = (byte) (palette[i] >> 8);
+            blues[i] = (byte) palette[i];
+        }
+        return new IndexColorModel(8, palette.length, reds, greens, blues);
+    }
+}
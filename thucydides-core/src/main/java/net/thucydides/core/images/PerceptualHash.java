@@ -0,0 +1,107 @@
+package net.thucydides.core.images;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A difference hash (dHash) of an image, used to recognize images that look the same
+ * even though they are not byte-for-byte identical (a blinking cursor, a clock, and so on).
+ * The image is reduced to a small grid of grayscale cells, and each bit of the hash records
+ * whether a cell is brighter than its right-hand neighbour.
+ * Similar images have hashes that differ by only a few bits.
+ */
+public class PerceptualHash {
+
+    private static final int COLUMNS = 16;
+    private static final int ROWS = 16;
+
+    private final long[] bits;
+    private final int width;
+    private final int height;
+
+    private PerceptualHash(long[] bits, int width, int height) {
+        this.bits = bits;
+        this.width = width;
+        this.height = height;
+    }
+
+    public static PerceptualHash of(BufferedImage image) {
+        double[][] cells = averageBrightnessOf(image);
+        long[] bits = new long[(ROWS * COLUMNS) / 64];
+        int bit = 0;
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                if (cells[row][column] > cells[row][column + 1]) {
+                    bits[bit / 64] |= (1L << (bit % 64));
+                }
+                bit++;
+            }
+        }
+        return new PerceptualHash(bits, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * The number of bits that differ between the two hashes.
+     * Images of different sizes are never considered similar.
+     */
+    public int distanceTo(PerceptualHash otherHash) {
+        if (width != otherHash.width || height != otherHash.height) {
+            return Integer.MAX_VALUE;
+        }
+        int distance = 0;
+        for (int i = 0; i < bits.length; i++) {
+            distance += Long.bitCount(bits[i] ^ otherHash.bits[i]);
+        }
+        return distance;
+    }
+
+    public boolean isSimilarTo(PerceptualHash otherHash, int maximumDistance) {
+        return distanceTo(otherHash) <= maximumDistance;
+    }
+
+    private static double[][] averageBrightnessOf(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] totals = new double[ROWS][COLUMNS + 1];
+        int[][] pixelCounts = new int[ROWS][COLUMNS + 1];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = (int) ((long) y * ROWS / height);
+            for (int x = 0; x < width; x++) {
+                int cellColumn = (int) ((long) x * (COLUMNS + 1) / width);
+                totals[cellRow][cellColumn] += brightnessOf(row[x]);
+                pixelCounts[cellRow][cellColumn]++;
+            }
+        }
+        for (int cellRow = 0; cellRow < ROWS; cellRow++) {
+            for (int cellColumn = 0; cellColumn <= COLUMNS; cellColumn++) {
+                if (pixelCounts[cellRow][cellColumn] > 0) {
+                    totals[cellRow][cellColumn] /= pixelCounts[cellRow][cellColumn];
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static double brightnessOf(int rgb) {
+        int red = (rgb >> 16) & 0xff;
+        int green = (rgb >> 8) & 0xff;
+        int blue = rgb & 0xff;
+        return 0.299 * red + 0.587 * green + 0.114 * blue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PerceptualHash)) return false;
+
+        PerceptualHash that = (PerceptualHash) o;
+        return width == that.width && height == that.height && Arrays.equals(bits, that.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
@@ -0,0 +1,222 @@
+package net.thucydides.core.images;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A minimal PNG encoder with a configurable deflate level, which the ImageIO PNG writer does not support.
+ * Images with an 8-bit indexed colour model are written with a palette, and everything else as 8-bit RGB or RGBA.
+ * Truecolor rows use whichever PNG filter gives the smallest sum of absolute differences, as libpng does.
+ */
+class PngEncoder {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    private static final int COLOR_TYPE_TRUECOLOR = 2;
+    private static final int COLOR_TYPE_INDEXED = 3;
+    private static final int COLOR_TYPE_TRUECOLOR_WITH_ALPHA = 6;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+    private static final int FILTER_TYPES = 5;
+
+    private final int compressionLevel;
+
+    PngEncoder(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.write(PNG_SIGNATURE);
+        if (isIndexed(image)) {
+            IndexColorModel colorModel = (IndexColorModel) image.getColorModel();
+            writeHeader(out, image, COLOR_TYPE_INDEXED);
+            writePalette(out, colorModel);
+            writeChunk(out, "IDAT", compress(indexedPixelsOf(image)));
+        } else {
+            boolean hasAlpha = image.getColorModel().hasAlpha();
+            writeHeader(out, image, hasAlpha ? COLOR_TYPE_TRUECOLOR_WITH_ALPHA : COLOR_TYPE_TRUECOLOR);
+            writeChunk(out, "IDAT", compress(filteredPixelsOf(image, hasAlpha)));
+        }
+        writeChunk(out, "IEND", new byte[0]);
+        out.flush();
+        return outputStream.toByteArray();
+    }
+
+    private boolean isIndexed(BufferedImage image) {
+        return (image.getType() == BufferedImage.TYPE_BYTE_INDEXED) && (image.getColorModel() instanceof IndexColorModel);
+    }
+
+    private void writeHeader(DataOutputStream out, BufferedImage image, int colorType) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(image.getWidth());
+        headerData.writeInt(image.getHeight());
+        headerData.writeByte(8);           // bit depth
+        headerData.writeByte(colorType);
+        headerData.writeByte(0);           // deflate compression
+        headerData.writeByte(0);           // adaptive filtering
+        headerData.writeByte(0);           // no interlacing
+        writeChunk(out, "IHDR", header.toByteArray());
+    }
+
+    private void writePalette(DataOutputStream out, IndexColorModel colorModel) throws IOException {
+        int paletteSize = colorModel.getMapSize();
+        byte[] palette = new byte[paletteSize * 3];
+        byte[] transparency = new byte[paletteSize];
+        boolean hasTransparentColors = false;
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i * 3] = (byte) colorModel.getRed(i);
+            palette[i * 3 + 1] = (byte) colorModel.getGreen(i);
+            palette[i * 3 + 2] = (byte) colorModel.getBlue(i);
+            transparency[i] = (byte) colorModel.getAlpha(i);
+            hasTransparentColors |= (colorModel.getAlpha(i) != 255);
+        }
+        writeChunk(out, "PLTE", palette);
+        if (hasTransparentColors) {
+            writeChunk(out, "tRNS", transparency);
+        }
+    }
+
+    private void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private byte[] compress(byte[] pixelData) throws IOException {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            ByteArrayOutputStream compressedData = new ByteArrayOutputStream(pixelData.length / 4);
+            try (DeflaterOutputStream deflaterStream = new DeflaterOutputStream(compressedData, deflater, 8192)) {
+                deflaterStream.write(pixelData);
+            }
+            return compressedData.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Palette indexes do not benefit from filtering, so every row is written unfiltered.
+     */
+    private byte[] indexedPixelsOf(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Raster raster = image.getRaster();
+        int[] rowSamples = new int[width];
+        byte[] pixelData = new byte[(width + 1) * height];
+        int position = 0;
+        for (int y = 0; y < height; y++) {
+            raster.getSamples(0, y, width, 1, 0, rowSamples);
+            pixelData[position++] = FILTER_NONE;
+            for (int x = 0; x < width; x++) {
+                pixelData[position++] = (byte) rowSamples[x];
+            }
+        }
+        return pixelData;
+    }
+
+    private byte[] filteredPixelsOf(BufferedImage image, boolean hasAlpha) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int bytesPerPixel = hasAlpha ? 4 : 3;
+        int rowLength = width * bytesPerPixel;
+
+        int[] rowPixels = new int[width];
+        byte[] previousRow = new byte[rowLength];
+        byte[] currentRow = new byte[rowLength];
+        byte[][] filteredRows = new byte[FILTER_TYPES][rowLength];
+        byte[] pixelData = new byte[(rowLength + 1) * height];
+        int position = 0;
+
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, rowPixels, 0, width);
+            toBytes(rowPixels, currentRow, hasAlpha);
+
+            int bestFilter = applyFilters(currentRow, previousRow, bytesPerPixel, filteredRows);
+            pixelData[position++] = (byte) bestFilter;
+            System.arraycopy(filteredRows[bestFilter], 0, pixelData, position, rowLength);
+            position += rowLength;
+
+            byte[] row = previousRow;
+            previousRow = currentRow;
+            currentRow = row;
+        }
+        return pixelData;
+    }
+
+    private void toBytes(int[] pixels, byte[] row, boolean hasAlpha) {
+        int position = 0;
+        for (int pixel : pixels) {
+            row[position++] = (byte) (pixel >> 16);
+            row[position++] = (byte) (pixel >> 8);
+            row[position++] = (byte) pixel;
+            if (hasAlpha) {
+                row[position++] = (byte) (pixel >>> 24);
+            }
+        }
+    }
+
+    /**
+     * Apply each filter type to the row, and return the one that gives the smallest sum of absolute differences.
+     */
+    private int applyFilters(byte[] row, byte[] previousRow, int bytesPerPixel, byte[][] filteredRows) {
+        long[] sums = new long[FILTER_TYPES];
+        for (int i = 0; i < row.length; i++) {
+            int raw = row[i] & 0xFF;
+            int left = (i >= bytesPerPixel) ? row[i - bytesPerPixel] & 0xFF : 0;
+            int up = previousRow[i] & 0xFF;
+            int upLeft = (i >= bytesPerPixel) ? previousRow[i - bytesPerPixel] & 0xFF : 0;
+
+            filteredRows[FILTER_NONE][i] = (byte) raw;
+            filteredRows[FILTER_SUB][i] = (byte) (raw - left);
+            filteredRows[FILTER_UP][i] = (byte) (raw - up);
+            filteredRows[FILTER_AVERAGE][i] = (byte) (raw - ((left + up) >> 1));
+            filteredRows[FILTER_PAETH][i] = (byte) (raw - paethPredictor(left, up, upLeft));
+
+            for (int filter = 0; filter < FILTER_TYPES; filter++) {
+                sums[filter] += Math.abs(filteredRows[filter][i]);
+            }
+        }
+        int bestFilter = FILTER_NONE;
+        for (int filter = 1; filter < FILTER_TYPES; filter++) {
+            if (sums[filter] < sums[bestFilter]) {
+                bestFilter = filter;
+            }
+        }
+        return bestFilter;
+    }
+
+    private int paethPredictor(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceToLeft = Math.abs(estimate - left);
+        int distanceToUp = Math.abs(estimate - up);
+        int distanceToUpLeft = Math.abs(estimate - upLeft);
+        if (distanceToLeft <= distanceToUp && distanceToLeft <= distanceToUpLeft) {
+            return left;
+        } else if (distanceToUp <= distanceToUpLeft) {
+            return up;
+        } else {
+            return upLeft;
+        }
+    }
+}
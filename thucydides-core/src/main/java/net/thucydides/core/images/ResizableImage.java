@@ -8,6 +8,8 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
 import java.io.File;
 import java.io.IOException;
 
@@ -60,8 +62,7 @@ public class ResizableImage {
 
     protected ResizableImage resizeImage(int width, int targetHeight, BufferedImage image) throws IOException {
         try {
-            int imageType = (image.getType() > 0) ? image.getType() : BufferedImage.TYPE_4BYTE_ABGR;
-			BufferedImage resizedImage = new BufferedImage(width, targetHeight, imageType);
+			BufferedImage resizedImage = emptyImageLike(image, width, targetHeight);
 			fillWithWhiteBackground(resizedImage);
 			resizedImage.setData(image.getRaster());
 	        return new ResizedImage(resizedImage, screenshotFile);
@@ -70,6 +71,18 @@ public class ResizableImage {
 		}
     }
 
+    /**
+     * Images with a palette keep their own palette, so that the pixel data can be copied across unchanged.
+     */
+    private BufferedImage emptyImageLike(BufferedImage image, int width, int height) {
+        if (image.getColorModel() instanceof IndexColorModel) {
+            ColorModel colorModel = image.getColorModel();
+            return new BufferedImage(colorModel, colorModel.createCompatibleWritableRaster(width, height), false, null);
+        }
+        int imageType = (image.getType() > 0) ? image.getType() : BufferedImage.TYPE_4BYTE_ABGR;
+        return new BufferedImage(width, height, imageType);
+    }
+
     private boolean skipRescale(int height) {
         if (getHeight() > MAX_SUPPORTED_HEIGHT) {
             return true;
@@ -16,7 +16,11 @@ public class ResizedImage extends ResizableImage {
 
     @Override
     public void saveTo(final File file) throws IOException {
-        ImageIO.write(image, "PNG", file);
+        ImageIO.write(image, formatOf(file), file);
+    }
+
+    private String formatOf(final File file) {
+        return file.getName().toLowerCase().endsWith(".jpg") ? "JPEG" : "PNG";
     }
 
     @Override
@@ -28,6 +28,7 @@ package net.thucydides.core.images;
 
  *  -------------------------------------------------------------------------------
  */
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -47,6 +48,10 @@ public class SimpleImageInfo {
 		}
 	}
 
+	public SimpleImageInfo(final byte[] bytes) throws IOException {
+		processStream(new ByteArrayInputStream(bytes));
+	}
+
 	private void processStream(final InputStream is) throws IOException {
 		int c1 = is.read();
 		int c2 = is.read();
@@ -59,6 +64,19 @@ public class SimpleImageInfo {
 			width = readInt(is,2);
 			is.skip(2);
 			height = readInt(is,2);
+		} else if (c1 == 0xFF && c2 == 0xD8) { // JPG
+			while (c3 == 255) {
+				int marker = is.read();
+				int len = readInt(is,2);
+				if (marker == 192 || marker == 193 || marker == 194) {
+					is.skip(1);
+					height = readInt(is,2);
+					width = readInt(is,2);
+					break;
+				}
+				is.skip(len - 2);
+				c3 = is.read();
+			}
 		} else {
 			throw new IOException("Unsupported image type");
 		}
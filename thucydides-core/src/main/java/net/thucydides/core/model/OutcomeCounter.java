@@ -3,9 +3,6 @@ package net.thucydides.core.model;
 import net.thucydides.core.reports.TestOutcomeCounter;
 import net.thucydides.core.reports.TestOutcomes;
 
-import static ch.lambdaj.Lambda.on;
-import static ch.lambdaj.Lambda.sum;
-
 public class OutcomeCounter extends TestOutcomeCounter {
 
     private final TestOutcomes outcomes;
@@ -20,7 +17,7 @@ public class OutcomeCounter extends TestOutcomeCounter {
     }
 
     public int withResult(TestResult expectedResult) {
-        return sum(outcomes.getOutcomes(), on(TestOutcome.class).countResults(expectedResult));
+        return outcomes.countTestsWithResult(expectedResult, TestType.ANY);
     }
 
     public int getTotal() {
@@ -17,7 +17,10 @@ public enum ReportType {
     HTML("html"),
     
     /** JSON reports. */
-    JSON("json");
+    JSON("json"),
+
+    /** Compact binary test outcomes. */
+    BINARY("outcome");
 
     private String suffix;
 
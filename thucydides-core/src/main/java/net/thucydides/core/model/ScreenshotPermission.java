@@ -6,9 +6,13 @@ import net.thucydides.core.reflection.StackTraceAnalyser;
 import net.thucydides.core.webdriver.Configuration;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ScreenshotPermission {
 
+    private static final ConcurrentMap<Method, Optional<TakeScreenshots>> SCREENSHOT_LEVELS_BY_METHOD = new ConcurrentHashMap<>();
+
     private final Configuration configuration;
 
     public ScreenshotPermission(Configuration configuration) {
@@ -44,13 +48,26 @@ public class ScreenshotPermission {
         StackTraceElement[] stackTrace = new Throwable().getStackTrace();
         for (StackTraceElement stackTraceElement : stackTrace) {
             Method callingMethod = StackTraceAnalyser.forStackTraceElement(stackTraceElement).getMethod();
-            if (callingMethod != null && callingMethod.getAnnotation(Screenshots.class) != null) {
-                return Optional.of(screenshotLevelFrom(callingMethod.getAnnotation(Screenshots.class)));
+            if (callingMethod != null) {
+                Optional<TakeScreenshots> screenshotLevel = screenshotLevelDefinedFor(callingMethod);
+                if (screenshotLevel.isPresent()) {
+                    return screenshotLevel;
+                }
             }
         }
         return Optional.absent();
     }
 
+    private Optional<TakeScreenshots> screenshotLevelDefinedFor(Method method) {
+        Optional<TakeScreenshots> screenshotLevel = SCREENSHOT_LEVELS_BY_METHOD.get(method);
+        if (screenshotLevel == null) {
+            Screenshots screenshots = method.getAnnotation(Screenshots.class);
+            screenshotLevel = (screenshots != null) ? Optional.of(screenshotLevelFrom(screenshots)) : Optional.<TakeScreenshots>absent();
+            SCREENSHOT_LEVELS_BY_METHOD.putIfAbsent(method, screenshotLevel);
+        }
+        return screenshotLevel;
+    }
+
     private TakeScreenshots screenshotLevelFrom(Screenshots screenshots) {
         if (screenshots.onlyOnFailures()) {
             return TakeScreenshots.FOR_FAILURES;
@@ -1,12 +1,12 @@
 package net.thucydides.core.model;
 
-import ch.lambdaj.function.convert.Converter;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.annotations.TestAnnotations;
@@ -35,9 +35,9 @@ import javax.validation.constraints.NotNull;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
-import static ch.lambdaj.Lambda.*;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static net.thucydides.core.model.ReportType.HTML;
@@ -45,7 +45,6 @@ import static net.thucydides.core.model.ReportType.ROOT;
 import static net.thucydides.core.model.TestResult.*;
 import static net.thucydides.core.util.NameConverter.withNoArguments;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.hamcrest.Matchers.is;
 
 /**
  * Represents the results of a test (or "scenario") execution. This
@@ -64,6 +63,12 @@ public class TestOutcome {
     private static final String ISSUES = "issues";
     private static final String NEW_LINE = System.getProperty("line.separator");
 
+    /**
+     * Incremented whenever the tags or issues of any test outcome change.
+     * Each outcome records the revision of its own latest change, so that an index over a list of outcomes
+     * can tell whether any of them has changed since it was built.
+     */
+    private static final AtomicLong LATEST_TAG_REVISION = new AtomicLong();
 
     /**
      * The name of the method implementing this test.
@@ -99,6 +104,8 @@ public class TestOutcome {
     private List<String> issues;
     private List<String> additionalIssues;
 
+    private transient volatile long tagRevision;
+
     private List<String> versions;
     private List<String> additionalVersions;
 
@@ -443,7 +450,7 @@ public class TestOutcome {
 
     @Override
     public String toString() {
-        return getTitle() + ":" + join(extract(testSteps, on(TestStep.class).toString()));
+        return getTitle() + ":" + Joiner.on(", ").join(testSteps);
     }
 
     /**
@@ -649,38 +656,34 @@ public class TestOutcome {
     }
 
     public List<ScreenshotAndHtmlSource> getScreenshotAndHtmlSources() {
-        List<TestStep> testStepsWithScreenshots = select(getFlattenedTestSteps(),
-                having(on(TestStep.class).needsScreenshots()));
-
-        return flatten(extract(testStepsWithScreenshots, on(TestStep.class).getScreenshots()));
+        List<ScreenshotAndHtmlSource> screenshots = new ArrayList<>();
+        for (TestStep currentStep : getFlattenedTestSteps()) {
+            if (currentStep.needsScreenshots()) {
+                screenshots.addAll(currentStep.getScreenshots());
+            }
+        }
+        return screenshots;
     }
 
     public List<Screenshot> getScreenshots() {
         List<Screenshot> screenshots = new ArrayList<Screenshot>();
 
-        List<TestStep> testStepsWithScreenshots = select(getFlattenedTestSteps(),
-                having(on(TestStep.class).needsScreenshots()));
-
-        for (TestStep currentStep : testStepsWithScreenshots) {
-            screenshots.addAll(screenshotsIn(currentStep));
+        for (TestStep currentStep : getFlattenedTestSteps()) {
+            if (currentStep.needsScreenshots()) {
+                addScreenshotsIn(currentStep, screenshots);
+            }
         }
 
         return ImmutableList.copyOf(screenshots);
     }
 
-    private List<Screenshot> screenshotsIn(TestStep currentStep) {
-        return convert(currentStep.getScreenshots(), toScreenshotsFor(currentStep));
-    }
-
-    private Converter<ScreenshotAndHtmlSource, Screenshot> toScreenshotsFor(final TestStep currentStep) {
-        return new Converter<ScreenshotAndHtmlSource, Screenshot>() {
-            public Screenshot convert(ScreenshotAndHtmlSource from) {
-                return new Screenshot(from.getScreenshotFile().getName(),
-                        currentStep.getDescription(),
-                        widthOf(from.getScreenshotFile()),
-                        currentStep.getException());
-            }
-        };
+    private void addScreenshotsIn(TestStep currentStep, List<Screenshot> screenshots) {
+        for (ScreenshotAndHtmlSource screenshot : currentStep.getScreenshots()) {
+            screenshots.add(new Screenshot(screenshot.getScreenshotFile().getName(),
+                                           currentStep.getDescription(),
+                                           widthOf(screenshot.getScreenshotFile()),
+                                           currentStep.getException()));
+        }
     }
 
     private int widthOf(final File screenshot) {
@@ -816,7 +819,11 @@ public class TestOutcome {
     }
 
     private List<TestResult> getCurrentTestResults() {
-        return convert(testSteps, new ExtractTestResultsConverter());
+        List<TestResult> results = new ArrayList<>(testSteps.size());
+        for (TestStep step : testSteps) {
+            results.add(step.getResult());
+        }
+        return results;
     }
 
     /**
@@ -1063,7 +1070,11 @@ public class TestOutcome {
 
 
     public void addIssues(List<String> issues) {
+        if (additionalIssues.containsAll(issues)) {
+            return;
+        }
         additionalIssues.addAll(issues);
+        tagsChanged();
     }
 
     private List<String> readIssues() {
@@ -1073,7 +1084,7 @@ public class TestOutcome {
     public String getFormattedIssues() {
         Set<String> issues = Sets.newHashSet(getIssues());
         if (!issues.isEmpty()) {
-            List<String> orderedIssues = sort(issues, on(String.class));
+            List<String> orderedIssues = Ordering.natural().sortedCopy(issues);
             return "(" + getFormatter().addLinks(StringUtils.join(orderedIssues, ", ")) + ")";
         } else {
             return "";
@@ -1144,36 +1155,58 @@ public class TestOutcome {
 
     public void setTags(Set<TestTag> tags) {
         this.tags = Sets.newHashSet(tags);
+        tagsChanged();
     }
 
 
     public void addTags(List<TestTag> tags) {
-        Set<TestTag> updatedTags = Sets.newHashSet(getTags());
+        Set<TestTag> currentTags = getTags();
+        if (currentTags.containsAll(tags)) {
+            return;
+        }
+        Set<TestTag> updatedTags = Sets.newHashSet(currentTags);
         updatedTags.addAll(tags);
         this.tags = ImmutableSet.copyOf(updatedTags);
+        tagsChanged();
     }
 
-    public List<String> getIssueKeys() {
-        return convert(getIssues(), toIssueKeys());
+    private void tagsChanged() {
+        tagRevision = LATEST_TAG_REVISION.incrementAndGet();
     }
 
-    private Converter<String, String> toIssueKeys() {
-        return new Converter<String,String>() {
+    /**
+     * The revision of the latest change to the tags or issues of this outcome.
+     */
+    public long getTagRevision() {
+        return tagRevision;
+    }
 
-            public String convert(String issueNumber) {
-                String issueKey = issueNumber;
-                if (issueKey.startsWith("#")) {
-                    issueKey = issueKey.substring(1);
-                }
-                if (StringUtils.isNumeric(issueKey) && (getProjectPrefix() != null)) {
-                    Joiner joiner = Joiner.on("-");
-                    issueKey = joiner.join(getProjectPrefix(), issueKey);
-                }
-                return issueKey;
-            }
+    /**
+     * The revision of the latest change to the tags or issues of any test outcome.
+     */
+    public static long getLatestTagRevision() {
+        return LATEST_TAG_REVISION.get();
+    }
 
+    public List<String> getIssueKeys() {
+        List<String> issueNumbers = getIssues();
+        List<String> issueKeys = new ArrayList<>(issueNumbers.size());
+        String projectPrefix = getProjectPrefix();
+        for (String issueNumber : issueNumbers) {
+            issueKeys.add(issueKeyFor(issueNumber, projectPrefix));
+        }
+        return issueKeys;
+    }
 
-        };
+    private String issueKeyFor(String issueNumber, String projectPrefix) {
+        String issueKey = issueNumber;
+        if (issueKey.startsWith("#")) {
+            issueKey = issueKey.substring(1);
+        }
+        if (StringUtils.isNumeric(issueKey) && (projectPrefix != null)) {
+            issueKey = projectPrefix + "-" + issueKey;
+        }
+        return issueKey;
     }
 
     private String getProjectPrefix() {
@@ -1259,9 +1292,13 @@ public class TestOutcome {
     }
 
     private int countDataRowsWithResult(TestResult expectedResult) {
-        List<DataTableRow> matchingRows
-                = filter(having(on(DataTableRow.class).getResult(), is(expectedResult)), getDataTable().getRows());
-        return matchingRows.size();
+        int matchingRows = 0;
+        for (DataTableRow row : getDataTable().getRows()) {
+            if (row.getResult() == expectedResult) {
+                matchingRows++;
+            }
+        }
+        return matchingRows;
     }
 
     public int countNestedStepsWithResult(TestResult expectedResult, TestType testType) {
@@ -1341,12 +1378,6 @@ public class TestOutcome {
         }
     }
 
-    private static class ExtractTestResultsConverter implements Converter<TestStep, TestResult> {
-        public TestResult convert(final TestStep step) {
-            return step.getResult();
-        }
-    }
-
     public Integer getStepCount() {
         return testSteps.size();
     }
@@ -1380,8 +1411,13 @@ public class TestOutcome {
     }
 
     public Integer getPendingCount() {
-        List<TestStep> allTestSteps = getLeafTestSteps();
-        return select(allTestSteps, having(on(TestStep.class).isPending())).size();
+        int pendingSteps = 0;
+        for (TestStep step : getLeafTestSteps()) {
+            if (step.isPending()) {
+                pendingSteps++;
+            }
+        }
+        return pendingSteps;
     }
 
     public Boolean isSuccess() {
@@ -1419,7 +1455,11 @@ public class TestOutcome {
 
     public Long getDuration() {
         if ((duration == 0) && (testSteps.size() > 0)) {
-            return sum(testSteps, on(TestStep.class).getDuration());
+            long totalDuration = 0;
+            for (TestStep step : testSteps) {
+                totalDuration += step.getDuration();
+            }
+            return totalDuration;
         } else {
             return duration;
         }
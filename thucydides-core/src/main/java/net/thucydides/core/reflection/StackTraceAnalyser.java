@@ -1,10 +1,20 @@
 package net.thucydides.core.reflection;
 
+import com.google.common.base.Optional;
+
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public class StackTraceAnalyser {
 
+    /**
+     * Resolving a stack trace element means loading its class and looking up the method, which fails (and throws
+     * an exception) for most frames, so the result is cached: the same frames turn up in every stack trace.
+     */
+    private static final ConcurrentMap<String, Optional<Method>> RESOLVED_METHODS = new ConcurrentHashMap<>();
+
     private final StackTraceElement stackTraceElement;
 
     private StackTraceAnalyser(StackTraceElement stackTraceElement) {
@@ -16,6 +26,21 @@ public class StackTraceAnalyser {
     }
 
     public Method getMethod() {
+        String methodKey = methodKeyFor(stackTraceElement);
+        Optional<Method> method = RESOLVED_METHODS.get(methodKey);
+        if (method == null) {
+            method = Optional.fromNullable(resolveMethod());
+            RESOLVED_METHODS.putIfAbsent(methodKey, method);
+        }
+        return method.orNull();
+    }
+
+    private static String methodKeyFor(StackTraceElement stackTraceElement) {
+        return stackTraceElement.getClassName() + "#" + stackTraceElement.getMethodName()
+                + (isInstrumentedMethod(stackTraceElement) ? "<generated>" : "");
+    }
+
+    private Method resolveMethod() {
         try {
             if (allowedClassName(stackTraceElement.getClassName())) {
                 Class callingClass = Class.forName(stackTraceElement.getClassName());
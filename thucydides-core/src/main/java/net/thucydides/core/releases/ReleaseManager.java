@@ -46,7 +46,10 @@ public class ReleaseManager {
     }
 
     public String getJSONReleasesFrom(TestOutcomes testOutcomes) {
-        List<Release> releases = getReleasesFrom(testOutcomes);
+        return getJSONReleasesFrom(getReleasesFrom(testOutcomes));
+    }
+
+    public String getJSONReleasesFrom(List<Release> releases) {
         GsonBuilder builder = new GsonBuilder();
         builder.setPrettyPrinting();
         Gson gson = builder.create();
@@ -66,6 +69,10 @@ public class ReleaseManager {
         return flattened(getReleasesFrom(testOutcomes));
     }
 
+    public List<Release> getFlattenedReleases(List<Release> releases) {
+        return flattened(releases);
+    }
+
     private List<Release> flattened(List<Release> releases) {
         List<Release> flattenedReleases = Lists.newArrayList();
         for (Release release : releases) {
@@ -2,7 +2,7 @@ package net.thucydides.core.reports;
 
 public enum OutcomeFormat {
 
-    XML(".xml"), JSON(".json"), HTML(".html");
+    XML(".xml"), JSON(".json"), HTML(".html"), BINARY(".outcome"), ARCHIVE(".outcomes");
 
     private String extension;
 
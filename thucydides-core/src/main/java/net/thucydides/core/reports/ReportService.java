@@ -1,6 +1,7 @@
 package net.thucydides.core.reports;
 
-import com.google.common.util.concurrent.*;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.util.EnvironmentVariables;
@@ -12,10 +13,12 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Generates different Thucydides reports in a given output directory.
@@ -35,6 +38,12 @@ public class ReportService {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(ReportService.class);
 
+    private static final int MAXIMUM_QUEUED_REPORTS = 1000;
+
+    private static final long IDLE_THREAD_TIMEOUT_IN_SECONDS = 30;
+
+    private static ExecutorService executor;
+
     @Inject
     public ReportService(final Configuration configuration) {
         this(configuration.getOutputDirectory(), getDefaultReporters());
@@ -88,71 +97,69 @@ public class ReportService {
 
     public void generateReportsFor(final List<TestOutcome> testOutcomeResults) {
         final TestOutcomes allTestOutcomes = TestOutcomes.of(testOutcomeResults);
-        for (final AcceptanceTestReporter reporter : getSubscribedReporters()) {
-            generateReportsFor(reporter, allTestOutcomes);
-        }
-
-    }
-
-    private void generateReportsFor(final AcceptanceTestReporter reporter, final TestOutcomes testOutcomes) {
-        LOGGER.info("Generating reports using: " + reporter);
         long t0 = System.currentTimeMillis();
 
-        ListeningExecutorService executorService = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(8));
-
-        List<? extends TestOutcome> outcomes = testOutcomes.getOutcomes();
-        final AtomicInteger remainingReportCount = new AtomicInteger(outcomes.size());
-        for (final TestOutcome outcome : outcomes) {
-            final ListenableFuture<TestOutcome> future = executorService.submit(new Callable<TestOutcome>() {
-                @Override
-                public TestOutcome call() throws Exception {
-                    return outcome;
-                }
-            });
-            future.addListener(new Runnable() {
-                @Override
-                public void run() {
-                    generateQueuedReport(future, testOutcomes, reporter);
-                }
-            }, MoreExecutors.sameThreadExecutor());
-
-            Futures.addCallback(future, new FutureCallback<TestOutcome>() {
-                @Override
-                public void onSuccess(TestOutcome result) {
-                    remainingReportCount.decrementAndGet();
-                    LOGGER.info("Report generated for " + result.getCompleteName());
-                }
-
-                @Override
-                public void onFailure(Throwable t) {
-                    LOGGER.info("Report generated failed " + t.getMessage());
-                }
-            });
+        List<Future<?>> pendingReports = new ArrayList<>();
+        for (final AcceptanceTestReporter reporter : getSubscribedReporters()) {
+            LOGGER.info("Generating reports using: " + reporter);
+            reporter.setOutputDirectory(outputDirectory);
+            for (final TestOutcome outcome : allTestOutcomes.getOutcomes()) {
+                pendingReports.add(getExecutor().submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        generateReportFor(outcome, allTestOutcomes, reporter);
+                    }
+                }));
+            }
         }
-        waitForReportGenerationToFinish(remainingReportCount);
+        waitForReportGenerationToFinish(pendingReports);
         LOGGER.info("Reports generated in: " + (System.currentTimeMillis() - t0));
-
-    }
-
-    private void generateQueuedReport(ListenableFuture<TestOutcome> future, TestOutcomes testOutcomes, AcceptanceTestReporter reporter) {
-        try {
-            final TestOutcome outcome = future.get();
-            LOGGER.info("Processing test outcome " + outcome.getCompleteName());
-            generateReportFor(outcome, testOutcomes, reporter);
-        } catch (InterruptedException e) {
-            throw new RuntimeException("Report generation failure", e);
-        } catch (ExecutionException e) {
-            throw new RuntimeException("Report generation failure", e);
-        }
     }
 
-    private void waitForReportGenerationToFinish(AtomicInteger reportCount) {
-        while (reportCount.get() > 0) {
+    /**
+     * Wait for every report to be written, then report the first failure if there was one.
+     */
+    private void waitForReportGenerationToFinish(List<Future<?>> pendingReports) {
+        Throwable firstFailure = null;
+        for (Future<?> pendingReport : pendingReports) {
             try {
-                Thread.sleep(50);
+                pendingReport.get();
+            } catch (ExecutionException e) {
+                if (firstFailure == null) {
+                    firstFailure = e.getCause();
+                }
             } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ReportGenerationFailedError("Interrupted while waiting for reports to be generated", e);
             }
         }
+        if (firstFailure instanceof ReportGenerationFailedError) {
+            throw (ReportGenerationFailedError) firstFailure;
+        } else if (firstFailure != null) {
+            throw new ReportGenerationFailedError("Report generation failure", firstFailure);
+        }
+    }
+
+    /**
+     * Reports are generated on a single pool of daemon threads shared by every report service,
+     * rather than on a new pool for each test class. The pool threads stop when they have been idle for a while.
+     * When the queue is full, the calling thread writes the report itself.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            EnvironmentVariables environmentVariables = Injectors.getInjector().getProvider(EnvironmentVariables.class).get();
+            int threadCount = Math.max(1,
+                    environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_THREADS,
+                                                              Runtime.getRuntime().availableProcessors()));
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threadCount, threadCount,
+                    IDLE_THREAD_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(MAXIMUM_QUEUED_REPORTS),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("thucydides-report-generator-%d").build(),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            threadPool.allowCoreThreadTimeOut(true);
+            executor = threadPool;
+        }
+        return executor;
     }
 
     /**
@@ -188,7 +195,6 @@ public class ReportService {
                                    final AcceptanceTestReporter reporter) {
         try {
             LOGGER.info(reporter + ": Generating report for test outcome: " + testOutcome.getCompleteName());
-            reporter.setOutputDirectory(outputDirectory);
             reporter.generateReportFor(testOutcome, allTestOutcomes);
         } catch (IOException e) {
             throw new ReportGenerationFailedError(
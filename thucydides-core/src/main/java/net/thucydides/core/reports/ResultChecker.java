@@ -53,6 +53,12 @@ public class ResultChecker {
             if (outcomes.getTotal() == 0) {
                 outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).from(outputDirectory);
             }
+            if (outcomes.getTotal() == 0) {
+                outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.BINARY).from(outputDirectory);
+            }
+            if (outcomes.getTotal() == 0) {
+                outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.ARCHIVE).from(outputDirectory);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
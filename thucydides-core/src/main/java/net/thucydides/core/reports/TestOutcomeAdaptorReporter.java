@@ -5,6 +5,8 @@ import com.google.common.collect.Lists;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.reports.adaptors.TestOutcomeAdaptor;
+import net.thucydides.core.reports.archive.ArchivedTestOutcomeReporter;
+import net.thucydides.core.reports.binary.BinaryTestOutcomeReporter;
 import net.thucydides.core.reports.html.HtmlAcceptanceTestReporter;
 import net.thucydides.core.reports.json.JSONTestOutcomeReporter;
 import net.thucydides.core.reports.xml.XMLTestOutcomeReporter;
@@ -63,6 +65,12 @@ public class TestOutcomeAdaptorReporter extends ThucydidesReporter {
             if (shouldGenerate(OutcomeFormat.JSON)) {
                 getJsonReporter().generateReportFor(outcome, allOutcomes);
             }
+            if (shouldGenerate(OutcomeFormat.BINARY)) {
+                getBinaryReporter().generateReportFor(outcome, allOutcomes);
+            }
+            if (shouldGenerate(OutcomeFormat.ARCHIVE)) {
+                getArchiveReporter().generateReportFor(outcome, allOutcomes);
+            }
             getHTMLReporter().generateReportFor(outcome, allOutcomes);
         }
     }
@@ -83,6 +91,18 @@ public class TestOutcomeAdaptorReporter extends ThucydidesReporter {
         return reporter;
     }
 
+    private AcceptanceTestReporter getBinaryReporter() {
+        BinaryTestOutcomeReporter reporter = new BinaryTestOutcomeReporter();
+        reporter.setOutputDirectory(getOutputDirectory());
+        return reporter;
+    }
+
+    private AcceptanceTestReporter getArchiveReporter() {
+        ArchivedTestOutcomeReporter reporter = new ArchivedTestOutcomeReporter();
+        reporter.setOutputDirectory(getOutputDirectory());
+        return reporter;
+    }
+
     private AcceptanceTestReporter getHTMLReporter() {
         HtmlAcceptanceTestReporter reporter = new HtmlAcceptanceTestReporter();
         reporter.setOutputDirectory(getOutputDirectory());
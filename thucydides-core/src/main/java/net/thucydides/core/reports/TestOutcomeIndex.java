@@ -0,0 +1,222 @@
+package net.thucydides.core.reports;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.model.TestType;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An inverted index over a list of test outcomes, built once and shared by every subset derived from it.
+ * A subset of the outcomes is a bit set of outcome positions in the indexed list, so filtering by tag, tag type
+ * or result is a bit set intersection rather than a scan of every outcome.
+ * Tags and results are read when the index is built. If tags or issues are added to one of the indexed outcomes
+ * afterwards (as release tags are when the release reports are prepared), the index is out of date and is rebuilt
+ * over the same list of outcomes, so that outcome positions stay valid in existing subsets.
+ * Changes to outcomes that are not in the index leave it as it is.
+ */
+class TestOutcomeIndex {
+
+    private final List<? extends TestOutcome> outcomes;
+    private final long builtAtRevision;
+    private volatile long checkedAtRevision;
+    private final BitSet allOutcomes;
+    private final Map<TestTag, BitSet> outcomesByTag = new LinkedHashMap<>();
+    private final Map<String, BitSet> outcomesByTagName = new LinkedHashMap<>();
+    private final Map<String, BitSet> outcomesByTagType = new LinkedHashMap<>();
+    private final Map<String, BitSet> outcomesByIssue = new LinkedHashMap<>();
+    private final Map<TestResult, BitSet> outcomesByResult = new EnumMap<>(TestResult.class);
+    private final BitSet manualOutcomes = new BitSet();
+    private final BitSet dataDrivenOutcomes = new BitSet();
+
+    private static final BitSet NO_OUTCOMES = new BitSet();
+
+    TestOutcomeIndex(List<? extends TestOutcome> outcomes) {
+        this.outcomes = outcomes;
+        this.builtAtRevision = TestOutcome.getLatestTagRevision();
+        this.checkedAtRevision = builtAtRevision;
+        this.allOutcomes = new BitSet(outcomes.size());
+        this.allOutcomes.set(0, outcomes.size());
+        for (int position = 0; position < outcomes.size(); position++) {
+            index(outcomes.get(position), position);
+        }
+    }
+
+    private void index(TestOutcome outcome, int position) {
+        for (TestTag tag : outcome.getTags()) {
+            entryFor(outcomesByTag, tag).set(position);
+            entryFor(outcomesByTagName, tag.getName().toLowerCase()).set(position);
+            entryFor(outcomesByTagType, tag.getType()).set(position);
+        }
+        for (String issue : outcome.getIssues()) {
+            entryFor(outcomesByIssue, issue).set(position);
+        }
+        TestResult result = outcome.getResult();
+        if (result != null) {
+            entryFor(outcomesByResult, result).set(position);
+        }
+        if (outcome.isManual()) {
+            manualOutcomes.set(position);
+        }
+        if (outcome.isDataDriven()) {
+            dataDrivenOutcomes.set(position);
+        }
+    }
+
+    /**
+     * The indexed outcomes are only checked when the tags of some outcome, somewhere, have changed since the last check,
+     * and the index is only out of date if one of them has changed since it was built.
+     */
+    boolean isOutOfDate() {
+        long latestRevision = TestOutcome.getLatestTagRevision();
+        if (latestRevision == checkedAtRevision) {
+            return false;
+        }
+        for (TestOutcome outcome : outcomes) {
+            if (outcome.getTagRevision() > builtAtRevision) {
+                return true;
+            }
+        }
+        checkedAtRevision = latestRevision;
+        return false;
+    }
+
+    TestOutcomeIndex rebuilt() {
+        return new TestOutcomeIndex(outcomes);
+    }
+
+    private <K> BitSet entryFor(Map<K, BitSet> index, K key) {
+        BitSet entry = index.get(key);
+        if (entry == null) {
+            entry = new BitSet(outcomes.size());
+            index.put(key, entry);
+        }
+        return entry;
+    }
+
+    BitSet all() {
+        return (BitSet) allOutcomes.clone();
+    }
+
+    BitSet withTag(BitSet members, TestTag tag) {
+        BitSet matching = copyOf(outcomesByTag.get(tag));
+        if (tag.getType().equalsIgnoreCase("issue")) {
+            matching.or(copyOf(outcomesByIssue.get(tag.getName())));
+        }
+        matching.and(members);
+        return matching;
+    }
+
+    BitSet withTagName(BitSet members, String tagName) {
+        return intersection(members, outcomesByTagName.get(tagName.toLowerCase()));
+    }
+
+    BitSet withTagType(BitSet members, String tagType) {
+        return intersection(members, outcomesByTagType.get(tagType));
+    }
+
+    BitSet withResults(BitSet members, TestResult... results) {
+        BitSet matching = new BitSet();
+        for (TestResult result : results) {
+            matching.or(copyOf(outcomesByResult.get(result)));
+        }
+        matching.and(members);
+        return matching;
+    }
+
+    BitSet ofType(BitSet members, TestType testType) {
+        BitSet matching = (BitSet) members.clone();
+        switch (testType) {
+            case MANUAL:
+                matching.and(manualOutcomes);
+                break;
+            case AUTOMATED:
+                matching.andNot(manualOutcomes);
+                break;
+            default:
+                break;
+        }
+        return matching;
+    }
+
+    /**
+     * The number of test runs with a given result: one for each matching outcome, plus one for each matching
+     * row of data-driven outcomes (whatever their type, as in {@link TestOutcome#countResults(TestResult, TestType)}).
+     */
+    int countResults(BitSet members, TestResult result, TestType testType) {
+        BitSet simpleOutcomes = ofType(withResults(members, result), testType);
+        simpleOutcomes.andNot(dataDrivenOutcomes);
+        int count = simpleOutcomes.cardinality();
+
+        BitSet dataDrivenMembers = intersection(members, dataDrivenOutcomes);
+        for (int position = dataDrivenMembers.nextSetBit(0); position >= 0; position = dataDrivenMembers.nextSetBit(position + 1)) {
+            count += outcomes.get(position).countResults(result, testType);
+        }
+        return count;
+    }
+
+    List<TestOutcome> outcomesIn(BitSet members) {
+        ImmutableList.Builder<TestOutcome> matchingOutcomes = ImmutableList.builder();
+        for (int position = members.nextSetBit(0); position >= 0; position = members.nextSetBit(position + 1)) {
+            matchingOutcomes.add(outcomes.get(position));
+        }
+        return matchingOutcomes.build();
+    }
+
+    List<TestTag> tagsIn(BitSet members) {
+        ImmutableList.Builder<TestTag> tags = ImmutableList.builder();
+        for (Map.Entry<TestTag, BitSet> entry : outcomesByTag.entrySet()) {
+            if (entry.getValue().intersects(members)) {
+                tags.add(entry.getKey());
+            }
+        }
+        return tags.build();
+    }
+
+    boolean containsTag(BitSet members, TestTag tag) {
+        BitSet matching = outcomesByTag.get(tag);
+        return (matching != null) && matching.intersects(members);
+    }
+
+    /**
+     * @return the lower-case tag names used in a subset of the outcomes, in alphabetical order.
+     */
+    List<String> tagNamesIn(BitSet members) {
+        return sortedKeysIntersecting(outcomesByTagName, members, false);
+    }
+
+    /**
+     * @return the lower-case tag types used in a subset of the outcomes, in alphabetical order.
+     */
+    List<String> tagTypesIn(BitSet members) {
+        return sortedKeysIntersecting(outcomesByTagType, members, true);
+    }
+
+    private List<String> sortedKeysIntersecting(Map<String, BitSet> index, BitSet members, boolean lowerCase) {
+        Set<String> keys = new TreeSet<>();
+        for (Map.Entry<String, BitSet> entry : index.entrySet()) {
+            if (entry.getValue().intersects(members)) {
+                keys.add(lowerCase ? entry.getKey().toLowerCase() : entry.getKey());
+            }
+        }
+        return ImmutableList.copyOf(keys);
+    }
+
+    private BitSet intersection(BitSet members, BitSet indexEntry) {
+        BitSet matching = copyOf(indexEntry);
+        matching.and(members);
+        return matching;
+    }
+
+    private BitSet copyOf(BitSet indexEntry) {
+        return (indexEntry == null) ? (BitSet) NO_OUTCOMES.clone() : (BitSet) indexEntry.clone();
+    }
+}
@@ -1,17 +1,33 @@
 package net.thucydides.core.reports;
 
+import com.google.common.base.Optional;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
+import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.archive.ArchivedOutcomes;
+import net.thucydides.core.reports.archive.ArchivedTestOutcomeReporter;
+import net.thucydides.core.reports.binary.BinaryTestOutcomeReporter;
 import net.thucydides.core.reports.json.JSONTestOutcomeReporter;
 import net.thucydides.core.reports.xml.XMLTestOutcomeReporter;
 import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Loads test outcomes from a given directory, and reports on their contents.
@@ -22,6 +38,8 @@ public class TestOutcomeLoader {
     private final EnvironmentVariables environmentVariables;
     private final FormatConfiguration formatConfiguration;
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestOutcomeLoader.class);
+
     public TestOutcomeLoader() {
         this(Injectors.getInjector().getProvider(EnvironmentVariables.class).get() );
     }
@@ -43,24 +61,128 @@ public class TestOutcomeLoader {
     }
     /**
      * Load the test outcomes from a given directory.
+     * The outcome files are read in parallel, using up to thucydides.report.threads threads.
+     * Files that cannot be read are logged and skipped.
      *
-     * @param reportDirectory An existing directory that contains the test outcomes in XML or JSON format.
+     * @param reportDirectory An existing directory that contains the test outcomes in XML or JSON format,
+     *                        or in outcome archives.
      * @return The full list of test outcomes.
      * @throws java.io.IOException Thrown if the specified directory was invalid.
      */
     public List<TestOutcome> loadFrom(final File reportDirectory) throws IOException {
 
-        final AcceptanceTestLoader testOutcomeReporter = getOutcomeReporter();
-        List<File> reportFiles = getAllOutcomeFilesFrom(reportDirectory);
+        List<OutcomeSource> outcomeSources = getAllOutcomeSourcesFrom(reportDirectory);
 
-        final List<TestOutcome> testOutcomes = Collections.synchronizedList(new ArrayList<TestOutcome>());
-        for(File reportFile : reportFiles) {
-            testOutcomes.addAll(testOutcomeReporter.loadReportFrom(reportFile).asSet());
+        List<TestOutcome> testOutcomes = loadOutcomesFrom(outcomeSources);
+        if (testOutcomes.size() < outcomeSources.size()) {
+            LOGGER.warn("{} of the {} test outcomes in {} could not be loaded",
+                        new Object[]{outcomeSources.size() - testOutcomes.size(), outcomeSources.size(), reportDirectory});
         }
         Collections.sort(testOutcomes, byTitle());
         return ImmutableList.copyOf(testOutcomes);
     }
 
+    /**
+     * Load the test outcomes from a given directory one at a time, as they are needed, for callers that only
+     * need to look at each outcome once. Files that cannot be read are logged and skipped.
+     *
+     * @param reportDirectory An existing directory that contains the test outcomes in XML or JSON format,
+     *                        or in outcome archives.
+     * @throws java.io.IOException Thrown if the specified directory was invalid.
+     */
+    public Iterable<TestOutcome> lazilyLoadFrom(final File reportDirectory) throws IOException {
+        final List<OutcomeSource> outcomeSources = getAllOutcomeSourcesFrom(reportDirectory);
+        return new Iterable<TestOutcome>() {
+            @Override
+            public Iterator<TestOutcome> iterator() {
+                final Iterator<OutcomeSource> remainingSources = outcomeSources.iterator();
+                return new AbstractIterator<TestOutcome>() {
+                    @Override
+                    protected TestOutcome computeNext() {
+                        while (remainingSources.hasNext()) {
+                            Optional<TestOutcome> testOutcome = loadOutcomeFrom(remainingSources.next());
+                            if (testOutcome.isPresent()) {
+                                return testOutcome.get();
+                            }
+                        }
+                        return endOfData();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * The outcomes are returned in the same order as the sources they were read from.
+     */
+    private List<TestOutcome> loadOutcomesFrom(List<OutcomeSource> outcomeSources) throws IOException {
+        List<TestOutcome> testOutcomes = new ArrayList<>(outcomeSources.size());
+        int threadCount = Math.min(getLoaderThreadCount(), outcomeSources.size());
+        if (threadCount <= 1) {
+            for (OutcomeSource outcomeSource : outcomeSources) {
+                testOutcomes.addAll(loadOutcomeFrom(outcomeSource).asSet());
+            }
+            return testOutcomes;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("thucydides-outcome-loader-%d").build());
+        try {
+            List<Future<Optional<TestOutcome>>> loadingOutcomes = new ArrayList<>(outcomeSources.size());
+            for (final OutcomeSource outcomeSource : outcomeSources) {
+                loadingOutcomes.add(executor.submit(new Callable<Optional<TestOutcome>>() {
+                    @Override
+                    public Optional<TestOutcome> call() {
+                        return loadOutcomeFrom(outcomeSource);
+                    }
+                }));
+            }
+            for (Future<Optional<TestOutcome>> loadingOutcome : loadingOutcomes) {
+                testOutcomes.addAll(loadingOutcome.get().asSet());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading test outcomes");
+        } catch (ExecutionException e) {
+            throw new ReportGenerationFailedError("Failed to load test outcomes", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return testOutcomes;
+    }
+
+    private Optional<TestOutcome> loadOutcomeFrom(OutcomeSource outcomeSource) {
+        try {
+            return outcomeSource.load();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not load the test outcome in {}: {}", outcomeSource, e.getMessage());
+            return Optional.absent();
+        }
+    }
+
+    /**
+     * Somewhere a single test outcome can be loaded from: a file of its own, or a record in an outcome archive.
+     */
+    private abstract static class OutcomeSource {
+        private final String description;
+
+        protected OutcomeSource(String description) {
+            this.description = description;
+        }
+
+        abstract Optional<TestOutcome> load() throws IOException;
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private int getLoaderThreadCount() {
+        return environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_THREADS,
+                                                         Runtime.getRuntime().availableProcessors());
+    }
+
     private Comparator<? super TestOutcome> byTitle() {
         return new Comparator<TestOutcome>() {
             @Override
@@ -70,6 +192,58 @@ public class TestOutcomeLoader {
         };
     }
 
+    private List<OutcomeSource> getAllOutcomeSourcesFrom(final File reportsDirectory) throws IOException {
+        if (formatConfiguration.getPreferredFormat() == OutcomeFormat.ARCHIVE) {
+            return getAllArchivedOutcomesFrom(reportsDirectory);
+        }
+        final AcceptanceTestLoader testOutcomeReporter = getOutcomeReporter();
+        List<OutcomeSource> outcomeSources = Lists.newArrayList();
+        for (final File reportFile : getAllOutcomeFilesFrom(reportsDirectory)) {
+            outcomeSources.add(new OutcomeSource(reportFile.toString()) {
+                @Override
+                Optional<TestOutcome> load() {
+                    return testOutcomeReporter.loadReportFrom(reportFile);
+                }
+            });
+        }
+        return outcomeSources;
+    }
+
+    /**
+     * A directory with no outcome archives in it is read in the next configured format instead (JSON by default),
+     * so that directories of individual outcome files can still be read.
+     */
+    private List<OutcomeSource> getAllArchivedOutcomesFrom(final File reportsDirectory) throws IOException {
+        if (!reportsDirectory.isDirectory()) {
+            throw new IOException("Could not find directory " + reportsDirectory);
+        }
+        Map<String, ArchivedOutcomes> archivedOutcomes = ArchivedTestOutcomeReporter.latestOutcomesIn(reportsDirectory);
+        if (archivedOutcomes.isEmpty()) {
+            return forFormat(formatForOutcomeFiles()).getAllOutcomeSourcesFrom(reportsDirectory);
+        }
+        List<OutcomeSource> outcomeSources = Lists.newArrayList();
+        for (Map.Entry<String, ArchivedOutcomes> archivedOutcome : archivedOutcomes.entrySet()) {
+            final String reportName = archivedOutcome.getKey();
+            final ArchivedOutcomes archive = archivedOutcome.getValue();
+            outcomeSources.add(new OutcomeSource(archive.getFile() + "#" + reportName) {
+                @Override
+                Optional<TestOutcome> load() throws IOException {
+                    return archive.load(reportName);
+                }
+            });
+        }
+        return outcomeSources;
+    }
+
+    private OutcomeFormat formatForOutcomeFiles() {
+        for (OutcomeFormat format : formatConfiguration.getFormats()) {
+            if (format == OutcomeFormat.JSON || format == OutcomeFormat.XML || format == OutcomeFormat.BINARY) {
+                return format;
+            }
+        }
+        return OutcomeFormat.JSON;
+    }
+
     private List<File> getAllOutcomeFilesFrom(final File reportsDirectory) throws IOException{
         File[] matchingFiles = reportsDirectory.listFiles(new SerializedOutcomeFilenameFilter());
         if (matchingFiles == null) {
@@ -106,6 +280,8 @@ public class TestOutcomeLoader {
         switch (formatConfiguration.getPreferredFormat()) {
             case XML: return new XMLTestOutcomeReporter();
             case JSON: return new JSONTestOutcomeReporter();
+            case BINARY: return new BinaryTestOutcomeReporter();
+            case ARCHIVE: return new ArchivedTestOutcomeReporter();
             default: throw new IllegalArgumentException("Unsupported report format: " + formatConfiguration.getPreferredFormat());
         }
     }
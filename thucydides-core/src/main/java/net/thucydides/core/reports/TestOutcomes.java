@@ -1,9 +1,10 @@
 package net.thucydides.core.reports;
 
-import ch.lambdaj.function.convert.Converter;
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import net.thucydides.core.guice.Injectors;
@@ -17,14 +18,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.hamcrest.Matcher;
 import org.joda.time.DateTime;
 
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
-import static ch.lambdaj.Lambda.*;
 import static net.thucydides.core.model.TestResult.*;
-import static net.thucydides.core.reports.matchers.TestOutcomeMatchers.*;
 import static org.hamcrest.Matchers.is;
 
 //import net.thucydides.core.statistics.HibernateTestStatisticsProvider;
@@ -51,11 +50,27 @@ public class TestOutcomes {
      */
     private final String label;
 
+    /**
+     * The position of these outcomes in the indexed list they were filtered from.
+     * Null if these outcomes have not been filtered, in which case they are indexed themselves.
+     */
+    private final BitSet members;
+
+    private volatile TestOutcomeIndex index;
+
     /**
      * Reference to the test statistics service provider, used to inject test history if required.
      */
     private static final Integer DEFAULT_ESTIMATED_TOTAL_STEPS = 3;
 
+    private static final Ordering<TestOutcome> BY_TITLE = Ordering.natural().nullsFirst().onResultOf(
+            new Function<TestOutcome, String>() {
+                @Override
+                public String apply(TestOutcome outcome) {
+                    return outcome.getTitle();
+                }
+            });
+
     @Inject
     protected TestOutcomes(List<? extends TestOutcome> outcomes,
                            double estimatedAverageStepCount,
@@ -68,6 +83,23 @@ public class TestOutcomes {
         this.rootOutcomes = Optional.fromNullable(rootOutcomes);
         this.environmentVariables = environmentVariables;
         this.requirementsService = Injectors.getInjector().getInstance(RequirementsService.class);
+        this.members = null;
+    }
+
+    private TestOutcomes(TestOutcomeIndex index,
+                         BitSet members,
+                         double estimatedAverageStepCount,
+                         String label,
+                         TestOutcomes rootOutcomes,
+                         EnvironmentVariables environmentVariables) {
+        this.outcomes = index.outcomesIn(members);
+        this.estimatedAverageStepCount = estimatedAverageStepCount;
+        this.label = label;
+        this.rootOutcomes = Optional.fromNullable(rootOutcomes);
+        this.environmentVariables = environmentVariables;
+        this.requirementsService = Injectors.getInjector().getInstance(RequirementsService.class);
+        this.index = index;
+        this.members = members;
     }
 
     protected TestOutcomes(List<? extends TestOutcome> outcomes,
@@ -82,18 +114,47 @@ public class TestOutcomes {
     }
 
     public TestOutcomes withLabel(String label) {
+        if (members != null) {
+            return subset(members, label, null);
+        }
         return new TestOutcomes(this.outcomes, this.estimatedAverageStepCount, label);
     }
 
+    private TestOutcomeIndex index() {
+        TestOutcomeIndex currentIndex = index;
+        if (currentIndex == null || currentIndex.isOutOfDate()) {
+            synchronized (this) {
+                currentIndex = index;
+                if (currentIndex == null) {
+                    currentIndex = new TestOutcomeIndex(outcomes);
+                    index = currentIndex;
+                } else if (currentIndex.isOutOfDate()) {
+                    currentIndex = currentIndex.rebuilt();
+                    index = currentIndex;
+                }
+            }
+        }
+        return currentIndex;
+    }
+
+    private BitSet members() {
+        return (members != null) ? members : index().all();
+    }
+
+    /**
+     * A subset of these outcomes that shares the same index.
+     */
+    private TestOutcomes subset(BitSet subsetMembers, String label, TestOutcomes rootOutcomes) {
+        return new TestOutcomes(index(), subsetMembers, estimatedAverageStepCount, label, rootOutcomes, environmentVariables);
+    }
+
     public TestOutcomes havingResult(String result) {
         return havingResult(TestResult.valueOf(result.toUpperCase()));
     }
 
     public TestOutcomes havingResult(TestResult result) {
 
-        return TestOutcomes.of(filter(withResult(result), outcomes))
-                .withLabel(labelForTestsWithStatus(result.name()))
-                .withRootOutcomes(getRootOutcomes());
+        return subset(index().withResults(members(), result), labelForTestsWithStatus(result.name()), getRootOutcomes());
     }
 
     public static TestOutcomes of(List<? extends TestOutcome> outcomes) {
@@ -117,29 +178,23 @@ public class TestOutcomes {
      * @return The list of all of the different tag types that appear in the test outcomes.
      */
     public List<String> getTagTypes() {
-        Set<String> tagTypes = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            addTagTypesFrom(outcome, tagTypes);
-        }
-        return sort(ImmutableList.copyOf(tagTypes), on(String.class));
+        return index().tagTypesIn(members());
     }
 
     public List<String> getFirstClassTagTypes() {
-        Set<String> tagTypes = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            addTagTypesFrom(outcome, tagTypes);
-        }
+        Set<String> tagTypes = Sets.newHashSet(getTagTypes());
         tagTypes.remove("version");
         tagTypes.removeAll(getRequirementTagTypes());
-        return sort(ImmutableList.copyOf(tagTypes), on(String.class));
+        return Ordering.natural().immutableSortedCopy(tagTypes);
     }
 
     public List<String> getRequirementTagTypes() {
        List<String> tagTypes = Lists.newArrayList();
 
        List<String> candidateTagTypes = requirementsService.getRequirementTypes();
+       List<String> allTagTypes = getTagTypes();
        for(String tagType : candidateTagTypes) {
-           if (getTagTypes().contains(tagType)) {
+           if (allTagTypes.contains(tagType)) {
                tagTypes.add(tagType);
            }
        }
@@ -150,40 +205,14 @@ public class TestOutcomes {
      * @return The list of all the names of the different tags in these test outcomes
      */
     public List<String> getTagNames() {
-        Set<String> tags = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            addTagNamesFrom(outcome, tags);
-        }
-        return sort(ImmutableList.copyOf(tags), on(String.class));
-    }
-
-    private void addTagNamesFrom(TestOutcome outcome, Set<String> tags) {
-        for (TestTag tag : outcome.getTags()) {
-            String normalizedForm = tag.getName().toLowerCase();
-            if (!tags.contains(normalizedForm)) {
-                tags.add(normalizedForm);
-            }
-        }
-    }
-
-    private void addTagTypesFrom(TestOutcome outcome, Set<String> tags) {
-        for (TestTag tag : outcome.getTags()) {
-            String normalizedForm = tag.getType().toLowerCase();
-            if (!tags.contains(normalizedForm)) {
-                tags.add(normalizedForm);
-            }
-        }
+        return index().tagNamesIn(members());
     }
 
     /**
      * @return The list of all the different tags in these test outcomes
      */
     public List<TestTag> getTags() {
-        Set<TestTag> tags = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            tags.addAll(outcome.getTags());
-        }
-        return ImmutableList.copyOf(tags);
+        return index().tagsIn(members());
     }
 
     /**
@@ -194,7 +223,7 @@ public class TestOutcomes {
         for (TestOutcome outcome : outcomes) {
             tags.addAll(tagsOfType(tagType).in(outcome));
         }
-        return sort(ImmutableList.copyOf(tags), on(String.class));
+        return Ordering.natural().immutableSortedCopy(tags);
     }
 
 
@@ -207,7 +236,7 @@ public class TestOutcomes {
             List<TestTag> mostSpecificOutcomeTags = removeGeneralTagsFrom(tagsOfType(tagType).in(outcome));
             tags.addAll(mostSpecificOutcomeTags);
         }
-        return sort(ImmutableList.copyOf(tags), on(String.class));
+        return Ordering.natural().immutableSortedCopy(tags);
     }
 
     private List<TestTag> removeGeneralTagsFrom(List<TestTag> tags) {
@@ -239,7 +268,7 @@ public class TestOutcomes {
             allTagsOfType = removeExcluded(allTagsOfType, excludedTag);
             tags.addAll(allTagsOfType);
         }
-        return sort(ImmutableList.copyOf(tags), on(String.class));
+        return Ordering.natural().immutableSortedCopy(tags);
     }
 
     private List<TestTag> removeExcluded(List<TestTag> allTagsOfType, String excludedTag) {
@@ -265,21 +294,22 @@ public class TestOutcomes {
     }
 
     public boolean containsTag(TestTag testTag) {
-        return getTags().contains(testTag);
+        return index().containsTag(members(), testTag);
     }
 
     public DateTime getStartTime() {
-        return min(outcomes, on(TestOutcome.class).getStartTime());
+        DateTime startTime = null;
+        for (TestOutcome outcome : outcomes) {
+            DateTime outcomeStartTime = outcome.getStartTime();
+            if ((outcomeStartTime != null) && ((startTime == null) || outcomeStartTime.isBefore(startTime))) {
+                startTime = outcomeStartTime;
+            }
+        }
+        return startTime;
     }
 
     public TestOutcomes ofType(TestType testType) {
-        List<TestOutcome> filteredOutcomes = Lists.newArrayList();
-        for(TestOutcome outcome : outcomes) {
-            if (outcome.typeCompatibleWith(testType)) {
-                filteredOutcomes.add(outcome);
-            }
-        }
-        return TestOutcomes.of(filteredOutcomes);
+        return subset(index().ofType(members(), testType), "", null);
     }
 
     public TestOutcomes withRequirementsTags() {
@@ -321,10 +351,13 @@ public class TestOutcomes {
      * @return A new set of test outcomes for this tag type
      */
     public TestOutcomes withTagType(String tagType) {
-        return TestOutcomes.of(filter(havingTagType(tagType), outcomes)).withLabel(tagType).withRootOutcomes(this.getRootOutcomes());
+        return subset(index().withTagType(members(), tagType), tagType, getRootOutcomes());
     }
 
     private TestOutcomes withRootOutcomes(TestOutcomes rootOutcomes) {
+        if (members != null) {
+            return subset(members, this.label, rootOutcomes);
+        }
         return new TestOutcomes(this.outcomes, this.estimatedAverageStepCount, this.label, rootOutcomes, environmentVariables);
     }
 
@@ -335,37 +368,22 @@ public class TestOutcomes {
      * @return A new set of test outcomes for this tag name
      */
     public TestOutcomes withTag(String tagName) {
-        return TestOutcomes.of(filter(havingTagName(tagName), outcomes)).withLabel(tagName).withRootOutcomes(getRootOutcomes());
+        return subset(index().withTagName(members(), tagName), tagName, getRootOutcomes());
     }
 
+    /**
+     * Find the test outcomes with a given tag. Issue tags also match the outcomes that refer to the issue.
+     */
     public TestOutcomes withTag(TestTag tag) {
-        List<? extends TestOutcome> matchingTags = matchingOutcomes(outcomes, tag);
-        return TestOutcomes.of(matchingTags).withLabel(tag.getName()).withRootOutcomes(getRootOutcomes());
+        return subset(index().withTag(members(), tag), tag.getName(), getRootOutcomes());
     }
 
     public TestOutcomes withTags(List<TestTag> tags) {
-        List<TestOutcome> filteredOutcomes = Lists.newArrayList();
+        BitSet matchingOutcomes = new BitSet();
         for (TestTag tag : tags) {
-            filteredOutcomes.addAll(matchingOutcomes(outcomes, tag));
-        }
-        return TestOutcomes.of(filteredOutcomes);
-    }
-
-    private List<? extends TestOutcome> matchingOutcomes(List<? extends TestOutcome> outcomes, TestTag tag) {
-        List<TestOutcome> matchingOutcomes = Lists.newArrayList();
-        for (TestOutcome outcome : outcomes) {
-            if (isAnIssue(tag) && (outcome.hasIssue(tag.getName()))) {
-                matchingOutcomes.add(outcome);
-            }
-            if (outcome.hasTag(tag)) {
-                matchingOutcomes.add(outcome);
-            }
+            matchingOutcomes.or(index().withTag(members(), tag));
         }
-        return matchingOutcomes;
-    }
-
-    private boolean isAnIssue(TestTag tag) {
-        return tag.getType().equalsIgnoreCase("issue");
+        return subset(matchingOutcomes, "", null);
     }
 
     /**
@@ -374,19 +392,10 @@ public class TestOutcomes {
      * @return a TestOutcome instance containing a list of TestOutcomeWithHistory instances.
      */
     public TestOutcomes withHistory() {
-        return TestOutcomes.of(convert(outcomes, toOutcomesWithHistory()));
-    }
-
-    private Converter<TestOutcome, TestOutcome> toOutcomesWithHistory() {
-        return new Converter<TestOutcome, TestOutcome>() {
-
-            public TestOutcome convert(TestOutcome testOutcome) {
-                // TODO: Here's where the stats go
-                //TestStatistics statistics = testStatisticsProvider.statisticsForTests(With.title(testOutcome.getTitle()));
-                //testOutcome.setStatistics(statistics);
-                return testOutcome;
-            }
-        };
+        // TODO: Here's where the stats go
+        //TestStatistics statistics = testStatisticsProvider.statisticsForTests(With.title(testOutcome.getTitle()));
+        //testOutcome.setStatistics(statistics);
+        return TestOutcomes.of(outcomes);
     }
 
     /**
@@ -395,15 +404,11 @@ public class TestOutcomes {
      * @return A new set of test outcomes containing only the failing tests
      */
     public TestOutcomes getFailingTests() {
-        return TestOutcomes.of(filter(withResult(TestResult.FAILURE), outcomes))
-                .withLabel(labelForTestsWithStatus("failing tests"))
-                .withRootOutcomes(getRootOutcomes());
+        return subset(index().withResults(members(), FAILURE), labelForTestsWithStatus("failing tests"), getRootOutcomes());
     }
 
     public TestOutcomes getErrorTests() {
-        return TestOutcomes.of(filter(withResult(TestResult.ERROR), outcomes))
-                .withLabel(labelForTestsWithStatus("failing tests"))
-                .withRootOutcomes(getRootOutcomes());
+        return subset(index().withResults(members(), ERROR), labelForTestsWithStatus("failing tests"), getRootOutcomes());
     }
 
     private String labelForTestsWithStatus(String status) {
@@ -420,9 +425,7 @@ public class TestOutcomes {
      * @return A new set of test outcomes containing only the successful tests
      */
     public TestOutcomes getPassingTests() {
-        return TestOutcomes.of(filter(withResult(TestResult.SUCCESS), outcomes))
-                .withLabel(labelForTestsWithStatus("passing tests"))
-                .withRootOutcomes(getRootOutcomes());
+        return subset(index().withResults(members(), SUCCESS), labelForTestsWithStatus("passing tests"), getRootOutcomes());
     }
 
     /**
@@ -431,31 +434,14 @@ public class TestOutcomes {
      * @return A new set of test outcomes containing only the pending or ignored tests
      */
     public TestOutcomes getPendingTests() {
-
-        List<TestOutcome> pendingOrSkippedOutcomes = outcomesWithResults(outcomes, PENDING, SKIPPED);
-        return TestOutcomes.of(pendingOrSkippedOutcomes)
-                .withLabel(labelForTestsWithStatus("pending tests"))
-                .withRootOutcomes(getRootOutcomes());
-
-    }
-
-    private List<TestOutcome> outcomesWithResults(List<? extends TestOutcome> outcomes,
-                                                  TestResult... possibleResults) {
-        List<TestOutcome> validOutcomes = Lists.newArrayList();
-        List<TestResult> possibleResultsList = Arrays.asList(possibleResults);
-        for (TestOutcome outcome : outcomes) {
-            if (possibleResultsList.contains(outcome.getResult())) {
-                validOutcomes.add(outcome);
-            }
-        }
-        return validOutcomes;
+        return subset(index().withResults(members(), PENDING, SKIPPED), labelForTestsWithStatus("pending tests"), getRootOutcomes());
     }
 
     /**
      * @return The list of TestOutcomes contained in this test outcome set.
      */
     public List<? extends TestOutcome> getTests() {
-        return sort(outcomes, on(TestOutcome.class).getTitle());
+        return BY_TITLE.sortedCopy(outcomes);
     }
 
     /**
@@ -480,7 +466,7 @@ public class TestOutcomes {
      * @return The total number of test runs in this set (including rows in data-driven tests).
      */
     public int getTotal() {
-        return sum(outcomes, on(TestOutcome.class).getTestCount());
+        return getTestCount();
     }
 
     /**
@@ -503,29 +489,29 @@ public class TestOutcomes {
     }
 
     private List<TestResult> getCurrentTestResults() {
-        return convert(outcomes, toTestResults());
-    }
-
-    private Converter<? extends TestOutcome, TestResult> toTestResults() {
-        return new Converter<TestOutcome, TestResult>() {
-            public TestResult convert(final TestOutcome step) {
-                return step.getResult();
-            }
-        };
+        List<TestResult> results = Lists.newArrayListWithCapacity(outcomes.size());
+        for (TestOutcome outcome : outcomes) {
+            results.add(outcome.getResult());
+        }
+        return results;
     }
 
     /**
      * @return The total number of nested steps in these test outcomes.
      */
     public int getStepCount() {
-        return sum(extract(outcomes, on(TestOutcome.class).getNestedStepCount())).intValue();
+        int stepCount = 0;
+        for (TestOutcome outcome : outcomes) {
+            stepCount += outcome.getNestedStepCount();
+        }
+        return stepCount;
     }
 
     /**
      * @param testType 'manual' or 'automated' (this is a string because it is mainly called from the freemarker templates
      */
     public int successCount(String testType) {
-        return sum(outcomes, on(TestOutcome.class).countResults(SUCCESS, TestType.valueOf(testType.toUpperCase())));
+        return countTestsWithResult(SUCCESS, TestType.valueOf(testType.toUpperCase()));
     }
 
 
@@ -644,7 +630,10 @@ public class TestOutcomes {
     }
 
     private int countStepsWithResult(TestResult expectedResult, TestType testType) {
-        int stepCount = sum(outcomes, on(TestOutcome.class).countNestedStepsWithResult(expectedResult, testType));
+        int stepCount = 0;
+        for (TestOutcome outcome : outcomes) {
+            stepCount += outcome.countNestedStepsWithResult(expectedResult, testType);
+        }
         if ((stepCount == 0) && aMatchingTestExists(expectedResult, testType)) {
             return (int) Math.round(getAverageTestSize());
         }
@@ -655,8 +644,11 @@ public class TestOutcomes {
         return (countTestsWithResult(expectedResult, testType) > 0);
     }
 
-    protected int countTestsWithResult(TestResult expectedResult, TestType testType) {
-        return sum(outcomes, on(TestOutcome.class).countResults(expectedResult, testType));
+    /**
+     * @return the number of test runs with a given result, counting each row of a data-driven test.
+     */
+    public int countTestsWithResult(TestResult expectedResult, TestType testType) {
+        return index().countResults(members(), expectedResult, testType);
     }
 
     private Integer getEstimatedTotalStepCount() {
@@ -680,7 +672,11 @@ public class TestOutcomes {
         if (outcomes.isEmpty()) {
             return 0.0;
         } else {
-            return sum(outcomes, on(TestOutcome.class).getRecentStability()) / getTestCount();
+            double totalStability = 0.0;
+            for (TestOutcome outcome : outcomes) {
+                totalStability += outcome.getRecentStability();
+            }
+            return totalStability / getTestCount();
         }
     }
 
@@ -688,7 +684,11 @@ public class TestOutcomes {
         if (outcomes.isEmpty()) {
             return 0.0;
         } else {
-            return sum(outcomes, on(TestOutcome.class).getOverallStability()) / getTestCount();
+            double totalStability = 0.0;
+            for (TestOutcome outcome : outcomes) {
+                totalStability += outcome.getOverallStability();
+            }
+            return totalStability / getTestCount();
         }
     }
 
@@ -697,20 +697,38 @@ public class TestOutcomes {
     }
 
     public int getTestCount() {
-        return sum(outcomes, on(TestOutcome.class).getTestCount());
+        int testCount = 0;
+        for (TestOutcome outcome : outcomes) {
+            testCount += outcome.getTestCount();
+        }
+        return testCount;
     }
 
     private int totalImplementedTests() {
-        return sum(outcomes, on(TestOutcome.class).getImplementedTestCount());
+        int implementedTestCount = 0;
+        for (TestOutcome outcome : outcomes) {
+            implementedTestCount += outcome.getImplementedTestCount();
+        }
+        return implementedTestCount;
     }
 
     public boolean hasDataDrivenTests() {
-        return !filter(having(on(TestOutcome.class).isDataDriven(), is(true)), outcomes).isEmpty();
+        for (TestOutcome outcome : outcomes) {
+            if (outcome.isDataDriven()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public int getTotalDataRows() {
-        List<? extends TestOutcome> datadrivenTestOutcomes = filter(having(on(TestOutcome.class).isDataDriven(), is(true)), outcomes);
-        return sum(datadrivenTestOutcomes, on(TestOutcome.class).getDataTable().getSize());
+        int dataRows = 0;
+        for (TestOutcome outcome : outcomes) {
+            if (outcome.isDataDriven()) {
+                dataRows += outcome.getDataTable().getSize();
+            }
+        }
+        return dataRows;
     }
 
     public TestOutcomeMatcher findMatchingTags() {
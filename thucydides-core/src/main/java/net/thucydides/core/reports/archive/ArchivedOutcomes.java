@@ -0,0 +1,168 @@
+package net.thucydides.core.reports.archive;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.binary.BinaryOutcomeConverter;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The outcomes stored in an outcome archive. The archive is memory-mapped, and each outcome is only decoded
+ * when it is asked for, so outcomes can be loaded in any order and from several threads at once.
+ */
+public class ArchivedOutcomes {
+
+    private final File archiveFile;
+    private final ByteBuffer contents;
+    private final Map<String, Integer> recordOffsets;
+    private final BinaryOutcomeConverter converter;
+
+    private ArchivedOutcomes(File archiveFile, ByteBuffer contents, BinaryOutcomeConverter converter) throws IOException {
+        this.archiveFile = archiveFile;
+        this.contents = contents;
+        this.converter = converter;
+        checkHeader();
+        Optional<Map<String, Integer>> indexedRecords = indexedRecords();
+        this.recordOffsets = indexedRecords.isPresent() ? indexedRecords.get() : scannedRecords();
+    }
+
+    public static ArchivedOutcomes readFrom(File archiveFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Outcome archive too large to be read: " + archiveFile);
+            }
+            ByteBuffer contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ArchivedOutcomes(archiveFile, contents,
+                                        Injectors.getInjector().getInstance(BinaryOutcomeConverter.class));
+        }
+    }
+
+    public File getFile() {
+        return archiveFile;
+    }
+
+    public Set<String> getReportNames() {
+        return ImmutableSet.copyOf(recordOffsets.keySet());
+    }
+
+    public Optional<TestOutcome> load(String reportName) throws IOException {
+        Integer recordOffset = recordOffsets.get(reportName);
+        if (recordOffset == null) {
+            return Optional.absent();
+        }
+        ByteBuffer record = contents.duplicate();
+        record.position(recordOffset);
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(record));
+        in.readUTF();
+        int outcomeLength = in.readInt();
+        record.limit(record.position() + outcomeLength);
+        return Optional.of(converter.read(new ByteBufferInputStream(record)));
+    }
+
+    private void checkHeader() throws IOException {
+        byte[] magic = new byte[OutcomeArchive.MAGIC.length];
+        ByteBuffer header = contents.duplicate();
+        if (header.remaining() < OutcomeArchive.HEADER_SIZE) {
+            throw new IOException("Not an outcome archive: " + archiveFile);
+        }
+        header.get(magic);
+        if (!Arrays.equals(magic, OutcomeArchive.MAGIC)) {
+            throw new IOException("Not an outcome archive: " + archiveFile);
+        }
+        int version = header.get();
+        if (version != OutcomeArchive.FORMAT_VERSION) {
+            throw new IOException("Unsupported outcome archive version " + version + ": " + archiveFile);
+        }
+    }
+
+    /**
+     * The record positions listed in the index at the end of a closed archive.
+     */
+    private Optional<Map<String, Integer>> indexedRecords() throws IOException {
+        int size = contents.limit();
+        if (size < OutcomeArchive.HEADER_SIZE + OutcomeArchive.TRAILER_SIZE) {
+            return Optional.absent();
+        }
+        ByteBuffer trailer = contents.duplicate();
+        trailer.position(size - OutcomeArchive.TRAILER_SIZE);
+        long indexOffset = trailer.getLong();
+        byte[] indexMagic = new byte[OutcomeArchive.INDEX_MAGIC.length];
+        trailer.get(indexMagic);
+        if (!Arrays.equals(indexMagic, OutcomeArchive.INDEX_MAGIC)
+                || indexOffset < OutcomeArchive.HEADER_SIZE || indexOffset > size - OutcomeArchive.TRAILER_SIZE) {
+            return Optional.absent();
+        }
+        ByteBuffer index = contents.duplicate();
+        index.position((int) indexOffset);
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(index));
+        int entryCount = in.readInt();
+        Map<String, Integer> records = Maps.newLinkedHashMap();
+        for (int entry = 0; entry < entryCount; entry++) {
+            String reportName = in.readUTF();
+            records.put(reportName, (int) in.readLong());
+        }
+        return Optional.of(records);
+    }
+
+    /**
+     * Without an index, the records are read from the start of the archive, keeping the latest one for each report.
+     * A record that was only partly written when its JVM stopped is ignored.
+     */
+    private Map<String, Integer> scannedRecords() {
+        Map<String, Integer> records = Maps.newLinkedHashMap();
+        ByteBuffer archive = contents.duplicate();
+        archive.position(OutcomeArchive.HEADER_SIZE);
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(archive));
+        while (archive.hasRemaining()) {
+            int recordOffset = archive.position();
+            try {
+                String reportName = in.readUTF();
+                int outcomeLength = in.readInt();
+                if (outcomeLength < 0 || outcomeLength > archive.remaining()) {
+                    break;
+                }
+                archive.position(archive.position() + outcomeLength);
+                records.remove(reportName);
+                records.put(reportName, recordOffset);
+            } catch (IOException partlyWrittenRecord) {
+                break;
+            }
+        }
+        return records;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
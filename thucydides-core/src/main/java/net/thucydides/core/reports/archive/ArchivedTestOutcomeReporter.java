@@ -0,0 +1,153 @@
+package net.thucydides.core.reports.archive;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.thucydides.core.model.ReportType;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.AcceptanceTestLoader;
+import net.thucydides.core.reports.AcceptanceTestReporter;
+import net.thucydides.core.reports.OutcomeFormat;
+import net.thucydides.core.reports.TestOutcomes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Appends test outcomes to the outcome archive of the current JVM, rather than writing a file for each test.
+ */
+public class ArchivedTestOutcomeReporter implements AcceptanceTestReporter, AcceptanceTestLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchivedTestOutcomeReporter.class);
+
+    private File outputDirectory;
+
+    private transient String qualifier;
+
+    @Override
+    public String getName() {
+        return "archive";
+    }
+
+    /**
+     * @return the archive that the outcome was added to.
+     */
+    @Override
+    public File generateReportFor(TestOutcome testOutcome, TestOutcomes allTestOutcomes) throws IOException {
+        TestOutcome storedTestOutcome = testOutcome.withQualifier(qualifier);
+        Preconditions.checkNotNull(outputDirectory);
+        OutcomeArchive archive = OutcomeArchive.openIn(outputDirectory);
+        archive.append(storedTestOutcome.getReportName(ReportType.ROOT), storedTestOutcome);
+        return archive.getFile();
+    }
+
+    public File getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(final File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    @Override
+    public void setQualifier(final String qualifier) {
+        this.qualifier = qualifier;
+    }
+
+    public void setResourceDirectory(String resourceDirectoryPath) {
+    }
+
+    /**
+     * An archive holds many outcomes, so this only succeeds for an archive holding a single one.
+     */
+    public Optional<TestOutcome> loadReportFrom(final File reportFile) {
+        try {
+            ArchivedOutcomes archivedOutcomes = ArchivedOutcomes.readFrom(reportFile);
+            if (archivedOutcomes.getReportNames().size() != 1) {
+                return Optional.absent();
+            }
+            return archivedOutcomes.load(archivedOutcomes.getReportNames().iterator().next());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("this file was not a valid Thucydides outcome archive: " + reportFile.getName()
+                        + System.lineSeparator()
+                        + e.getMessage());
+            return Optional.absent();
+        }
+    }
+
+    @Override
+    public List<TestOutcome> loadReportsFrom(File outputDirectory) {
+        List<TestOutcome> testOutcomes = Lists.newArrayList();
+        for (Map.Entry<String, ArchivedOutcomes> archivedOutcome : latestOutcomesIn(outputDirectory).entrySet()) {
+            String reportName = archivedOutcome.getKey();
+            try {
+                testOutcomes.addAll(archivedOutcome.getValue().load(reportName).asSet());
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Could not load {} from the outcome archive {}: {}",
+                            new Object[]{reportName, archivedOutcome.getValue().getFile(), e.getMessage()});
+            }
+        }
+        return testOutcomes;
+    }
+
+    /**
+     * The archive holding the latest outcome for each report name, over all the archives in a directory.
+     * A test that was run by several JVMs is taken from the most recently written archive.
+     */
+    public static Map<String, ArchivedOutcomes> latestOutcomesIn(File directory) {
+        Map<String, ArchivedOutcomes> latestOutcomes = Maps.newLinkedHashMap();
+        for (ArchivedOutcomes archive : archivesIn(directory)) {
+            for (String reportName : archive.getReportNames()) {
+                latestOutcomes.remove(reportName);
+                latestOutcomes.put(reportName, archive);
+            }
+        }
+        return latestOutcomes;
+    }
+
+    private static List<ArchivedOutcomes> archivesIn(File directory) {
+        File[] archiveFiles = directory.listFiles(new ArchiveFilenameFilter());
+        List<ArchivedOutcomes> archives = Lists.newArrayList();
+        if (archiveFiles == null) {
+            return archives;
+        }
+        Arrays.sort(archiveFiles, byLastModified());
+        for (File archiveFile : archiveFiles) {
+            try {
+                archives.add(ArchivedOutcomes.readFrom(archiveFile));
+            } catch (IOException e) {
+                LOGGER.warn("Could not read the outcome archive {}: {}", archiveFile, e.getMessage());
+            }
+        }
+        return archives;
+    }
+
+    private static Comparator<File> byLastModified() {
+        return new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.compare(first.lastModified(), second.lastModified());
+            }
+        };
+    }
+
+    private static final class ArchiveFilenameFilter implements FilenameFilter {
+        public boolean accept(final File file, final String filename) {
+            return filename.toLowerCase(Locale.getDefault()).endsWith(OutcomeFormat.ARCHIVE.getExtension());
+        }
+    }
+
+    @Override
+    public Optional<OutcomeFormat> getFormat() {
+        return Optional.of(OutcomeFormat.ARCHIVE);
+    }
+}
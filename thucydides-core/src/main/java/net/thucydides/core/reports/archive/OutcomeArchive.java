@@ -0,0 +1,172 @@
+package net.thucydides.core.reports.archive;
+
+import com.google.common.collect.Maps;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.OutcomeFormat;
+import net.thucydides.core.reports.binary.BinaryOutcomeConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An append-only file holding the outcomes of every test run by one JVM in a given output directory,
+ * so that a test run leaves one file behind rather than one per test.
+ * <p>
+ * The archive starts with the {@link #MAGIC} bytes and a format version, followed by one record per stored outcome:
+ * the report name, then the length and contents of the outcome in the compact binary format.
+ * An outcome that is stored again is appended as a new record, and the latest record wins.
+ * When the archive is closed (at the latest, when the JVM shuts down) an index of the latest record for each
+ * report name is written at the end of the file, so that readers can go straight to each outcome.
+ * Archives left without an index by a JVM that did not shut down cleanly can still be read from start to finish.
+ * </p>
+ */
+public class OutcomeArchive {
+
+    static final byte[] MAGIC = {'T', 'H', 'O', 'A'};
+    static final byte[] INDEX_MAGIC = {'T', 'H', 'O', 'I'};
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 1;
+
+    /**
+     * The index offset and the index magic bytes, at the very end of a closed archive.
+     */
+    static final int TRAILER_SIZE = 8 + INDEX_MAGIC.length;
+
+    private static final ConcurrentMap<File, OutcomeArchive> OPEN_ARCHIVES = new ConcurrentHashMap<>();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutcomeArchive.class);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread("thucydides-outcome-archive-closer") {
+            @Override
+            public void run() {
+                closeAll();
+            }
+        });
+    }
+
+    private final File archiveFile;
+    private final BinaryOutcomeConverter converter;
+    private final Map<String, Long> index = Maps.newLinkedHashMap();
+    private FileChannel channel;
+    private boolean closed;
+
+    private OutcomeArchive(File archiveFile, BinaryOutcomeConverter converter) {
+        this.archiveFile = archiveFile;
+        this.converter = converter;
+    }
+
+    /**
+     * The archive this JVM is writing to in the given directory, creating it if need be.
+     * Each JVM (and so each forked test process) writes to an archive of its own.
+     */
+    public static OutcomeArchive openIn(File outputDirectory) {
+        File directory = outputDirectory.getAbsoluteFile();
+        OutcomeArchive archive = OPEN_ARCHIVES.get(directory);
+        if (archive == null) {
+            File archiveFile = new File(directory, "outcomes-" + UUID.randomUUID() + OutcomeFormat.ARCHIVE.getExtension());
+            OutcomeArchive newArchive
+                    = new OutcomeArchive(archiveFile, Injectors.getInjector().getInstance(BinaryOutcomeConverter.class));
+            archive = OPEN_ARCHIVES.putIfAbsent(directory, newArchive);
+            if (archive == null) {
+                archive = newArchive;
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * Write the index of every open archive. Later outcomes for the same directories go to new archives.
+     */
+    public static void closeAll() {
+        for (File directory : OPEN_ARCHIVES.keySet()) {
+            OutcomeArchive archive = OPEN_ARCHIVES.remove(directory);
+            if (archive != null) {
+                try {
+                    archive.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not write the index of the outcome archive {}", archive.getFile(), e);
+                }
+            }
+        }
+    }
+
+    public File getFile() {
+        return archiveFile;
+    }
+
+    public synchronized void append(String reportName, TestOutcome testOutcome) throws IOException {
+        if (closed) {
+            openIn(archiveFile.getParentFile()).append(reportName, testOutcome);
+            return;
+        }
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeUTF(reportName);
+        out.flush();
+        int lengthOffset = record.size();
+        out.writeInt(0);
+        converter.write(testOutcome, out);
+        out.flush();
+
+        ByteBuffer recordBuffer = ByteBuffer.wrap(record.toByteArray());
+        recordBuffer.putInt(lengthOffset, recordBuffer.limit() - lengthOffset - 4);
+
+        long recordOffset = channel().position();
+        writeFully(recordBuffer);
+        index.put(reportName, recordOffset);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            archiveFile.getParentFile().mkdirs();
+            channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.put(MAGIC).put((byte) FORMAT_VERSION).flip();
+            writeFully(header);
+        }
+        return channel;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    synchronized void close() throws IOException {
+        closed = true;
+        if (channel == null) {
+            return;
+        }
+        try {
+            long indexOffset = channel.position();
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(indexBytes);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Long> entry : index.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeLong(indexOffset);
+            out.write(INDEX_MAGIC);
+            out.flush();
+            writeFully(ByteBuffer.wrap(indexBytes.toByteArray()));
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package net.thucydides.core.reports.binary;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.json.jackson.JacksonJSONConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes test outcomes in a compact binary form.
+ * <p>
+ * Outcomes are mapped exactly as they are for the JSON reports, but the resulting tokens are written as single-byte
+ * tags followed by variable-length numbers rather than as text. Each distinct string (field names, step descriptions,
+ * tag names, class names...) is written once, the first time it appears, and is referred to by its position in the
+ * file's string dictionary after that. Strings read back from the dictionary are shared between the objects that use them.
+ * </p>
+ * <p>
+ * A file starts with the {@link #MAGIC} bytes and a format version, so that files written by an incompatible
+ * version are rejected rather than misread.
+ * </p>
+ */
+public class BinaryOutcomeConverter {
+
+    static final byte[] MAGIC = {'T', 'H', 'O', 'B'};
+    static final int FORMAT_VERSION = 1;
+
+    private static final int START_OBJECT = 1;
+    private static final int END_OBJECT = 2;
+    private static final int START_ARRAY = 3;
+    private static final int END_ARRAY = 4;
+    private static final int FIELD_NAME = 5;
+    private static final int STRING = 6;
+    private static final int INTEGER = 7;
+    private static final int BIG_INTEGER = 8;
+    private static final int DOUBLE = 9;
+    private static final int BIG_DECIMAL = 10;
+    private static final int TRUE = 11;
+    private static final int FALSE = 12;
+    private static final int NULL = 13;
+    private static final int BINARY = 14;
+    private static final int END_OF_OUTCOME = 0;
+
+    /**
+     * Written instead of a dictionary position when a string appears for the first time.
+     */
+    private static final int NEW_STRING = 0;
+
+    private static final int READ_CHUNK_SIZE = 64 * 1024;
+    private static final long MAX_BYTES_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final ObjectMapper mapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public BinaryOutcomeConverter() {
+        mapper = JacksonJSONConverter.createMapper();
+        reader = mapper.reader(TestOutcome.class);
+        writer = mapper.writerWithType(TestOutcome.class);
+    }
+
+    public void write(TestOutcome testOutcome, OutputStream outputStream) throws IOException {
+        TokenBuffer tokens = new TokenBuffer(mapper);
+        writer.writeValue(tokens, testOutcome);
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        StringDictionaryWriter dictionary = new StringDictionaryWriter(out);
+        try (JsonParser parser = tokens.asParser()) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                writeToken(token, parser, out, dictionary);
+            }
+        }
+        out.writeByte(END_OF_OUTCOME);
+        out.flush();
+    }
+
+    private void writeToken(JsonToken token, JsonParser parser, DataOutputStream out,
+                            StringDictionaryWriter dictionary) throws IOException {
+        switch (token) {
+            case START_OBJECT: out.writeByte(START_OBJECT); break;
+            case END_OBJECT: out.writeByte(END_OBJECT); break;
+            case START_ARRAY: out.writeByte(START_ARRAY); break;
+            case END_ARRAY: out.writeByte(END_ARRAY); break;
+            case FIELD_NAME:
+                out.writeByte(FIELD_NAME);
+                dictionary.write(parser.getCurrentName());
+                break;
+            case VALUE_STRING:
+                out.writeByte(STRING);
+                dictionary.write(parser.getText());
+                break;
+            case VALUE_NUMBER_INT:
+                writeInteger(parser, out);
+                break;
+            case VALUE_NUMBER_FLOAT:
+                writeDecimal(parser, out);
+                break;
+            case VALUE_TRUE: out.writeByte(TRUE); break;
+            case VALUE_FALSE: out.writeByte(FALSE); break;
+            case VALUE_NULL: out.writeByte(NULL); break;
+            case VALUE_EMBEDDED_OBJECT:
+                writeEmbeddedObject(parser.getEmbeddedObject(), out);
+                break;
+            default:
+                throw new IOException("Unexpected token in test outcome: " + token);
+        }
+    }
+
+    private void writeInteger(JsonParser parser, DataOutputStream out) throws IOException {
+        if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(parser.getBigIntegerValue().toByteArray(), out);
+        } else {
+            out.writeByte(INTEGER);
+            writeVarLong(zigZag(parser.getLongValue()), out);
+        }
+    }
+
+    private void writeDecimal(JsonParser parser, DataOutputStream out) throws IOException {
+        if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+            out.writeByte(BIG_DECIMAL);
+            writeBytes(parser.getDecimalValue().toString().getBytes(StandardCharsets.UTF_8), out);
+        } else {
+            out.writeByte(DOUBLE);
+            out.writeDouble(parser.getDoubleValue());
+        }
+    }
+
+    private void writeEmbeddedObject(Object value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof byte[]) {
+            out.writeByte(BINARY);
+            writeBytes((byte[]) value, out);
+        } else {
+            throw new IOException("Cannot store a " + value.getClass().getName() + " in a binary test outcome");
+        }
+    }
+
+    public TestOutcome read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        checkHeader(in);
+        TokenBuffer tokens = new TokenBuffer(mapper);
+        List<String> dictionary = Lists.newArrayList();
+        int tag;
+        while ((tag = in.readUnsignedByte()) != END_OF_OUTCOME) {
+            readToken(tag, in, tokens, dictionary);
+        }
+        try (JsonParser parser = tokens.asParser(mapper)) {
+            return reader.readValue(parser);
+        }
+    }
+
+    private void checkHeader(DataInputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary test outcome");
+        }
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary test outcome version: " + version);
+        }
+    }
+
+    private void readToken(int tag, DataInputStream in, TokenBuffer tokens, List<String> dictionary) throws IOException {
+        switch (tag) {
+            case START_OBJECT: tokens.writeStartObject(); break;
+            case END_OBJECT: tokens.writeEndObject(); break;
+            case START_ARRAY: tokens.writeStartArray(); break;
+            case END_ARRAY: tokens.writeEndArray(); break;
+            case FIELD_NAME: tokens.writeFieldName(readString(in, dictionary)); break;
+            case STRING: tokens.writeString(readString(in, dictionary)); break;
+            case INTEGER: writeNumber(unZigZag(readVarLong(in)), tokens); break;
+            case BIG_INTEGER: tokens.writeNumber(new BigInteger(readBytes(in))); break;
+            case DOUBLE: tokens.writeNumber(in.readDouble()); break;
+            case BIG_DECIMAL: tokens.writeNumber(new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8))); break;
+            case TRUE: tokens.writeBoolean(true); break;
+            case FALSE: tokens.writeBoolean(false); break;
+            case NULL: tokens.writeNull(); break;
+            case BINARY: tokens.writeBinary(readBytes(in)); break;
+            default: throw new IOException("Corrupt binary test outcome: unknown tag " + tag);
+        }
+    }
+
+    private void writeNumber(long value, TokenBuffer tokens) throws IOException {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            tokens.writeNumber((int) value);
+        } else {
+            tokens.writeNumber(value);
+        }
+    }
+
+    private String readString(DataInputStream in, List<String> dictionary) throws IOException {
+        long position = readVarLong(in);
+        if (position == NEW_STRING) {
+            String value = new String(readBytes(in), StandardCharsets.UTF_8);
+            dictionary.add(value);
+            return value;
+        }
+        if (position < 0 || position > dictionary.size()) {
+            throw new IOException("Corrupt binary test outcome: unknown string " + position);
+        }
+        return dictionary.get((int) position - 1);
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+        writeVarLong(bytes.length, out);
+        out.write(bytes);
+    }
+
+    /**
+     * The length is checked before anything is allocated, and long values are read a chunk at a time,
+     * so that a corrupt length fails with an IOException when the data runs out rather than by running out of memory.
+     */
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > MAX_BYTES_LENGTH) {
+            throw new IOException("Corrupt binary test outcome: invalid length " + length);
+        }
+        if (length <= READ_CHUNK_SIZE) {
+            byte[] bytes = new byte[(int) length];
+            in.readFully(bytes);
+            return bytes;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(READ_CHUNK_SIZE);
+        byte[] chunk = new byte[READ_CHUNK_SIZE];
+        for (long remaining = length; remaining > 0; remaining -= READ_CHUNK_SIZE) {
+            int chunkLength = (int) Math.min(remaining, READ_CHUNK_SIZE);
+            in.readFully(chunk, 0, chunkLength);
+            bytes.write(chunk, 0, chunkLength);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Seven bits per byte, lowest first, with the top bit set on every byte but the last.
+     */
+    private static void writeVarLong(long value, DataOutputStream out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt binary test outcome: number too long");
+    }
+
+    /**
+     * Small negative numbers (such as unset durations) stay small.
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class StringDictionaryWriter {
+        private final Map<String, Integer> positions = Maps.newHashMap();
+        private final DataOutputStream out;
+
+        private StringDictionaryWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void write(String value) throws IOException {
+            Integer position = positions.get(value);
+            if (position != null) {
+                writeVarLong(position, out);
+            } else {
+                positions.put(value, positions.size() + 1);
+                writeVarLong(NEW_STRING, out);
+                writeBytes(value.getBytes(StandardCharsets.UTF_8), out);
+            }
+        }
+    }
+}
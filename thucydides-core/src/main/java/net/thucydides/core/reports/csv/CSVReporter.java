@@ -10,6 +10,7 @@ import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.reports.TestOutcomes;
 import net.thucydides.core.reports.ThucydidesReporter;
 import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.HardLinks;
 import net.thucydides.core.util.Inflector;
 
 import java.io.File;
@@ -49,6 +50,7 @@ public class CSVReporter extends ThucydidesReporter {
     }
 
     public File generateReportFor(TestOutcomes testOutcomes, String reportName) throws IOException {
+        HardLinks.prepareToReplace(getOutputFile(reportName).toPath());
         CSVWriter writer = new CSVWriter(new java.io.OutputStreamWriter(new java.io.FileOutputStream(getOutputFile(reportName)), encoding));
         writeTitleRow(writer);
         writeEachRow(testOutcomes.withHistory(), writer);
@@ -1,11 +1,10 @@
 package net.thucydides.core.reports.html;
 
-import ch.lambdaj.function.convert.Converter;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import net.thucydides.core.guice.Injectors;
-import net.thucydides.core.images.ResizableImage;
+import net.thucydides.core.images.SimpleImageInfo;
 import net.thucydides.core.issues.IssueTracking;
 import net.thucydides.core.model.Screenshot;
 import net.thucydides.core.model.TestOutcome;
@@ -17,6 +16,7 @@ import net.thucydides.core.reports.ReportOptions;
 import net.thucydides.core.reports.TestOutcomes;
 import net.thucydides.core.reports.html.screenshots.ScreenshotFormatter;
 import net.thucydides.core.requirements.RequirementsService;
+import net.thucydides.core.screenshots.ScreenshotThumbnails;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.util.Inflector;
 import net.thucydides.core.util.VersionProvider;
@@ -25,11 +25,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static ch.lambdaj.Lambda.convert;
 import static com.google.common.collect.Iterables.any;
 import static net.thucydides.core.ThucydidesSystemProperty.THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS;
 import static net.thucydides.core.model.ReportType.HTML;
@@ -91,13 +91,12 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
         addFormattersToContext(context);
         addTimestamp(testOutcome, context);
 
-        String htmlContents = mergeTemplate(DEFAULT_ACCEPTANCE_TEST_REPORT).usingContext(context);
         copyResourcesToOutputDirectory();
 
         String reportFilename = reportFor(storedTestOutcome);
         LOGGER.info("GENERATING HTML REPORT FOR " + storedTestOutcome.getCompleteName() + (qualifier != null? "/" + qualifier : "") + " => " + reportFilename);
 
-        return writeReportToOutputDirectory(reportFilename, htmlContents);
+        return writeReportToOutputDirectory(reportFilename, DEFAULT_ACCEPTANCE_TEST_REPORT, context);
     }
 
     private boolean containsScreenshots(TestOutcome testOutcome) {
@@ -140,6 +139,7 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
 
         Preconditions.checkNotNull(getOutputDirectory());
 
+        createMissingThumbnailsFor(testOutcome.getScreenshots());
         List<Screenshot> screenshots = expandScreenshots(testOutcome.getScreenshots());
 
         String screenshotReport = testOutcome.getReportName() + "_screenshots.html";
@@ -149,32 +149,39 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
         addFormattersToContext(context);
         context.put("screenshots", screenshots);
         context.put("narrativeView", testOutcome.getReportName());
-        String htmlContents = mergeTemplate(DEFAULT_ACCEPTANCE_TEST_SCREENSHOT).usingContext(context);
-        writeReportToOutputDirectory(screenshotReport, htmlContents);
+        writeReportToOutputDirectory(screenshotReport, DEFAULT_ACCEPTANCE_TEST_SCREENSHOT, context);
 
     }
 
-    private List<Screenshot> expandScreenshots(List<Screenshot> screenshots) throws IOException {
-        return convert(screenshots, new ExpandedScreenshotConverter(maxScreenshotHeightIn(screenshots)));
+    /**
+     * Thumbnails are usually created by the screenshot processor while the tests run.
+     */
+    private void createMissingThumbnailsFor(List<Screenshot> screenshots) {
+        ScreenshotThumbnails thumbnails = new ScreenshotThumbnails(getEnvironmentVariables());
+        for (Screenshot screenshot : screenshots) {
+            thumbnails.createThumbnailFor(new File(getOutputDirectory(), screenshot.getFilename()));
+        }
     }
 
-    private class ExpandedScreenshotConverter implements Converter<Screenshot, Screenshot> {
-        private final int maxHeight;
-
-        public ExpandedScreenshotConverter(int maxHeight) {
-            this.maxHeight = maxHeight;
+    private List<Screenshot> expandScreenshots(List<Screenshot> screenshots) throws IOException {
+        int maxHeight = maxScreenshotHeightIn(screenshots);
+        boolean keepOriginals = shouldKeepOriginalScreenshots();
+        List<Screenshot> expandedScreenshots = new ArrayList<>(screenshots.size());
+        for (Screenshot screenshot : screenshots) {
+            expandedScreenshots.add(expanded(screenshot, maxHeight, keepOriginals));
         }
-
-        public Screenshot convert(Screenshot screenshot) {
-            try {
-                return ScreenshotFormatter.forScreenshot(screenshot)
-                                          .inDirectory(getOutputDirectory())
-                                          .keepOriginals(shouldKeepOriginalScreenshots())
-                                          .expandToHeight(maxHeight);
-            } catch (IOException e) {
-                LOGGER.warn("Failed to write scaled screenshot for {}: {}", screenshot, e);
-                return screenshot;
-            }
+        return expandedScreenshots;
+    }
+
+    private Screenshot expanded(Screenshot screenshot, int maxHeight, boolean keepOriginals) {
+        try {
+            return ScreenshotFormatter.forScreenshot(screenshot)
+                                      .inDirectory(getOutputDirectory())
+                                      .keepOriginals(keepOriginals)
+                                      .expandToHeight(maxHeight);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write scaled screenshot for {}: {}", screenshot, e);
+            return screenshot;
         }
     }
 
@@ -194,8 +201,9 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
     }
 
     private int maxHeightOf(int maxHeight, File screenshotFile) throws IOException {
-        int height = ResizableImage.loadFrom(screenshotFile).getHeight();
-        int width = ResizableImage.loadFrom(screenshotFile).getWitdh();
+        SimpleImageInfo imageInfo = new SimpleImageInfo(screenshotFile);
+        int height = imageInfo.getHeight();
+        int width = imageInfo.getWidth();
         if (width > MAXIMUM_SCREENSHOT_WIDTH) {
             height = (int) ((height * 1.0) * (MAXIMUM_SCREENSHOT_WIDTH * 1.0 / width));
         }
@@ -1,6 +1,7 @@
 package net.thucydides.core.reports.html;
 
-import com.beust.jcommander.internal.Lists;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import net.thucydides.core.ThucydidesSystemProperties;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
@@ -19,7 +20,9 @@ import net.thucydides.core.requirements.model.RequirementsConfiguration;
 import net.thucydides.core.requirements.reports.RequirementOutcome;
 import net.thucydides.core.requirements.reports.RequirementsOutcomes;
 import net.thucydides.core.requirements.reports.RequirmentsOutcomeFactory;
+import net.thucydides.core.screenshots.ScreenshotStore;
 import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.HardLinks;
 import net.thucydides.core.util.Inflector;
 import net.thucydides.core.util.VersionProvider;
 import org.apache.commons.lang3.StringUtils;
@@ -29,9 +32,12 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generates an aggregate acceptance test report in HTML form.
@@ -60,6 +66,11 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
     private final RequirementsConfiguration requirementsConfiguration;
     private final EnvironmentVariables environmentVariables;
     private FormatConfiguration formatConfiguration;
+    private final Optional<ScreenshotStore> screenshotStore;
+    private volatile ReportManifest manifest = ReportManifest.disabled();
+    private volatile String sharedInputs = "";
+    private Map<String, Object> baseContext;
+    private final TagFilter tagFilter;
 
     public HtmlAggregateStoryReporter(final String projectName) {
         this(projectName, "");
@@ -83,6 +94,7 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
                                       final IssueTracking issueTracking,
                                       final RequirementsService requirementsService,
                                       final EnvironmentVariables environmentVariables) {
+        super(environmentVariables);
         this.projectName = projectName;
         this.relativeLink = relativeLink;
         this.issueTracking = issueTracking;
@@ -96,6 +108,8 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         this.requirementsConfiguration = new RequirementsConfiguration(getEnvironmentVariables());
         this.environmentVariables = environmentVariables;
         this.formatConfiguration = new FormatConfiguration(environmentVariables);
+        this.screenshotStore = ScreenshotStore.fromConfiguration(environmentVariables);
+        this.tagFilter = new TagFilter(getEnvironmentVariables());
     }
 
     public OutcomeFormat getFormat() {
@@ -106,35 +120,57 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         return projectName;
     }
 
-    private void addFormattersToContext(final Map<String, Object> context) {
-        Formatter formatter = new Formatter(issueTracking);
-        context.put("formatter", formatter);
-        context.put("formatted", new NumericalFormatter());
-        context.put("inflection", Inflector.getInstance());
-        context.put("relativeLink", relativeLink);
-        context.put("reportOptions", new ReportOptions(getEnvironmentVariables()));
+    /**
+     * The template variables that are the same on every page of an aggregation.
+     * Pages copy them into their own context rather than working them out again.
+     */
+    private synchronized Map<String, Object> baseContext() {
+        if (baseContext == null) {
+            Map<String, Object> context = new HashMap<>();
+            context.put("absoluteReportName", new ReportNameProvider());
+            context.put("reportOptions", new ReportOptions(getEnvironmentVariables()));
+            context.put("timestamp", timestampFrom(currentTime()));
+            context.put("requirementTypes", requirementsService.getRequirementTypes());
+            context.put("formatter", new Formatter(issueTracking));
+            context.put("formatted", new NumericalFormatter());
+            context.put("inflection", Inflector.getInstance());
+            context.put("relativeLink", relativeLink);
+
+            VersionProvider versionProvider = new VersionProvider(environmentVariables);
+            context.put("thucydidesVersionNumber", versionProvider.getVersion());
+            context.put("buildNumber", versionProvider.getBuildNumberText());
+            baseContext = Collections.unmodifiableMap(context);
+        }
+        return baseContext;
+    }
+
+    private synchronized void resetBaseContext() {
+        baseContext = null;
     }
 
     public TestOutcomes generateReportsForTestResultsFrom(final File sourceDirectory) throws IOException {
         TestOutcomes allTestOutcomes = loadTestOutcomesFrom(sourceDirectory);
         copyScreenshotsFrom(sourceDirectory);
         generateReportsForTestResultsIn(allTestOutcomes);
+        pruneScreenshotStore();
         return allTestOutcomes;
     }
 
+    /**
+     * Screenshots are hard-linked into the output directory where possible rather than copied:
+     * screenshot file names are derived from their contents, so a screenshot that is already there never changes.
+     */
     private void copyScreenshotsFrom(File sourceDirectory) {
         if ((getOutputDirectory() != null) && (getOutputDirectory() != sourceDirectory)) {
-            CopyOption[] options = new CopyOption[]{ StandardCopyOption.COPY_ATTRIBUTES };
-
             Path targetPath = Paths.get(getOutputDirectory().toURI());
             Path sourcePath = Paths.get(sourceDirectory.toURI());
-            try {
-
-                DirectoryStream<Path> directoryContents = Files.newDirectoryStream(sourcePath);
+            try (DirectoryStream<Path> directoryContents = Files.newDirectoryStream(sourcePath)) {
                 for(Path sourceFile : directoryContents) {
-                    Path destinationFile = targetPath.resolve(sourceFile.getFileName());
-                    if (Files.notExists(destinationFile)) {
-                        Files.copy(sourceFile, destinationFile, options);
+                    Path destinationFile = targetPath.resolve(sourceFile.getFileName().toString());
+                    if (Files.isDirectory(sourceFile)) {
+                        Files.createDirectories(destinationFile);
+                    } else {
+                        HardLinks.linkOrCopy(sourceFile, destinationFile);
                     }
                 }
             } catch (IOException e) {
@@ -143,49 +179,141 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         }
     }
 
-    public void generateReportsForTestResultsIn(TestOutcomes testOutcomes) throws IOException {
+    private void pruneScreenshotStore() {
+        if (screenshotStore.isPresent()) {
+            try {
+                screenshotStore.get().prune();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to remove unused screenshots from the screenshot store", e);
+            }
+        }
+    }
+
+    public void generateReportsForTestResultsIn(final TestOutcomes testOutcomes) throws IOException {
         RequirementsOutcomes requirementsOutcomes = requirementsFactory.buildRequirementsOutcomesFrom(testOutcomes.withRequirementsTags());
 
         copyResourcesToOutputDirectory();
         copyTestResultsToOutputDirectory();
 
-        generateAggregateReportFor(testOutcomes);
-        generateTagReportsFor(testOutcomes);
-        generateTagTypeReportsFor(testOutcomes);
-        for (String name : testOutcomes.getTagNames()) {
-            generateTagTypeReportsFor(testOutcomes.withTag(name), new ReportNameProvider(name));
-        }
-        generateRequirementTypeReports(requirementsOutcomes);
-        generateResultReportsFor(testOutcomes);
-//        generateHistoryReportFor(testOutcomes);
-//        generateCoverageReportsFor(testOutcomes);
+        resetBaseContext();
+        preloadTemplates(TEST_OUTCOME_TEMPLATE_PATH, TAGTYPE_TEMPLATE_PATH, REQUIREMENT_TYPE_TEMPLATE_PATH,
+                         RELEASES_TEMPLATE_PATH, RELEASE_TEMPLATE_PATH);
+        manifest = manifestFor(getOutputDirectory());
+        sharedInputs = sharedInputsFor(testOutcomes);
+
+        // Finding the releases adds release tags and versions to the outcomes, so it has to happen
+        // before any page job starts reading them on another thread.
+        List<Release> releases = getReleaseManager().getReleasesFrom(testOutcomes);
+
+        final ReportPageRenderer renderer = ReportPageRenderer.fromConfiguration(environmentVariables);
+        try {
+            generateAggregateReportFor(testOutcomes, renderer);
+            generateTagReportsFor(testOutcomes, renderer);
+            generateTagTypeReportsFor(testOutcomes, reportNameProvider, renderer);
+            for (final String name : testOutcomes.getTagNames()) {
+                renderer.submit(new ReportPageRenderer.PageJob() {
+                    @Override
+                    public void render() throws IOException {
+                        generateTagTypeReportsFor(testOutcomes.withTag(name), new ReportNameProvider(name), renderer);
+                    }
+                });
+            }
+            generateRequirementTypeReports(requirementsOutcomes, renderer);
+            generateResultReportsFor(testOutcomes, renderer);
+//            generateHistoryReportFor(testOutcomes);
+//            generateCoverageReportsFor(testOutcomes);
+
+            generateRequirementsReportsFor(requirementsOutcomes, renderer);
 
-        generateRequirementsReportsFor(requirementsOutcomes);
+            generateReleasesReportFor(testOutcomes, requirementsOutcomes, releases, renderer);
 
-        generateReleasesReportFor(testOutcomes, requirementsOutcomes);
+            renderer.waitUntilDone();
+            manifest.save();
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    private ReportManifest manifestFor(File outputDirectory) {
+        if ((outputDirectory != null)
+                && environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_INCREMENTAL_REPORTS, false)) {
+            return ReportManifest.inDirectory(outputDirectory);
+        }
+        return ReportManifest.disabled();
+    }
 
+    /**
+     * Inputs that appear on every page, such as the version number and the navigation menu,
+     * and the report settings that change how every page is laid out.
+     * If any of these change, every page is rendered again.
+     */
+    private String sharedInputsFor(TestOutcomes testOutcomes) {
+        Map<String, Object> baseContext = baseContext();
+        return Joiner.on('|').useForNull("").join(projectName, relativeLink,
+                                                   baseContext.get("thucydidesVersionNumber"),
+                                                   baseContext.get("buildNumber"),
+                                                   baseContext.get("requirementTypes"),
+                                                   testOutcomes.getFirstClassTagTypes(),
+                                                   reportSettings((ReportOptions) baseContext.get("reportOptions")));
+    }
+
+    private String reportSettings(ReportOptions reportOptions) {
+        return Joiner.on('|').useForNull("").join(reportOptions.getProjectName(),
+                                                   reportOptions.isShowStepDetails(),
+                                                   reportOptions.isShowManualTests(),
+                                                   reportOptions.isShowReleases(),
+                                                   reportOptions.isShowProgress(),
+                                                   reportOptions.isShowHistory(),
+                                                   reportOptions.isShowTagMenus(),
+                                                   reportOptions.isShowRelatedTags(),
+                                                   reportOptions.isDisplayPiechart(),
+                                                   (issueTracking == null) ? null : issueTracking.getIssueTrackerUrl(),
+                                                   (issueTracking == null) ? null : issueTracking.getShortenedIssueTrackerUrl(),
+                                                   environmentVariables.getProperty(ThucydidesSystemProperty.NARRATIVE_FORMAT),
+                                                   environmentVariables.getProperty(ThucydidesSystemProperty.IGNORE_EMBEDDED_TABLES),
+                                                   environmentVariables.getProperty(ThucydidesSystemProperty.THUCYDIDES_REPORT_LAZY_TABLE_THRESHOLD));
+    }
+
+    private boolean isUpToDate(String reportName, PageInputs inputs) {
+        return manifest.isEnabled() && !manifest.needsRendering(reportName, inputs.digest());
+    }
+
+    private void recordRendered(String reportName, PageInputs inputs) {
+        if (manifest.isEnabled()) {
+            manifest.recordRendered(reportName, inputs.digest());
+        }
     }
 
-    private void generateRequirementTypeReports(RequirementsOutcomes requirementsOutcomes) throws IOException {
+    private void generateRequirementTypeReports(RequirementsOutcomes requirementsOutcomes, ReportPageRenderer renderer) {
         List<String> requirementTypes = requirementsOutcomes.getTypes();
-        for (String requirementType : requirementTypes) {
-            generateRequirementTypeReportFor(requirementType,
-                    requirementsOutcomes.requirementsOfType(requirementType),
-                    new ReportNameProvider());
+        for (final String requirementType : requirementTypes) {
+            final RequirementsOutcomes requirementsOfType = requirementsOutcomes.requirementsOfType(requirementType);
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    generateRequirementTypeReportFor(requirementType, requirementsOfType, new ReportNameProvider());
+                }
+            });
         }
     }
 
     private void generateRequirementTypeReportFor(String requirementType,
                                                   RequirementsOutcomes requirementsOutcomes,
                                                   ReportNameProvider reporter) throws IOException {
+        String reportName = reporter.forRequirementType(requirementType);
+        PageInputs inputs = PageInputs.forTemplate(REQUIREMENT_TYPE_TEMPLATE_PATH, sharedInputs)
+                                      .and(requirementType).and(requirementsOutcomes);
+        if (isUpToDate(reportName, inputs)) {
+            return;
+        }
+
         Map<String, Object> context = buildContext(requirementsOutcomes.getTestOutcomes(), getReportNameProvider());
         context.put("report", ReportProperties.forAggregateResultsReport());
         context.put("requirementType", requirementType);
         context.put("requirements", requirementsOutcomes);
 
-        String reportName = reporter.forRequirementType(requirementType);
         generateReportPage(context, REQUIREMENT_TYPE_TEMPLATE_PATH, reportName);
-
+        recordRendered(reportName, inputs);
     }
 
     private void generateCSVReportFor(TestOutcomes testOutcomes, String reportName) throws IOException {
@@ -193,66 +321,110 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         csvReporter.generateReportFor(testOutcomes, reportName);
     }
 
-    List<Requirement> reportTally = Lists.newArrayList();
+    /**
+     * The requirements whose reports have already been generated (or are being generated by another thread).
+     * A requirement can appear several times in the requirements tree, but its report only needs to be written once.
+     */
+    final Set<Requirement> reportTally = Collections.newSetFromMap(new ConcurrentHashMap<Requirement, Boolean>());
 
     public void generateRequirementsReportsFor(RequirementsOutcomes requirementsOutcomes) throws IOException {
+        ReportPageRenderer renderer = ReportPageRenderer.fromConfiguration(environmentVariables);
+        try {
+            generateRequirementsReportsFor(requirementsOutcomes, renderer);
+            renderer.waitUntilDone();
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    private void generateRequirementsReportsFor(final RequirementsOutcomes requirementsOutcomes,
+                                                ReportPageRenderer renderer) {
 
         htmlRequirementsReporter.setOutputDirectory(getOutputDirectory());
-        htmlRequirementsReporter.generateReportFor(requirementsOutcomes);
+        renderer.submit(new ReportPageRenderer.PageJob() {
+            @Override
+            public void render() throws IOException {
+                PageInputs inputs = PageInputs.forTemplate(HtmlRequirementsReporter.DEFAULT_REQUIREMENTS_REPORT, sharedInputs)
+                                              .and(requirementsOutcomes);
+                if (!isUpToDate(HtmlRequirementsReporter.REPORT_NAME, inputs)) {
+                    htmlRequirementsReporter.generateReportFor(requirementsOutcomes);
+                    recordRendered(HtmlRequirementsReporter.REPORT_NAME, inputs);
+                }
+            }
+        });
 
 //        htmlProgressReporter.setOutputDirectory(getOutputDirectory());
 //        htmlProgressReporter.generateReportFor(requirementsOutcomes);
 
         clearReportTally();
-        generateRequirementsReportsForChildRequirements(requirementsOutcomes);
+        generateRequirementsReportsForChildRequirements(requirementsOutcomes, renderer);
     }
 
     private void clearReportTally() {
         reportTally.clear();
     }
 
-    private void generateRequirementsReportsForChildRequirements(RequirementsOutcomes requirementsOutcomes) throws IOException {
+    private void generateRequirementsReportsForChildRequirements(RequirementsOutcomes requirementsOutcomes,
+                                                                 final ReportPageRenderer renderer) {
         List<RequirementOutcome> requirementOutcomes = requirementsOutcomes.getRequirementOutcomes();
         for (RequirementOutcome outcome : requirementOutcomes) {
-            Requirement requirement = outcome.getRequirement();
-            if (!reportTally.contains(requirement)) {
-                TestOutcomes testOutcomesForThisRequirement = outcome.getTestOutcomes().withTag(requirement.asTag());
-                RequirementsOutcomes requirementOutcomesForThisRequirement = requirementsFactory.buildRequirementsOutcomesFrom(requirement, testOutcomesForThisRequirement);
-                generateNestedRequirementsReportsFor(requirement, requirementOutcomesForThisRequirement);
+            final Requirement requirement = outcome.getRequirement();
+            final TestOutcomes testOutcomes = outcome.getTestOutcomes();
+            if (reportTally.add(requirement)) {
+                renderer.submit(new ReportPageRenderer.PageJob() {
+                    @Override
+                    public void render() throws IOException {
+                        TestOutcomes testOutcomesForThisRequirement = testOutcomes.withTag(requirement.asTag());
+                        RequirementsOutcomes requirementOutcomesForThisRequirement = requirementsFactory.buildRequirementsOutcomesFrom(requirement, testOutcomesForThisRequirement);
+                        generateNestedRequirementsReportsFor(requirement, requirementOutcomesForThisRequirement, renderer);
+                    }
+                });
             }
         }
     }
 
-    private void generateNestedRequirementsReportsFor(Requirement parentRequirement, RequirementsOutcomes requirementsOutcomes) throws IOException {
-        htmlRequirementsReporter.setOutputDirectory(getOutputDirectory());
+    private void generateNestedRequirementsReportsFor(Requirement parentRequirement,
+                                                      RequirementsOutcomes requirementsOutcomes,
+                                                      ReportPageRenderer renderer) throws IOException {
+        generateRequirementsReportsForChildRequirements(requirementsOutcomes, renderer);
+
         String reportName = reportNameProvider.forRequirement(parentRequirement);
-        if (!reportTally.contains(parentRequirement)) {
-            reportTally.add(parentRequirement);
+        PageInputs inputs = PageInputs.forTemplate(HtmlRequirementsReporter.DEFAULT_REQUIREMENTS_REPORT, sharedInputs)
+                                      .and(parentRequirement).and(requirementsOutcomes);
+        if (!isUpToDate(reportName, inputs)) {
             htmlRequirementsReporter.generateReportFor(requirementsOutcomes, requirementsOutcomes.getTestOutcomes(), reportName);
+            recordRendered(reportName, inputs);
         }
-
-        generateRequirementsReportsForChildRequirements(requirementsOutcomes);
-
     }
 
     private TestOutcomes loadTestOutcomesFrom(File sourceDirectory) throws IOException {
         return TestOutcomeLoader.loadTestOutcomes().inFormat(getFormat()).from(sourceDirectory).withHistory().withRequirementsTags();
     }
 
-    private void generateAggregateReportFor(TestOutcomes testOutcomes) throws IOException {
-
-        ReportNameProvider defaultNameProvider = new ReportNameProvider();
-        Map<String, Object> context = buildContext(testOutcomes, defaultNameProvider, true);
-        context.put("report", ReportProperties.forAggregateResultsReport());
-        context.put("csvReport", "results.csv");
-
-        generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, "index.html");
-        generateCSVReportFor(testOutcomes, "results.csv");
+    private void generateAggregateReportFor(final TestOutcomes testOutcomes, ReportPageRenderer renderer) {
+        renderer.submit(new ReportPageRenderer.PageJob() {
+            @Override
+            public void render() throws IOException {
+                PageInputs inputs = PageInputs.forTemplate(TEST_OUTCOME_TEMPLATE_PATH, sharedInputs).and(testOutcomes);
+                if (isUpToDate("index.html", inputs)) {
+                    return;
+                }
+                ReportNameProvider defaultNameProvider = new ReportNameProvider();
+                Map<String, Object> context = buildContext(testOutcomes, defaultNameProvider, true);
+                context.put("report", ReportProperties.forAggregateResultsReport());
+                context.put("csvReport", "results.csv");
+                addTestTableData(context, testOutcomes, "index.html");
+
+                generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, "index.html");
+                generateCSVReportFor(testOutcomes, "results.csv");
+                recordRendered("index.html", inputs);
+            }
+        });
     }
 
     private ReleaseManager releaseManager;
 
-    private ReleaseManager getReleaseManager() {
+    private synchronized ReleaseManager getReleaseManager() {
         if (releaseManager == null) {
             ReportNameProvider defaultNameProvider = new ReportNameProvider();
             releaseManager = new ReleaseManager(getEnvironmentVariables(), defaultNameProvider);
@@ -262,38 +434,52 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 
     private ReportNameProvider defaultNameProvider;
 
-    private ReportNameProvider getReportNameProvider() {
+    private synchronized ReportNameProvider getReportNameProvider() {
         if (defaultNameProvider == null) {
             defaultNameProvider = new ReportNameProvider();
         }
         return defaultNameProvider;
     }
 
-    private void generateReleasesReportFor(TestOutcomes testOutcomes,
-                                           RequirementsOutcomes requirementsOutcomes) throws IOException {
-        Map<String, Object> context = buildContext(testOutcomes, getReportNameProvider());
-        context.put("report", ReportProperties.forAggregateResultsReport());
-        List<Release> releases = getReleaseManager().getReleasesFrom(testOutcomes);
+    private void generateReleasesReportFor(final TestOutcomes testOutcomes,
+                                           final RequirementsOutcomes requirementsOutcomes,
+                                           final List<Release> releases,
+                                           ReportPageRenderer renderer) {
         LOGGER.info("Generating release reports for: " + releases);
         if (!releases.isEmpty()) {
-            String releaseData = getReleaseManager().getJSONReleasesFrom(testOutcomes);
-            context.put("releases", releases);
-            context.put("releaseData", releaseData);
-            context.put("requirements", requirementsOutcomes);
-
-            generateReportPage(context, RELEASES_TEMPLATE_PATH, "releases.html");
-            generateReleaseDetailsReportsFor(testOutcomes, requirementsOutcomes);
+            final String releaseData = getReleaseManager().getJSONReleasesFrom(releases);
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    PageInputs inputs = PageInputs.forTemplate(RELEASES_TEMPLATE_PATH, sharedInputs)
+                                                  .and(releases).and(testOutcomes).and(requirementsOutcomes);
+                    if (isUpToDate("releases.html", inputs)) {
+                        return;
+                    }
+                    Map<String, Object> context = buildContext(testOutcomes, getReportNameProvider());
+                    context.put("report", ReportProperties.forAggregateResultsReport());
+                    context.put("releases", releases);
+                    context.put("releaseData", releaseData);
+                    context.put("requirements", requirementsOutcomes);
+
+                    generateReportPage(context, RELEASES_TEMPLATE_PATH, "releases.html");
+                    recordRendered("releases.html", inputs);
+                }
+            });
+            generateReleaseDetailsReportsFor(testOutcomes, requirementsOutcomes, releases, renderer);
         }
     }
 
-    private void generateReleaseDetailsReportsFor(TestOutcomes testOutcomes,
-                                                  RequirementsOutcomes requirementsOutcomes) throws IOException {
-        List<Release> allReleases = getReleaseManager().getFlattenedReleasesFrom(testOutcomes);
+    private void generateReleaseDetailsReportsFor(final TestOutcomes testOutcomes,
+                                                  final RequirementsOutcomes requirementsOutcomes,
+                                                  List<Release> releases,
+                                                  ReportPageRenderer renderer) {
+        List<Release> allReleases = getReleaseManager().getFlattenedReleases(releases);
         List<String> requirementsTypes = getRequirementTypes();
         String topLevelRequirementType = requirementsTypes.get(0);
         String secondLevelRequirementType = "";
         String secondLevelRequirementTypeTitle = "";
-        String topLevelRequirementTypeTitle = Inflector.getInstance().of(topLevelRequirementType)
+        final String topLevelRequirementTypeTitle = Inflector.getInstance().of(topLevelRequirementType)
                 .inPluralForm().asATitle().toString();
 
         if (requirementsTypes.size() > 1) {
@@ -301,52 +487,78 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
             secondLevelRequirementTypeTitle = Inflector.getInstance().of(secondLevelRequirementType)
                     .inPluralForm().asATitle().toString();
         }
-        for (Release release : allReleases) {
-            RequirementsOutcomes releaseRequirements = requirementsOutcomes.getReleasedRequirementsFor(release);
-            Map<String, Object> context = buildContext(testOutcomes, getReportNameProvider());
+        final String secondLevelTitle = secondLevelRequirementTypeTitle;
+        for (final Release release : allReleases) {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    String reportName = getReportNameProvider().forRelease(release);
+                    PageInputs inputs = PageInputs.forTemplate(RELEASE_TEMPLATE_PATH, sharedInputs)
+                                                  .and(release.getName()).and(release.getChildren())
+                                                  .and(testOutcomes).and(requirementsOutcomes);
+                    if (isUpToDate(reportName, inputs)) {
+                        return;
+                    }
+                    RequirementsOutcomes releaseRequirements = requirementsOutcomes.getReleasedRequirementsFor(release);
+                    Map<String, Object> context = buildContext(testOutcomes, getReportNameProvider());
 
-            context.put("report", ReportProperties.forAggregateResultsReport());
-            context.put("release", release);
+                    context.put("report", ReportProperties.forAggregateResultsReport());
+                    context.put("release", release);
 
-            context.put("releaseData", getReleaseManager().getJSONReleasesFrom(release));
-            context.put("releaseRequirementOutcomes", releaseRequirements.getRequirementOutcomes());
-            context.put("releaseTestOutcomes", testOutcomes.withTag(release.getReleaseTag()));
+                    context.put("releaseData", getReleaseManager().getJSONReleasesFrom(release));
+                    context.put("releaseRequirementOutcomes", releaseRequirements.getRequirementOutcomes());
+                    context.put("releaseTestOutcomes", testOutcomes.withTag(release.getReleaseTag()));
 
-            context.put("requirementType", topLevelRequirementTypeTitle);
-            if (StringUtils.isNotBlank(secondLevelRequirementTypeTitle)) {
-                context.put("secondLevelRequirementType", secondLevelRequirementTypeTitle);
-            }
+                    context.put("requirementType", topLevelRequirementTypeTitle);
+                    if (StringUtils.isNotBlank(secondLevelTitle)) {
+                        context.put("secondLevelRequirementType", secondLevelTitle);
+                    }
 
-            // capability | features | total automated tests | %automated pass | total manual | % manual
-            String reportName = getReportNameProvider().forRelease(release);
-            generateReportPage(context, RELEASE_TEMPLATE_PATH, reportName);
+                    // capability | features | total automated tests | %automated pass | total manual | % manual
+                    generateReportPage(context, RELEASE_TEMPLATE_PATH, reportName);
+                    recordRendered(reportName, inputs);
+                }
+            });
         }
     }
 
-    private void generateTagReportsFor(TestOutcomes testOutcomes) throws IOException {
+    private void generateTagReportsFor(final TestOutcomes testOutcomes, final ReportPageRenderer renderer) {
 
-        for (TestTag tag : testOutcomes.getTags()) {
-            generateTagReport(testOutcomes, reportNameProvider, tag);
-            generateAssociatedTagReportsForTag(testOutcomes.withTag(tag), tag.getName());
+        for (final TestTag tag : testOutcomes.getTags()) {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    generateTagReport(testOutcomes, reportNameProvider, tag);
+                    generateAssociatedTagReportsForTag(testOutcomes.withTag(tag), tag.getName(), renderer);
+                }
+            });
         }
     }
 
-    private void generateTagTypeReportsFor(TestOutcomes testOutcomes) throws IOException {
-        generateTagTypeReportsFor(testOutcomes, reportNameProvider);
-    }
-
-    private void generateTagTypeReportsFor(TestOutcomes testOutcomes, ReportNameProvider reportNameProvider) throws IOException {
+    private void generateTagTypeReportsFor(final TestOutcomes testOutcomes,
+                                           final ReportNameProvider reportNameProvider,
+                                           ReportPageRenderer renderer) {
 
-        for (String tagType : testOutcomes.getTagTypes()) {
-            generateTagTypeReport(testOutcomes, reportNameProvider, tagType);
+        for (final String tagType : testOutcomes.getTagTypes()) {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    generateTagTypeReport(testOutcomes, reportNameProvider, tagType);
+                }
+            });
         }
     }
 
-    private void generateResultReportsFor(TestOutcomes testOutcomes) throws IOException {
-        generateResultReports(testOutcomes, reportNameProvider);
+    private void generateResultReportsFor(final TestOutcomes testOutcomes, final ReportPageRenderer renderer) {
+        generateResultReports(testOutcomes, reportNameProvider, renderer);
 
-        for (TestTag tag : testOutcomes.getTags()) {
-            generateResultReports(testOutcomes.withTag(tag), new ReportNameProvider(tag.getName()), tag);
+        for (final TestTag tag : testOutcomes.getTags()) {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    generateResultReports(testOutcomes.withTag(tag), new ReportNameProvider(tag.getName()), tag, renderer);
+                }
+            });
         }
     }
 
@@ -356,32 +568,52 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 //            generateCoverageData(testOutcomes, tagType);
 //        }
 //    }
-    private void generateResultReports(TestOutcomes testOutcomes, ReportNameProvider reportName) throws IOException {
-        generateResultReports(testOutcomes,reportName, TestTag.EMPTY_TAG);
+    private void generateResultReports(TestOutcomes testOutcomes, ReportNameProvider reportName, ReportPageRenderer renderer) {
+        generateResultReports(testOutcomes, reportName, TestTag.EMPTY_TAG, renderer);
     }
 
-    private void generateResultReports(TestOutcomes testOutcomesForThisTag, ReportNameProvider reportName, TestTag tag) throws IOException {
+    private void generateResultReports(TestOutcomes testOutcomesForThisTag, ReportNameProvider reportName, TestTag tag,
+                                       ReportPageRenderer renderer) {
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.SUCCESS) > 0) {
-            generateResultReport(testOutcomesForThisTag.getPassingTests(), reportName, tag, "success");
+            renderer.submit(resultReport(testOutcomesForThisTag.getPassingTests(), reportName, tag, "success"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.PENDING) > 0) {
-            generateResultReport(testOutcomesForThisTag.getPendingTests(), reportName, tag, "pending");
+            renderer.submit(resultReport(testOutcomesForThisTag.getPendingTests(), reportName, tag, "pending"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.FAILURE) > 0) {
-            generateResultReport(testOutcomesForThisTag.getFailingTests(), reportName, tag, "failure");
+            renderer.submit(resultReport(testOutcomesForThisTag.getFailingTests(), reportName, tag, "failure"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.ERROR) > 0) {
-            generateResultReport(testOutcomesForThisTag.getErrorTests(), reportName, tag, "error");
+            renderer.submit(resultReport(testOutcomesForThisTag.getErrorTests(), reportName, tag, "error"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.IGNORED) > 0) {
-            generateResultReport(testOutcomesForThisTag.havingResult(TestResult.IGNORED), reportName, tag, "ignored");
+            renderer.submit(resultReport(testOutcomesForThisTag.havingResult(TestResult.IGNORED), reportName, tag, "ignored"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.SKIPPED) > 0) {
-            generateResultReport(testOutcomesForThisTag.havingResult(TestResult.SKIPPED), reportName, tag, "skipped");
+            renderer.submit(resultReport(testOutcomesForThisTag.havingResult(TestResult.SKIPPED), reportName, tag, "skipped"));
         }
     }
 
+    private ReportPageRenderer.PageJob resultReport(final TestOutcomes testOutcomes,
+                                                    final ReportNameProvider reportName,
+                                                    final TestTag tag,
+                                                    final String testResult) {
+        return new ReportPageRenderer.PageJob() {
+            @Override
+            public void render() throws IOException {
+                generateResultReport(testOutcomes, reportName, tag, testResult);
+            }
+        };
+    }
+
     private void generateResultReport(TestOutcomes testOutcomes, ReportNameProvider reportName, TestTag tag, String testResult) throws IOException {
+        String report = reportName.withPrefix(tag).forTestResult(testResult);
+        PageInputs inputs = PageInputs.forTemplate(TEST_OUTCOME_TEMPLATE_PATH, sharedInputs)
+                                      .and(tag).and(testResult).and(testOutcomes);
+        if (isUpToDate(report, inputs)) {
+            return;
+        }
+
         Map<String, Object> context = buildContext(testOutcomes, reportName);
         context.put("report", ReportProperties.forTestResultsReport());
         context.put("currentTagType", tag.getType());
@@ -389,13 +621,21 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 
         String csvReport = reportName.forCSVFiles().forTestResult(testResult);
         context.put("csvReport", csvReport);
-        String report = reportName.withPrefix(tag).forTestResult(testResult);
+        addTestTableData(context, testOutcomes, report);
         generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, report);
         generateCSVReportFor(testOutcomes, csvReport);
+        recordRendered(report, inputs);
     }
 
     private void generateTagReport(TestOutcomes testOutcomes, ReportNameProvider reportName, TestTag tag) throws IOException {
         TestOutcomes testOutcomesForTag = testOutcomes.withTag(tag);
+        String report = reportName.forTag(tag);
+        PageInputs inputs = PageInputs.forTemplate(TEST_OUTCOME_TEMPLATE_PATH, sharedInputs)
+                                      .and(tag).and(testOutcomesForTag);
+        if (isUpToDate(report, inputs)) {
+            return;
+        }
+
         Map<String, Object> context = buildContext(testOutcomesForTag, reportName);
         context.put("report", ReportProperties.forTagResultsReport());
         context.put("currentTagType", tag.getType());
@@ -403,16 +643,23 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 
         String csvReport = reportName.forCSVFiles().forTag(tag);
         context.put("csvReport", csvReport);
+        addTestTableData(context, testOutcomesForTag, report);
 
-        String report = reportName.forTag(tag);
         generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, report);
         generateCSVReportFor(testOutcomesForTag, csvReport);
+        recordRendered(report, inputs);
     }
 
 
     private void generateTagTypeReport(TestOutcomes testOutcomes, ReportNameProvider reportName, String tagType) throws IOException {
 
         TestOutcomes testOutcomesForTagType = testOutcomes.withTagType(tagType);
+        String report = reportName.forTagType(tagType);
+        PageInputs inputs = PageInputs.forTemplate(TAGTYPE_TEMPLATE_PATH, sharedInputs)
+                                      .and(tagType).and(testOutcomesForTagType);
+        if (isUpToDate(report, inputs)) {
+            return;
+        }
 
         Map<String, Object> context = buildContext(testOutcomesForTagType, reportName);
         context.put("report", ReportProperties.forTagTypeResultsReport());
@@ -421,15 +668,21 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         String csvReport = reportName.forCSVFiles().forTagType(tagType);
         context.put("csvReport", csvReport);
 
-        String report = reportName.forTagType(tagType);
         generateReportPage(context, TAGTYPE_TEMPLATE_PATH, report);
         generateCSVReportFor(testOutcomesForTagType, csvReport);
+        recordRendered(report, inputs);
     }
 
-    private void generateAssociatedTagReportsForTag(TestOutcomes testOutcomes, String sourceTag) throws IOException {
-        ReportNameProvider reportName = new ReportNameProvider(sourceTag);
-        for (TestTag tag : testOutcomes.getTags()) {
-            generateTagReport(testOutcomes, reportName, tag);
+    private void generateAssociatedTagReportsForTag(final TestOutcomes testOutcomes, String sourceTag,
+                                                    ReportPageRenderer renderer) {
+        final ReportNameProvider reportName = new ReportNameProvider(sourceTag);
+        for (final TestTag tag : testOutcomes.getTags()) {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    generateTagReport(testOutcomes, reportName, tag);
+                }
+            });
         }
     }
 
@@ -441,8 +694,7 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
     private Map<String, Object> buildContext(TestOutcomes testOutcomesForTagType,
                                              ReportNameProvider reportName,
                                              boolean useFiltering) {
-        Map<String, Object> context = new HashMap<String, Object>();
-        TagFilter tagFilter = new TagFilter(getEnvironmentVariables());
+        Map<String, Object> context = new HashMap<>(baseContext());
         context.put("testOutcomes", testOutcomesForTagType);
         context.put("allTestOutcomes", testOutcomesForTagType.getRootOutcomes());
         if (useFiltering) {
@@ -452,27 +704,25 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         }
         context.put("currentTag", TestTag.EMPTY_TAG);
         context.put("reportName", reportName);
-        context.put("absoluteReportName", new ReportNameProvider());
-
-        context.put("reportOptions", new ReportOptions(getEnvironmentVariables()));
-        //context.put("timestamp", timestampFrom(testOutcomesForTagType.getRootOutcomes()));
-        context.put("timestamp", timestampFrom(currentTime()));
-        context.put("requirementTypes", requirementsService.getRequirementTypes());
-        addFormattersToContext(context);
-
-
-        VersionProvider versionProvider = new VersionProvider(environmentVariables);
-        context.put("thucydidesVersionNumber", versionProvider.getVersion());
-        context.put("buildNumber", versionProvider.getBuildNumberText());
-
         return context;
     }
 
+    /**
+     * Large test tables are written to a separate data file that the page loads lazily.
+     */
+    private void addTestTableData(Map<String, Object> context, TestOutcomes testOutcomes, String reportName) throws IOException {
+        int threshold = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_LAZY_TABLE_THRESHOLD, 0);
+        if ((threshold > 0) && (testOutcomes.getOutcomes().size() > threshold)) {
+            String dataFile = TestResultsTableData.dataFileFor(reportName);
+            new TestResultsTableData(getOutputDirectory()).write(dataFile, testOutcomes);
+            context.put("testTableData", dataFile);
+        }
+    }
+
     private void generateReportPage(final Map<String, Object> context,
                                     final String template,
                                     final String outputFile) throws IOException {
-        String htmlContents = mergeTemplate(template).usingContext(context);
-        writeReportToOutputDirectory(outputFile, htmlContents);
+        writeReportToOutputDirectory(outputFile, template, context);
     }
 
     protected ThucydidesSystemProperties getSystemProperties() {
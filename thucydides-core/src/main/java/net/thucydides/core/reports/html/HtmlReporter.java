@@ -8,14 +8,17 @@ import net.thucydides.core.reports.ThucydidesReporter;
 import net.thucydides.core.reports.templates.ReportTemplate;
 import net.thucydides.core.reports.templates.TemplateManager;
 import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.HardLinks;
 import org.apache.commons.io.FileUtils;
 import org.joda.time.DateTime;
 
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -64,7 +67,7 @@ public abstract class HtmlReporter extends ThucydidesReporter {
 
     private boolean alreadyCopied = false;
 
-    protected void copyResourcesToOutputDirectory() throws IOException {
+    protected synchronized void copyResourcesToOutputDirectory() throws IOException {
         if (!alreadyCopied) {
             alreadyCopied = true;
             updateResourceDirectoryFromSystemPropertyIfDefined();
@@ -73,24 +76,29 @@ public abstract class HtmlReporter extends ThucydidesReporter {
     }
 
     private void copyResources() throws IOException {
-        HtmlResourceCopier copier = new HtmlResourceCopier(getResourceDirectory());
+        HtmlResourceCopier copier = new HtmlResourceCopier(getResourceDirectory(), getEnvironmentVariables());
         copier.copyHTMLResourcesTo(getOutputDirectory());
     }
 
+    /**
+     * The test results are hard-linked into the output directory where possible, rather than copied.
+     */
     protected void copyTestResultsToOutputDirectory() throws IOException {
         File testResultsSource = getSourceDirectoryOrDefault();
         if ((!getOutputDirectory().getAbsolutePath().equals(testResultsSource.getAbsolutePath())) && testResultsSource.exists()) {
-            FileUtils.copyDirectory(testResultsSource, getOutputDirectory(), withXMLorHTMLorCSVFiles());
+            Files.createDirectories(getOutputDirectory().toPath());
+            HardLinks.replaceWithLinksOrCopies(testResultsSource.toPath(), getOutputDirectory().toPath(), withXMLorHTMLorCSVFiles());
         }
     }
 
-    private FileFilter withXMLorHTMLorCSVFiles() {
-        return new FileFilter() {
+    private DirectoryStream.Filter<Path> withXMLorHTMLorCSVFiles() {
+        return new DirectoryStream.Filter<Path>() {
             @Override
-            public boolean accept(File file) {
-                return file.getName().endsWith(".xml")
-                        || file.getName().endsWith(".html")
-                        || file.getName().endsWith(".csv");
+            public boolean accept(Path file) {
+                String name = file.getFileName().toString();
+                return name.endsWith(".xml")
+                        || name.endsWith(".html")
+                        || name.endsWith(".csv");
             }
         };
     }
@@ -115,10 +123,31 @@ public abstract class HtmlReporter extends ThucydidesReporter {
     protected File writeReportToOutputDirectory(final String reportFilename, final String htmlContents) throws
             IOException {
         File report = new File(getOutputDirectory(), reportFilename);
+        HardLinks.prepareToReplace(report.toPath());
         FileUtils.writeStringToFile(report, htmlContents, Charset.forName("UTF-8"));
         return report;
     }
 
+    /**
+     * Merge a template straight into a report file in the output directory.
+     * Unlike {@link #mergeTemplate(String)}, the report is streamed to disk rather than built up in memory first,
+     * which matters for the larger aggregate pages.
+     */
+    protected File writeReportToOutputDirectory(final String reportFilename,
+                                                final String templateFile,
+                                                final Map<String, Object> context) throws IOException {
+        File report = new File(getOutputDirectory(), reportFilename);
+        try {
+            ReportTemplate template = getTemplateManager().getTemplateFrom(templateFile);
+            template.merge(context, report);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to merge template: " + e.getMessage(), e);
+        }
+        return report;
+    }
+
     protected String timestampFrom(TestOutcomes rootOutcomes) {
         return timestampFrom(currentTime());
     }
@@ -135,6 +164,19 @@ public abstract class HtmlReporter extends ThucydidesReporter {
         return new DateTime();
     }
 
+    /**
+     * Load and parse templates ahead of time, so that the first pages rendered do not all wait for the same template.
+     */
+    protected void preloadTemplates(final String... templateFiles) {
+        for (String templateFile : templateFiles) {
+            try {
+                getTemplateManager().getTemplateFrom(templateFile);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to load template: " + e.getMessage(), e);
+            }
+        }
+    }
+
     protected Merger mergeTemplate(final String templateFile) {
         return new Merger(templateFile);
     }
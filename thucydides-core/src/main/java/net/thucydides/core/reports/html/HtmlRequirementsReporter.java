@@ -13,17 +13,19 @@ import net.thucydides.core.util.VersionProvider;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 public class HtmlRequirementsReporter extends HtmlReporter {
 
-    private static final String DEFAULT_REQUIREMENTS_REPORT = "freemarker/requirements.ftl";
-    private static final String REPORT_NAME = "capabilities.html";
+    static final String DEFAULT_REQUIREMENTS_REPORT = "freemarker/requirements.ftl";
+    static final String REPORT_NAME = "capabilities.html";
 
     private final IssueTracking issueTracking;
     private final RequirementsService requirementsService;
     private final String relativeLink;
+    private Map<String, Object> baseContext;
 
     public HtmlRequirementsReporter() {
         this("", Injectors.getInjector().getInstance(IssueTracking.class),
@@ -52,35 +54,39 @@ public class HtmlRequirementsReporter extends HtmlReporter {
 
         Preconditions.checkNotNull(getOutputDirectory());
 
-        Map<String,Object> context = new HashMap<String,Object>();
+        Map<String,Object> context = new HashMap<>(baseContext());
 
         context.put("requirements", requirementsOutcomes);
-        context.put("requirementTypes", requirementsService.getRequirementTypes());
         context.put("testOutcomes", requirementsOutcomes.getTestOutcomes());
         context.put("allTestOutcomes", testOutcomes);
         context.put("timestamp", timestampFrom(testOutcomes));
-        context.put("reportName", new ReportNameProvider());
-        context.put("absoluteReportName", new ReportNameProvider());
-        context.put("reportOptions", new ReportOptions(getEnvironmentVariables()));
-        context.put("relativeLink", relativeLink);
 
-        VersionProvider versionProvider = new VersionProvider(getEnvironmentVariables());
-        context.put("thucydidesVersionNumber", versionProvider.getVersion());
-        context.put("buildNumber", versionProvider.getBuildNumberText());
-
-        addFormattersToContext(context);
-
-        String htmlContents = mergeTemplate(DEFAULT_REQUIREMENTS_REPORT).usingContext(context);
         copyResourcesToOutputDirectory();
 
-        return writeReportToOutputDirectory(filename, htmlContents);
+        return writeReportToOutputDirectory(filename, DEFAULT_REQUIREMENTS_REPORT, context);
     }
 
-    private void addFormattersToContext(final Map<String, Object> context) {
-        Formatter formatter = new Formatter(issueTracking);
-        context.put("formatter", formatter);
-
-        context.put("formatted", new NumericalFormatter());
-        context.put("inflection", Inflector.getInstance());
+    /**
+     * The parts of the context that do not depend on the requirements being reported on.
+     */
+    private synchronized Map<String, Object> baseContext() {
+        if (baseContext == null) {
+            Map<String, Object> context = new HashMap<>();
+            context.put("requirementTypes", requirementsService.getRequirementTypes());
+            context.put("reportName", new ReportNameProvider());
+            context.put("absoluteReportName", new ReportNameProvider());
+            context.put("reportOptions", new ReportOptions(getEnvironmentVariables()));
+            context.put("relativeLink", relativeLink);
+
+            VersionProvider versionProvider = new VersionProvider(getEnvironmentVariables());
+            context.put("thucydidesVersionNumber", versionProvider.getVersion());
+            context.put("buildNumber", versionProvider.getBuildNumberText());
+
+            context.put("formatter", new Formatter(issueTracking));
+            context.put("formatted", new NumericalFormatter());
+            context.put("inflection", Inflector.getInstance());
+            baseContext = Collections.unmodifiableMap(context);
+        }
+        return baseContext;
     }
 }
@@ -1,23 +1,78 @@
 package net.thucydides.core.reports.html;
 
+import com.google.common.base.Optional;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.digest.Digest;
 import net.thucydides.core.resources.FileResources;
 import net.thucydides.core.resources.ResourceList;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.HardLinks;
+import net.thucydides.core.util.VersionProvider;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
  * Utility class that copies HTML resource files (images, stylesheets...) from a JAR to a target directory.
+ * <p>
+ * When it is given the environment variables, the resources are only unpacked from the JAR once, into a cache
+ * directory keyed by the JAR files they come from, and are then hard-linked (or copied) into each target directory.
+ * Resources that come from a directory on the classpath rather than from a JAR may change at any time,
+ * so they are always copied directly.
+ * </p>
  */
 public class HtmlResourceCopier {
 
+    private static final String DEFAULT_CACHE_DIRECTORY_NAME = "report-resources";
+    private static final String RESOURCES = "resources";
+    private static final String UNPACKED_FILES = "unpacked-files.txt";
+
     private String resourceDirectory;
+    private final Optional<Path> cacheDirectory;
+    private final String version;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HtmlResourceCopier.class);
 
     public HtmlResourceCopier(final String resourceDirectory) {
         super();
         this.resourceDirectory = resourceDirectory;
+        this.cacheDirectory = Optional.absent();
+        this.version = "";
+    }
+
+    public HtmlResourceCopier(final String resourceDirectory, final EnvironmentVariables environmentVariables) {
+        super();
+        this.resourceDirectory = resourceDirectory;
+        this.cacheDirectory = Optional.of(cacheDirectoryFrom(environmentVariables));
+        this.version = new VersionProvider(environmentVariables).getVersion();
+    }
+
+    /**
+     * The cache is kept in the user's home directory by default rather than in the shared temporary directory,
+     * so that other users on the same machine cannot plant resources in it.
+     */
+    private static Path cacheDirectoryFrom(EnvironmentVariables environmentVariables) {
+        String homeDirectory = environmentVariables.getProperty("user.home", System.getProperty("user.home"));
+        String defaultCacheDirectory = Paths.get(homeDirectory, ".thucydides", DEFAULT_CACHE_DIRECTORY_NAME).toString();
+        return Paths.get(ThucydidesSystemProperty.THUCYDIDES_REPORT_RESOURCE_CACHE.from(environmentVariables,
+                                                                                           defaultCacheDirectory));
     }
 
     /**
@@ -26,6 +81,138 @@ public class HtmlResourceCopier {
      * end up on the classpath.
      */
     public void copyHTMLResourcesTo(final File targetDirectory) throws IOException {
+        Optional<Path> unpackedResources = Optional.absent();
+        try {
+            unpackedResources = unpackedResources();
+        } catch (IOException e) {
+            LOGGER.warn("Could not use the report resource cache in {}: {}", cacheDirectory.get(), e.getMessage());
+        }
+        if (unpackedResources.isPresent()) {
+            HardLinks.linkOrCopyTree(unpackedResources.get(), targetDirectory.toPath());
+        } else {
+            unpackResourcesTo(targetDirectory);
+        }
+    }
+
+    /**
+     * The resources unpacked into the cache, unpacking them first if this version has not been seen before.
+     * A new version is unpacked into a temporary directory that is then moved into place,
+     * so that a build never sees another build's half-unpacked resources.
+     * The last step of unpacking is to record the unpacked files: cached resources that no longer match that list
+     * (because a temporary file cleaner has been through the cache directory, for example) are unpacked again.
+     */
+    private Optional<Path> unpackedResources() throws IOException {
+        Optional<String> cacheKey = cacheKey();
+        if (!cacheKey.isPresent()) {
+            return Optional.absent();
+        }
+        Path cacheEntry = cacheDirectory.get().resolve(cacheKey.get());
+        if (Files.exists(cacheEntry) && !isComplete(cacheEntry)) {
+            LOGGER.info("Unpacking the report resources again: the files cached in {} are incomplete", cacheEntry);
+            discard(cacheEntry);
+        }
+        if (!Files.exists(cacheEntry)) {
+            Files.createDirectories(cacheDirectory.get());
+            Path unpacking = Files.createTempDirectory(cacheDirectory.get(), cacheKey.get() + "-");
+            try {
+                unpackResourcesTo(unpacking.resolve(RESOURCES).toFile());
+                recordUnpackedFilesIn(unpacking);
+                Files.move(unpacking, cacheEntry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (!Files.exists(cacheEntry)) {
+                    throw e;
+                }
+                // Another build unpacked the same resources first
+            } finally {
+                FileUtils.deleteQuietly(unpacking.toFile());
+            }
+        }
+        return Optional.of(cacheEntry.resolve(RESOURCES));
+    }
+
+    private void recordUnpackedFilesIn(Path cacheEntry) throws IOException {
+        Path resources = cacheEntry.resolve(RESOURCES);
+        List<String> unpackedFiles = new ArrayList<>();
+        for (File unpackedFile : FileUtils.listFiles(resources.toFile(), null, true)) {
+            unpackedFiles.add(resources.relativize(unpackedFile.toPath()) + "\t" + unpackedFile.length());
+        }
+        Files.write(cacheEntry.resolve(UNPACKED_FILES), unpackedFiles, StandardCharsets.UTF_8);
+    }
+
+    private boolean isComplete(Path cacheEntry) {
+        Path resources = cacheEntry.resolve(RESOURCES);
+        try {
+            for (String unpackedFile : Files.readAllLines(cacheEntry.resolve(UNPACKED_FILES), StandardCharsets.UTF_8)) {
+                int separator = unpackedFile.lastIndexOf('\t');
+                Path cachedFile = resources.resolve(unpackedFile.substring(0, separator));
+                long size = Long.parseLong(unpackedFile.substring(separator + 1));
+                if (!Files.isRegularFile(cachedFile) || Files.size(cachedFile) != size) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Move the incomplete resources out of the way before deleting them, so that no other build can find them
+     * half-deleted.
+     */
+    private void discard(Path cacheEntry) throws IOException {
+        Path discarded = Files.createTempDirectory(cacheDirectory.get(), cacheEntry.getFileName() + "-");
+        try {
+            Files.move(cacheEntry, discarded.resolve(RESOURCES), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.debug("Incomplete report resources already discarded by another build", e);
+        } finally {
+            FileUtils.deleteQuietly(discarded.toFile());
+        }
+    }
+
+    /**
+     * Identifies the JAR files that provide the resource directory, or nothing if the resources cannot be cached.
+     */
+    private Optional<String> cacheKey() throws IOException {
+        if (!cacheDirectory.isPresent()) {
+            return Optional.absent();
+        }
+        StringBuilder jarFiles = new StringBuilder(resourceDirectory);
+        Enumeration<URL> resourceLocations = getClass().getClassLoader().getResources(resourceDirectory);
+        if (!resourceLocations.hasMoreElements()) {
+            return Optional.absent();
+        }
+        while (resourceLocations.hasMoreElements()) {
+            Optional<File> jarFile = jarFileContaining(resourceLocations.nextElement());
+            if (!jarFile.isPresent()) {
+                return Optional.absent();
+            }
+            jarFiles.append('|').append(jarFile.get().getAbsolutePath())
+                    .append('|').append(jarFile.get().length())
+                    .append('|').append(jarFile.get().lastModified());
+        }
+        return Optional.of(version + "-" + Digest.ofTextValue(jarFiles.toString()).substring(0, 16));
+    }
+
+    private Optional<File> jarFileContaining(URL resourceLocation) throws IOException {
+        URLConnection connection = resourceLocation.openConnection();
+        if (!(connection instanceof JarURLConnection)) {
+            return Optional.absent();
+        }
+        URL jarFileUrl = ((JarURLConnection) connection).getJarFileURL();
+        if (!"file".equals(jarFileUrl.getProtocol())) {
+            return Optional.absent();
+        }
+        try {
+            return Optional.of(new File(jarFileUrl.toURI()));
+        } catch (URISyntaxException e) {
+            LOGGER.debug("Report resources will not be cached: unexpected location {}", jarFileUrl, e);
+            return Optional.absent();
+        }
+    }
+
+    private void unpackResourcesTo(final File targetDirectory) throws IOException {
 
         Pattern resourcePattern = allFilesInDirectory(resourceDirectory);
         FileResources fileResource = FileResources.from(resourceDirectory);
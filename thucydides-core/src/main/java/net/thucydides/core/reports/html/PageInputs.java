@@ -0,0 +1,103 @@
+package net.thucydides.core.reports.html;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import net.thucydides.core.digest.Digest;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.reports.TestOutcomes;
+import net.thucydides.core.requirements.model.Requirement;
+import net.thucydides.core.requirements.reports.RequirementOutcome;
+import net.thucydides.core.requirements.reports.RequirementsOutcomes;
+
+import java.util.List;
+
+/**
+ * Describes what a report page is rendered from, as a digest that changes whenever one of the inputs does.
+ * The digest is only worked out when it is first asked for.
+ * A test outcome is described by its identity, result and timing rather than by its full contents:
+ * an outcome that is run again always has a new start time.
+ */
+class PageInputs {
+
+    private final List<Object> inputs = Lists.newArrayList();
+    private String digest;
+
+    private PageInputs(String template, String sharedInputs) {
+        inputs.add(template);
+        inputs.add(sharedInputs);
+    }
+
+    static PageInputs forTemplate(String template, String sharedInputs) {
+        return new PageInputs(template, sharedInputs);
+    }
+
+    PageInputs and(Object input) {
+        inputs.add(input);
+        return this;
+    }
+
+    synchronized String digest() {
+        if (digest == null) {
+            StringBuilder description = new StringBuilder();
+            for (Object input : inputs) {
+                describe(input, description);
+            }
+            digest = Digest.ofTextValue(description.toString());
+        }
+        return digest;
+    }
+
+    private void describe(Object input, StringBuilder description) {
+        if (input instanceof TestOutcomes) {
+            describeOutcomes((TestOutcomes) input, description);
+        } else if (input instanceof RequirementsOutcomes) {
+            describeRequirements((RequirementsOutcomes) input, description);
+        } else {
+            append(input, description);
+        }
+    }
+
+    private void describeOutcomes(TestOutcomes testOutcomes, StringBuilder description) {
+        for (TestOutcome outcome : testOutcomes.getOutcomes()) {
+            append(outcome.getStoryTitle(), description);
+            append(outcome.getMethodName(), description);
+            append(outcome.getTitle(), description);
+            append(outcome.getResult(), description);
+            append(outcome.getStartTime(), description);
+            append(outcome.getDuration(), description);
+            append(outcome.getStepCount(), description);
+            append(outcome.getTestCount(), description);
+            append(outcome.getIssues(), description);
+            for (TestTag tag : Ordering.usingToString().sortedCopy(outcome.getTags())) {
+                append(tag, description);
+            }
+        }
+    }
+
+    private void describeRequirements(RequirementsOutcomes requirementsOutcomes, StringBuilder description) {
+        if (requirementsOutcomes.getParentRequirement().isPresent()) {
+            describeRequirement(requirementsOutcomes.getParentRequirement().get(), description);
+        }
+        for (RequirementOutcome requirementOutcome : requirementsOutcomes.getFlattenedRequirementOutcomes()) {
+            describeRequirement(requirementOutcome.getRequirement(), description);
+        }
+        describeOutcomes(requirementsOutcomes.getTestOutcomes(), description);
+    }
+
+    private void describeRequirement(Requirement requirement, StringBuilder description) {
+        append(requirement.getName(), description);
+        append(requirement.getType(), description);
+        append(requirement.getCardNumber(), description);
+        append(requirement.getReleaseVersions(), description);
+        append(requirement.getChildrenCount(), description);
+        append(requirement.getExampleCount(), description);
+        if (requirement.getNarrative() != null) {
+            append(requirement.getNarrative().getText(), description);
+        }
+    }
+
+    private void append(Object value, StringBuilder description) {
+        description.append(value).append('\u0000');
+    }
+}
@@ -0,0 +1,100 @@
+package net.thucydides.core.reports.html;
+
+import net.thucydides.core.util.HardLinks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a digest of the inputs used to render each page of the aggregate reports, so that an incremental
+ * aggregation only re-renders the pages whose inputs have changed since the previous one.
+ * The manifest is kept in the report output directory. Pages that are neither rendered nor skipped during an
+ * aggregation are dropped from the manifest when it is saved.
+ */
+public class ReportManifest {
+
+    public static final String MANIFEST_FILE = "report-manifest.properties";
+
+    private final File manifestFile;
+    private final Properties previousDigests;
+    private final Map<String, String> currentDigests = new ConcurrentHashMap<>();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportManifest.class);
+
+    private ReportManifest(File manifestFile, Properties previousDigests) {
+        this.manifestFile = manifestFile;
+        this.previousDigests = previousDigests;
+    }
+
+    /**
+     * A manifest that never skips a page and is never saved.
+     */
+    public static ReportManifest disabled() {
+        return new ReportManifest(null, new Properties());
+    }
+
+    public static ReportManifest inDirectory(File outputDirectory) {
+        File manifestFile = new File(outputDirectory, MANIFEST_FILE);
+        return new ReportManifest(manifestFile, previousDigestsFrom(manifestFile));
+    }
+
+    private static Properties previousDigestsFrom(File manifestFile) {
+        Properties digests = new Properties();
+        if (manifestFile.exists()) {
+            try (InputStream in = new FileInputStream(manifestFile)) {
+                digests.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Could not read the report manifest {}: all the report pages will be rendered", manifestFile, e);
+                digests.clear();
+            }
+        }
+        return digests;
+    }
+
+    public boolean isEnabled() {
+        return manifestFile != null;
+    }
+
+    /**
+     * A page needs rendering unless it was rendered from the same inputs last time and is still there.
+     * A page that does not need rendering keeps its entry in the manifest.
+     */
+    public boolean needsRendering(String reportName, String inputDigest) {
+        if (!isEnabled()) {
+            return true;
+        }
+        boolean unchanged = inputDigest.equals(previousDigests.getProperty(reportName))
+                            && new File(manifestFile.getParentFile(), reportName).exists();
+        if (unchanged) {
+            currentDigests.put(reportName, inputDigest);
+        }
+        return !unchanged;
+    }
+
+    public void recordRendered(String reportName, String inputDigest) {
+        if (isEnabled()) {
+            currentDigests.put(reportName, inputDigest);
+        }
+    }
+
+    public void save() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Properties digests = new Properties();
+        digests.putAll(currentDigests);
+        HardLinks.prepareToReplace(manifestFile.toPath());
+        try (OutputStream out = new FileOutputStream(manifestFile)) {
+            digests.store(out, "Inputs of the aggregate report pages");
+        }
+    }
+}
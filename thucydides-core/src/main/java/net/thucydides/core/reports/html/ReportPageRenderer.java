@@ -0,0 +1,176 @@
+package net.thucydides.core.reports.html;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.reports.ReportGenerationFailedError;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Renders independent report pages in parallel on a work-stealing thread pool.
+ * Pages can be submitted from any thread, including from inside another page job: a job that discovers more pages
+ * to render (a tag report and its associated tag reports, for example) forks them onto its own worker queue,
+ * where idle workers can steal them.
+ * With a single thread, pages are rendered immediately in the submitting thread, in the order they are submitted.
+ * Failures do not stop the other pages from being rendered; the first one is rethrown by {@link #waitUntilDone()}.
+ */
+public class ReportPageRenderer {
+
+    /**
+     * Renders one or more report pages.
+     */
+    public interface PageJob {
+        void render() throws IOException;
+    }
+
+    private final int threadCount;
+    private final ClassLoader contextClassLoader;
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Counts the page jobs that have been submitted but not yet rendered.
+     * A plain counter is used rather than a phaser, as a large report can have more pending pages than a phaser
+     * has room for parties.
+     */
+    private final AtomicLong pendingPages = new AtomicLong();
+    private final Lock completionLock = new ReentrantLock();
+    private final Condition allPagesRendered = completionLock.newCondition();
+
+    private ForkJoinPool pool;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportPageRenderer.class);
+
+    public ReportPageRenderer(int threadCount) {
+        this.threadCount = Math.max(threadCount, 1);
+        this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    public static ReportPageRenderer fromConfiguration(EnvironmentVariables environmentVariables) {
+        return new ReportPageRenderer(
+                environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_THREADS,
+                                                          Runtime.getRuntime().availableProcessors()));
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void submit(PageJob job) {
+        if (threadCount == 1) {
+            render(job);
+            return;
+        }
+        pendingPages.incrementAndGet();
+        RenderingTask task = new RenderingTask(job);
+        if (ForkJoinTask.getPool() == pool()) {
+            task.fork();
+        } else {
+            pool().execute(task);
+        }
+    }
+
+    /**
+     * Wait for every submitted page, and any pages they submitted in turn, to be rendered.
+     */
+    public void waitUntilDone() throws IOException {
+        completionLock.lock();
+        try {
+            while (pendingPages.get() > 0) {
+                allPagesRendered.awaitUninterruptibly();
+            }
+        } finally {
+            completionLock.unlock();
+        }
+        rethrowFirstFailure();
+    }
+
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threadCount, new RendererThreadFactory(), null, false);
+        }
+        return pool;
+    }
+
+    private void render(PageJob job) {
+        try {
+            job.render();
+        } catch (Throwable e) {
+            LOGGER.error("Failed to render report page", e);
+            failures.add(e);
+        }
+    }
+
+    private void pageRendered() {
+        if (pendingPages.decrementAndGet() == 0) {
+            completionLock.lock();
+            try {
+                allPagesRendered.signalAll();
+            } finally {
+                completionLock.unlock();
+            }
+        }
+    }
+
+    private void rethrowFirstFailure() throws IOException {
+        Throwable failure = failures.poll();
+        failures.clear();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new ReportGenerationFailedError("Failed to render report page", failure);
+        }
+    }
+
+    private class RenderingTask extends RecursiveAction {
+        private final PageJob job;
+
+        RenderingTask(PageJob job) {
+            this.job = job;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                render(job);
+            } finally {
+                pageRendered();
+            }
+        }
+    }
+
+    private class RendererThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("thucydides-report-renderer-" + threadNumber.getAndIncrement());
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.thucydides.core.reports.html;
+
+import com.google.gson.stream.JsonWriter;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.TestOutcomes;
+import net.thucydides.core.util.HardLinks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes the rows of a test results table to a script file that the report page loads once it is displayed,
+ * rather than rendering every row into the page itself.
+ * Each test is written as a compact array, in the order expected by scripts/test-table.js.
+ */
+class TestResultsTableData {
+
+    private final File outputDirectory;
+
+    TestResultsTableData(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    static String dataFileFor(String reportName) {
+        String baseName = reportName.endsWith(".html") ? reportName.substring(0, reportName.length() - 5) : reportName;
+        return baseName + "-tests.js";
+    }
+
+    File write(String dataFile, TestOutcomes testOutcomes) throws IOException {
+        File tableData = new File(outputDirectory, dataFile);
+        HardLinks.prepareToReplace(tableData.toPath());
+        try (Writer writer = Files.newBufferedWriter(tableData.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("thucydidesTestTable.loaded(");
+            JsonWriter json = new JsonWriter(writer);
+            json.beginArray();
+            for (TestOutcome outcome : testOutcomes.getTests()) {
+                writeRow(outcome, json);
+            }
+            json.endArray();
+            json.flush();
+            writer.write(");\n");
+        }
+        return tableData;
+    }
+
+    private void writeRow(TestOutcome outcome, JsonWriter json) throws IOException {
+        json.beginArray();
+        json.value(String.valueOf(outcome.getResult()));
+        json.value(outcome.isManual());
+        json.value(outcome.getReportName());
+        json.value(outcome.getUnqualified().getTitleWithLinks() + " " + outcome.getFormattedIssues());
+        json.value(outcome.getErrorMessage());
+        json.value(outcome.getNestedStepCount());
+        json.value(outcome.getFailureCount());
+        json.value(outcome.getErrorCount());
+        json.value(outcome.getPendingCount());
+        json.value(outcome.getSkippedCount());
+        json.value(outcome.getIgnoredCount());
+        json.value(stabilityRankOf(outcome));
+        json.value(outcome.getRecentTestRunCount());
+        json.value(outcome.getRecentPassCount());
+        json.value(outcome.getRecentFailCount());
+        json.value(outcome.getRecentPendingCount());
+        json.value(outcome.getDurationInSeconds());
+        json.endArray();
+    }
+
+    /**
+     * The same ranking as the stability column of home.ftl: 0 when every recent run was pending,
+     * then 1 (red) to 4 (green).
+     */
+    private int stabilityRankOf(TestOutcome outcome) {
+        if (outcome.getRecentTestRunCount() == outcome.getRecentPendingCount()) {
+            return 0;
+        } else if (outcome.getRecentStability() < 0.25) {
+            return 1;
+        } else if (outcome.getRecentStability() < 0.5) {
+            return 2;
+        } else {
+            return 4;
+        }
+    }
+}
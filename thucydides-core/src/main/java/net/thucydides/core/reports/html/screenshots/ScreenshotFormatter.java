@@ -51,8 +51,12 @@ public class ScreenshotFormatter {
     }
 
     private File resizedImage(File screenshotFile, int maxHeight) throws IOException {
+        ResizableImage originalImage = ResizableImage.loadFrom(screenshotFile);
+        if (originalImage.getHeight() >= maxHeight) {
+            return screenshotFile;
+        }
         String resizedScreenshotFilename = "scaled_" + screenshotFile.getName();
-        ResizableImage scaledImage = ResizableImage.loadFrom(screenshotFile).rescaleCanvas(maxHeight);
+        ResizableImage scaledImage = originalImage.rescaleCanvas(maxHeight);
 
         File scaledFile = new File(sourceDirectory, resizedScreenshotFilename);
         scaledImage.saveTo(scaledFile);
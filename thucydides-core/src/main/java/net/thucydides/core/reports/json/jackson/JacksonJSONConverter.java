@@ -1,5 +1,7 @@
 package net.thucydides.core.reports.json.jackson;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
@@ -8,6 +10,7 @@ import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.reports.json.JSONConverter;
 import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.VersionProvider;
 
 import javax.validation.*;
 import java.io.IOException;
@@ -16,30 +19,58 @@ import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Set;
 
+/**
+ * Reads and writes test outcomes as JSON.
+ * <p>
+ * Each outcome is written with the version of Thucydides that wrote it as its first field.
+ * Outcomes read back by the same released version are trusted: rather than running the full Bean Validation
+ * over the whole outcome, only the fields an outcome cannot do without are checked.
+ * Outcomes from any other version, or with no version at all, are always fully validated.
+ * </p>
+ */
 public class JacksonJSONConverter implements JSONConverter {
 
+    static final String VERSION_FIELD = "thucydidesVersion";
+
     private final ObjectMapper mapper;
     private final ObjectReader reader;
     private final ObjectWriter writer;
     private final EnvironmentVariables environmentVariables;
     private final Validator validator;
+    private final String version;
 
     @Inject
     public JacksonJSONConverter(EnvironmentVariables environmentVariables) {
+        this(environmentVariables, new VersionProvider(environmentVariables).getVersion());
+    }
+
+    /**
+     * For testing purposes.
+     */
+    protected JacksonJSONConverter(EnvironmentVariables environmentVariables, String version) {
         this.environmentVariables = environmentVariables;
-        mapper = new ObjectMapper();
-        mapper.registerModule(new JodaModule());
-        mapper.registerModule(new GuavaModule());
-        mapper.registerModule(new TestOutcomeModule());
-        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper = createMapper();
 
         reader = mapper.reader(TestOutcome.class);
-        writer = mapper.writerWithType(TestOutcome.class);
+        writer = mapper.writerWithType(VersionedTestOutcome.class);
 
         ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
         validator = factory.getValidator();
 
+        this.version = version;
+    }
+
+    /**
+     * An object mapper that knows how to map test outcomes, for converters that share the JSON mapping.
+     */
+    public static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JodaModule());
+        mapper.registerModule(new GuavaModule());
+        mapper.registerModule(new TestOutcomeModule());
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
     }
 
     /**
@@ -51,9 +82,59 @@ public class JacksonJSONConverter implements JSONConverter {
 
     @Override
     public TestOutcome fromJson(InputStream inputStream) throws IOException {
-        TestOutcome outcome = reader.readValue(inputStream);
-        checkConstraints(outcome);
-        return outcome;
+        try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
+            boolean trusted = trustsOutcomesWrittenBy(readVersionFrom(parser));
+            TestOutcome outcome = reader.readValue(parser);
+            if (trusted) {
+                checkStructure(outcome);
+            } else {
+                checkConstraints(outcome);
+            }
+            return outcome;
+        }
+    }
+
+    /**
+     * Read the version field if the outcome starts with one, leaving the parser on the field that follows it.
+     * Otherwise the parser is left on the first field of the outcome.
+     */
+    private String readVersionFrom(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        if (parser.nextToken() != JsonToken.FIELD_NAME || !VERSION_FIELD.equals(parser.getCurrentName())) {
+            return null;
+        }
+        parser.nextToken();
+        String writtenBy = parser.getText();
+        parser.nextToken();
+        return writtenBy;
+    }
+
+    /**
+     * Only a released version can be sure that an outcome with the same version number was written
+     * with the same model: unknown versions (when the version properties are missing) and snapshots
+     * are always fully validated.
+     */
+    protected boolean trustsOutcomesWrittenBy(String writtenBy) {
+        return !alwaysValidate() && isReleased(version) && version.equals(writtenBy);
+    }
+
+    private boolean isReleased(String version) {
+        return (version != null) && !version.equals(VersionProvider.UNKNOWN_VERSION) && !version.endsWith("-SNAPSHOT");
+    }
+
+    private boolean alwaysValidate() {
+        return environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.JSON_ALWAYS_VALIDATE, false);
+    }
+
+    /**
+     * The constraints that matter, checked directly rather than by walking the whole outcome.
+     */
+    private void checkStructure(TestOutcome outcome) {
+        if (outcome == null || outcome.getMethodName() == null) {
+            throw new ValidationException("Test outcome has no name");
+        }
     }
 
     private void checkConstraints(TestOutcome outcome) {
@@ -66,9 +147,9 @@ public class JacksonJSONConverter implements JSONConverter {
     @Override
     public void toJson(TestOutcome testOutcome, OutputStream outputStream) throws IOException {
         if (usePrettyPrinting()) {
-            writer.withDefaultPrettyPrinter().writeValue(outputStream, testOutcome);
+            writer.withDefaultPrettyPrinter().writeValue(outputStream, new VersionedTestOutcome(version, testOutcome));
         } else {
-            writer.writeValue(outputStream, testOutcome);
+            writer.writeValue(outputStream, new VersionedTestOutcome(version, testOutcome));
         }
     }
 
@@ -0,0 +1,58 @@
+package net.thucydides.core.reports.json.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Field writers for the hand-written serializers, leaving out empty values as the mixins' {@code NON_EMPTY} does.
+ */
+final class JsonFields {
+
+    private JsonFields() {}
+
+    static void writeString(String name, String value, JsonGenerator generator) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    static void writeStrings(String name, Collection<String> values, JsonGenerator generator) throws IOException {
+        if (values != null && !values.isEmpty()) {
+            generator.writeArrayFieldStart(name);
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    static void writeEnum(String name, Enum<?> value, JsonGenerator generator) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.name());
+        }
+    }
+
+    /**
+     * Values with no hand-written serializer of their own go to the serializer the mapper has for them.
+     */
+    static void writeValue(String name, Object value, JsonGenerator generator,
+                           SerializerProvider provider) throws IOException {
+        if (value != null) {
+            provider.defaultSerializeField(name, value, generator);
+        }
+    }
+
+    static void writeValues(String name, Collection<?> values, JsonGenerator generator,
+                            SerializerProvider provider) throws IOException {
+        if (values != null && !values.isEmpty()) {
+            generator.writeArrayFieldStart(name);
+            for (Object value : values) {
+                provider.defaultSerializeValue(value, generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package net.thucydides.core.reports.json.jackson;
 
 import com.fasterxml.jackson.core.Version;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.module.SimpleSerializers;
 import net.thucydides.core.model.*;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
@@ -31,6 +32,11 @@ public class TestOutcomeModule extends SimpleModule {
         context.setMixInAnnotations(Throwable.class, JSONThrowableMixin.class);
         context.setMixInAnnotations(FailureCause.class, JSONFailureCauseMixin.class);
 
+        SimpleSerializers serializers = new SimpleSerializers();
+        serializers.addSerializer(TestOutcome.class, new TestOutcomeSerializer());
+        serializers.addSerializer(TestStep.class, new TestStepSerializer());
+        context.addSerializers(serializers);
+
 
     }
 }
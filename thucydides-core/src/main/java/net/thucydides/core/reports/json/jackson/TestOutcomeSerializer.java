@@ -0,0 +1,109 @@
+package net.thucydides.core.reports.json.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import com.google.common.base.Optional;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestStep;
+
+import java.io.IOException;
+import java.util.List;
+
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeEnum;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeString;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeStrings;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeValue;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeValues;
+
+/**
+ * Writes a test outcome field by field, producing the same JSON as the {@link JSONTestOutcomeMixin} mapping
+ * without going through bean introspection. Each of the derived values (title, issues, versions, tags,
+ * video link and overall result) is computed exactly once per outcome.
+ * Stories, tags, failure causes, data tables and dates are written by the mapper's own serializers.
+ */
+public class TestOutcomeSerializer extends StdSerializer<TestOutcome> {
+
+    private final TestStepSerializer stepSerializer;
+    private final boolean unwrapped;
+
+    public TestOutcomeSerializer() {
+        this(new TestStepSerializer(), false);
+    }
+
+    private TestOutcomeSerializer(TestStepSerializer stepSerializer, boolean unwrapped) {
+        super(TestOutcome.class);
+        this.stepSerializer = stepSerializer;
+        this.unwrapped = unwrapped;
+    }
+
+    /**
+     * Used when the outcome's fields are written into an enclosing object, as they are after the version field.
+     * Field names are never prefixed.
+     */
+    @Override
+    public JsonSerializer<TestOutcome> unwrappingSerializer(NameTransformer unwrapper) {
+        return new TestOutcomeSerializer(stepSerializer, true);
+    }
+
+    @Override
+    public boolean isUnwrappingSerializer() {
+        return unwrapped;
+    }
+
+    @Override
+    public void serialize(TestOutcome outcome, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!unwrapped) {
+            generator.writeStartObject();
+        }
+        writeString("name", outcome.getMethodName(), generator);
+        writeString("testCaseName", outcome.getTestCaseName(), generator);
+        writeTestSteps(outcome.getTestSteps(), generator, provider);
+        writeValue("userStory", outcome.getUserStory(), generator, provider);
+        writeString("title", outcome.getTitle(), generator);
+        writeString("description", outcome.getDescription(), generator);
+        writeString("backgroundDescription", outcome.getBackgroundDescription(), generator);
+        writeStrings("issues", outcome.getIssues(), generator);
+        writeStrings("additionalIssues", outcome.getAdditionalIssues(), generator);
+        writeStrings("versions", outcome.getVersions(), generator);
+        writeStrings("additionalVersions", outcome.getAdditionalVersions(), generator);
+        writeValues("tags", outcome.getTags(), generator, provider);
+        writeValue("startTime", outcome.getStartTime(), generator, provider);
+        generator.writeNumberField("duration", outcome.getDuration());
+        writeValue("testRunTimestamp", outcome.getTestRunTimestamp(), generator, provider);
+        writeString("project", outcome.getProject(), generator);
+        writeValue("testFailureCause", outcome.getTestFailureCause(), generator, provider);
+        writeString("testFailureClassname", outcome.getTestFailureClassname(), generator);
+        writeString("testFailureMessage", outcome.getTestFailureMessage(), generator);
+        writeEnum("annotatedResult", outcome.getAnnotatedResult(), generator);
+        writeString("sessionId", outcome.getSessionId(), generator);
+        writeQualifier(outcome.getQualifier(), generator);
+        writeValue("dataTable", outcome.getDataTable(), generator, provider);
+        generator.writeBooleanField("manual", outcome.isManual());
+        writeValue("feature", outcome.getFeature(), generator, provider);
+        writeString("videoLink", outcome.getVideoLink(), generator);
+        writeEnum("result", outcome.getResult(), generator);
+        if (!unwrapped) {
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeTestSteps(List<TestStep> testSteps, JsonGenerator generator,
+                                SerializerProvider provider) throws IOException {
+        if (!testSteps.isEmpty()) {
+            generator.writeArrayFieldStart("testSteps");
+            for (TestStep step : testSteps) {
+                stepSerializer.serialize(step, generator, provider);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeQualifier(Optional<String> qualifier, JsonGenerator generator) throws IOException {
+        if (qualifier != null && qualifier.isPresent()) {
+            writeString("qualifier", qualifier.get(), generator);
+        }
+    }
+}
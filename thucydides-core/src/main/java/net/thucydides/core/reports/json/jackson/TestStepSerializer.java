@@ -0,0 +1,50 @@
+package net.thucydides.core.reports.json.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import net.thucydides.core.model.TestStep;
+
+import java.io.IOException;
+import java.util.List;
+
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeEnum;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeString;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeValue;
+import static net.thucydides.core.reports.json.jackson.JsonFields.writeValues;
+
+/**
+ * Writes a test step and its children directly, in the form {@link JSONTestStepMixin} describes.
+ */
+public class TestStepSerializer extends StdSerializer<TestStep> {
+
+    public TestStepSerializer() {
+        super(TestStep.class);
+    }
+
+    @Override
+    public void serialize(TestStep step, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("number", step.getNumber());
+        writeString("description", step.getDescription(), generator);
+        generator.writeNumberField("duration", step.getDuration());
+        generator.writeNumberField("startTime", step.getStartTime());
+        writeValues("screenshots", step.getScreenshots(), generator, provider);
+        writeValue("exception", step.getException(), generator, provider);
+        writeEnum("result", step.getResult(), generator);
+        writeChildren(step.getChildren(), generator, provider);
+        writeValue("firstScreenshot", step.getFirstScreenshot(), generator, provider);
+        generator.writeEndObject();
+    }
+
+    private void writeChildren(List<TestStep> children, JsonGenerator generator,
+                               SerializerProvider provider) throws IOException {
+        if (!children.isEmpty()) {
+            generator.writeArrayFieldStart("children");
+            for (TestStep child : children) {
+                serialize(child, generator, provider);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
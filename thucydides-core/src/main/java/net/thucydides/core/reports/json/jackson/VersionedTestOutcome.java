@@ -0,0 +1,26 @@
+package net.thucydides.core.reports.json.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import net.thucydides.core.model.TestOutcome;
+
+/**
+ * A test outcome as it is written to a JSON report: the usual fields, preceded by the version of Thucydides
+ * that wrote them.
+ */
+@JsonPropertyOrder({JacksonJSONConverter.VERSION_FIELD})
+class VersionedTestOutcome {
+
+    @JsonProperty(JacksonJSONConverter.VERSION_FIELD)
+    final String version;
+
+    @JsonProperty
+    @JsonUnwrapped
+    final TestOutcome testOutcome;
+
+    VersionedTestOutcome(String version, TestOutcome testOutcome) {
+        this.version = version;
+        this.testOutcome = testOutcome;
+    }
+}
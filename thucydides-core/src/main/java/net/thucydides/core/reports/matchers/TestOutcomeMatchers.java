@@ -7,10 +7,6 @@ import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
-import static ch.lambdaj.Lambda.*;
-import static org.hamcrest.Matchers.equalToIgnoringCase;
-import static org.hamcrest.Matchers.is;
-
 public final class TestOutcomeMatchers {
 
     public static Matcher<TestOutcome> havingTagType(final String tagType) {
@@ -20,7 +16,12 @@ public final class TestOutcomeMatchers {
             @Override
             public boolean matches(Object matchee) {
                 TestOutcome testOutcome =  (TestOutcome) matchee;
-                return exists(testOutcome.getTags(), having(on(TestTag.class).getType(), is(tagType)));
+                for (TestTag tag : testOutcome.getTags()) {
+                    if (tag.getType().equals(tagType)) {
+                        return true;
+                    }
+                }
+                return false;
             }
 
             @Override
@@ -37,7 +38,12 @@ public final class TestOutcomeMatchers {
             @Override
             public boolean matches(Object matchee) {
                 TestOutcome testOutcome =  (TestOutcome) matchee;
-                return exists(testOutcome.getTags(), having(on(TestTag.class).getName(), equalToIgnoringCase(tagName)));
+                for (TestTag tag : testOutcome.getTags()) {
+                    if (tag.getName().equalsIgnoreCase(tagName)) {
+                        return true;
+                    }
+                }
+                return false;
             }
 
             @Override
@@ -54,7 +60,7 @@ public final class TestOutcomeMatchers {
             @Override
             public boolean matches(Object matchee) {
                 TestOutcome testOutcome =  (TestOutcome) matchee;
-                return exists(testOutcome.getTags(), having(on(TestTag.class), is(expectedTag)));
+                return testOutcome.getTags().contains(expectedTag);
             }
 
             @Override
@@ -65,7 +71,19 @@ public final class TestOutcomeMatchers {
     }
     
     public static Matcher<TestOutcome> withResult(final TestResult expectedResult) {
-        return having(on(TestOutcome.class).getResult(), is(expectedResult));
+
+        return new BaseMatcher<TestOutcome>() {
+
+            @Override
+            public boolean matches(Object matchee) {
+                return (matchee instanceof TestOutcome) && ((TestOutcome) matchee).getResult() == expectedResult;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a test outcome with a result of ").appendValue(expectedResult);
+            }
+        };
     }
 
 }
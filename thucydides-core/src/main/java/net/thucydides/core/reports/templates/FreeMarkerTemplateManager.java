@@ -3,14 +3,20 @@ package net.thucydides.core.reports.templates;
 import freemarker.template.Configuration;
 import freemarker.template.DefaultObjectWrapper;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Manages velocity templates.
- *
+ * Templates are parsed the first time they are used and then shared: report templates are loaded from the
+ * classpath, so they do not change while the reports are being generated.
  */
 public class FreeMarkerTemplateManager implements TemplateManager {
 
     Configuration cfg;
 
+    private final ConcurrentMap<String, ReportTemplate> templates = new ConcurrentHashMap<>();
+
     public FreeMarkerTemplateManager() throws Exception {
         cfg = new Configuration();
         cfg.setNumberFormat("0.######");
@@ -19,7 +25,15 @@ public class FreeMarkerTemplateManager implements TemplateManager {
     }
 
     public ReportTemplate getTemplateFrom(final String template) throws Exception {
-        return new FreemarkerReportTemplate(cfg, template);
+        ReportTemplate reportTemplate = templates.get(template);
+        if (reportTemplate == null) {
+            ReportTemplate loadedTemplate = new FreemarkerReportTemplate(cfg, template);
+            reportTemplate = templates.putIfAbsent(template, loadedTemplate);
+            if (reportTemplate == null) {
+                reportTemplate = loadedTemplate;
+            }
+        }
+        return reportTemplate;
     }
 
 }
@@ -9,9 +9,13 @@ import freemarker.template.TemplateExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
 
 public class FreemarkerReportTemplate implements ReportTemplate {
@@ -20,23 +24,30 @@ public class FreemarkerReportTemplate implements ReportTemplate {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FreemarkerReportTemplate.class);
 
+    /**
+     * A data error in one part of a page (a missing value, for example) is logged, and the rest of the page
+     * is still rendered.
+     * The handler is shared by every merge of a template, so it keeps no state of its own.
+     */
+    private static final TemplateExceptionHandler LOG_AND_CONTINUE = new TemplateExceptionHandler() {
+        @Override
+        public void handleTemplateException(TemplateException te, Environment env, Writer out) {
+            LOGGER.error("Error in report template: {}\n{}", te.getMessage(), te.getFTLInstructionStack());
+        }
+    };
+
     public FreemarkerReportTemplate(final Configuration configuration, final String templateFile) throws IOException, TemplateMergeException {
         try {
             template = configuration.getTemplate(templateFile);
+            template.setTemplateExceptionHandler(LOG_AND_CONTINUE);
         } catch (ParseException parseException) {
             throw new TemplateMergeException("Parsing error in template", parseException);
         }
     }
 
-    public void merge(Map<String, Object> context, StringWriter writer) throws TemplateMergeException {
+    public void merge(Map<String, Object> context, Writer writer) throws TemplateMergeException {
         try {
             template.process(context, writer);
-            template.setTemplateExceptionHandler(new TemplateExceptionHandler() {
-                @Override
-                public void handleTemplateException(TemplateException te, Environment env, Writer out) throws TemplateException {
-                    te.printStackTrace();
-                }
-            });
         } catch (TemplateException templateException) {
             LOGGER.error("Syntax error in report template: {}\n{}", templateException.getMessage(), templateException.getFTLInstructionStack());
             throw new TemplateMergeException("Failed to process FreeMarker template", templateException);
@@ -46,4 +57,17 @@ public class FreemarkerReportTemplate implements ReportTemplate {
             throw new TemplateMergeException("Number format exception during template merge", e);
         }
     }
+
+    public void merge(Map<String, Object> context, File outputFile) throws TemplateMergeException, IOException {
+        Path report = outputFile.toPath().toAbsolutePath();
+        Files.createDirectories(report.getParent());
+        Path partialReport = report.resolveSibling(report.getFileName() + ".partial");
+        try (Writer writer = Files.newBufferedWriter(partialReport, StandardCharsets.UTF_8)) {
+            merge(context, writer);
+        } catch (TemplateMergeException | IOException | RuntimeException e) {
+            Files.deleteIfExists(partialReport);
+            throw e;
+        }
+        Files.move(partialReport, report, StandardCopyOption.REPLACE_EXISTING);
+    }
 }
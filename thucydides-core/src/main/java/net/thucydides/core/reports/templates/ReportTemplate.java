@@ -1,8 +1,16 @@
 package net.thucydides.core.reports.templates;
 
-import java.io.StringWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
 
 public interface ReportTemplate {
-    void merge(Map<String,Object> context, StringWriter sw) throws TemplateMergeException;
+    void merge(Map<String,Object> context, Writer writer) throws TemplateMergeException;
+
+    /**
+     * Merge the template straight into a UTF-8 file, without holding the whole page in memory.
+     * The file is only replaced once the template has been merged successfully.
+     */
+    void merge(Map<String,Object> context, File outputFile) throws TemplateMergeException, IOException;
 }
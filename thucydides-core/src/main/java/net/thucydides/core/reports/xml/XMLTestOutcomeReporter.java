@@ -4,6 +4,7 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.StaxDriver;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
 import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.reports.AcceptanceTestLoader;
@@ -13,6 +14,7 @@ import net.thucydides.core.reports.TestOutcomes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.stream.XMLInputFactory;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.List;
@@ -26,12 +28,38 @@ import static net.thucydides.core.model.ReportType.XML;
  */
 public class XMLTestOutcomeReporter implements AcceptanceTestReporter, AcceptanceTestLoader {
 
+    /**
+     * Building an XStream instance is expensive, but once configured it can safely be shared between threads.
+     */
+    private static final XStream XSTREAM = configuredXStream();
+
+    /**
+     * Reports are read with a StAX pull parser, one node at a time.
+     * DTDs and external entities are never processed, so a report cannot pull in the contents of other files.
+     */
+    private static final StaxDriver STREAMING_READER = new StaxDriver() {
+        @Override
+        protected XMLInputFactory createInputFactory() {
+            XMLInputFactory inputFactory = super.createInputFactory();
+            inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            return inputFactory;
+        }
+    };
+
     private File outputDirectory;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(XMLTestOutcomeReporter.class);
 
     private transient String qualifier;
 
+    private static XStream configuredXStream() {
+        XStream xstream = new XStream();
+        xstream.alias("acceptance-test-run", TestOutcome.class);
+        xstream.registerConverter(new TestOutcomeConverter());
+        return xstream;
+    }
+
     public void setQualifier(final String qualifier) {
         this.qualifier = qualifier;
     }
@@ -57,62 +85,35 @@ public class XMLTestOutcomeReporter implements AcceptanceTestReporter, Acceptanc
     public File generateReportFor(final TestOutcome testOutcome, final TestOutcomes allTestOutcomes) throws IOException {
         TestOutcome storedTestOutcome = testOutcome.withQualifier(qualifier);
         Preconditions.checkNotNull(outputDirectory);
-        XStream xstream = new XStream();
-        xstream.alias("acceptance-test-run", TestOutcome.class);
-        xstream.registerConverter(usingXmlConverter());
 
         String reportFilename = reportFor(storedTestOutcome);
-
-        OutputStream outputStream = null;
-        OutputStreamWriter writer = null;
         File report = new File(getOutputDirectory(), reportFilename);
 
         LOGGER.info("Generating XML report for {} to file {}", testOutcome.getTitle(), report.getAbsolutePath());
 
-        try {
-            outputStream = new FileOutputStream(report);
-            writer = new OutputStreamWriter(outputStream, Charset.forName("UTF-8"));
-            xstream.toXML(storedTestOutcome, writer);
-            LOGGER.info("XML report generated ({} bytes) {}",report.getAbsolutePath(),report.length());
-        } catch(IOException failedToWriteReport) {
-            throw failedToWriteReport;
-        } finally {
-            writer.flush();
-            writer.close();
-            outputStream.close();
+        try(Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(report), Charset.forName("UTF-8")))) {
+            XSTREAM.toXML(storedTestOutcome, writer);
         }
+        LOGGER.info("XML report generated ({} bytes) {}",report.getAbsolutePath(),report.length());
         return report;
     }
 
-    private TestOutcomeConverter usingXmlConverter() {
-        return new TestOutcomeConverter();
-    }
-
     private String reportFor(final TestOutcome testOutcome) {
         return testOutcome.withQualifier(qualifier).getReportName(XML);
     }
 
     public Optional<TestOutcome> loadReportFrom(final File reportFile) {
-        InputStream input = null;
-        InputStreamReader reader = null;
-        try {
-            XStream xstream = new XStream();
-            xstream.alias("acceptance-test-run", TestOutcome.class);
-            xstream.registerConverter(usingXmlConverter());
-            input = new FileInputStream(reportFile);
-            reader = new InputStreamReader(input, Charset.forName("UTF-8"));
-            return Optional.of((TestOutcome) xstream.fromXML(reader));
+        try(Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(reportFile), Charset.forName("UTF-8")))) {
+            return Optional.of((TestOutcome) XSTREAM.unmarshal(STREAMING_READER.createReader(reader)));
         } catch (CannotResolveClassException e) {
             LOGGER.warn("Tried to load a file that is not a thucydides report: " + reportFile);
             return Optional.absent();
         } catch (FileNotFoundException e) {
             LOGGER.warn("Tried to load a file that is not a thucydides report: " + reportFile);
             return Optional.absent();
-        } finally {
-            try {
-                reader.close();
-                input.close();
-            } catch (IOException ignored) {}
+        } catch (IOException e) {
+            LOGGER.warn("Could not read the XML report " + reportFile, e);
+            return Optional.absent();
         }
     }
 
@@ -47,7 +47,7 @@ public class RequirementsServiceImplementation implements RequirementsService {
     }
 
     @Override
-    public List<Requirement> getRequirements() {
+    public synchronized List<Requirement> getRequirements() {
         if (requirements == null) {
             requirements = newArrayList();
             for (RequirementsTagProvider tagProvider : getRequirementsTagProviders()) {
@@ -91,7 +91,7 @@ public class RequirementsServiceImplementation implements RequirementsService {
 
     ReleaseManager releaseManager;
 
-    private ReleaseManager getReleaseManager() {
+    private synchronized ReleaseManager getReleaseManager() {
         if (releaseManager == null) {
             ReportNameProvider defaultNameProvider = new ReportNameProvider();
             releaseManager = new ReleaseManager(environmentVariables, defaultNameProvider);
@@ -100,7 +100,7 @@ public class RequirementsServiceImplementation implements RequirementsService {
     }
 
 
-    private Map<Requirement, List<Requirement>> getRequirementAncestors() {
+    private synchronized Map<Requirement, List<Requirement>> getRequirementAncestors() {
         if (requirementAncestors == null) {
             getRequirements();
         }
@@ -200,7 +200,7 @@ public class RequirementsServiceImplementation implements RequirementsService {
     }
 
     @Override
-    public List<Release> getReleasesFromRequirements() {
+    public synchronized List<Release> getReleasesFromRequirements() {
         if (releases == null) {
             if (getReleaseProvider().isPresent() && (getReleaseProvider().get().isActive())) {
                 releases = getReleaseProvider().get().getReleases();
@@ -240,7 +240,7 @@ public class RequirementsServiceImplementation implements RequirementsService {
         return releaseVersions;
     }
 
-    private List<RequirementsTagProvider> getRequirementsTagProviders() {
+    private synchronized List<RequirementsTagProvider> getRequirementsTagProviders() {
         if (requirementsTagProviders == null) {
             RequirementsProviderService requirementsProviderService = Injectors.getInjector().getInstance(RequirementsProviderService.class);
             requirementsTagProviders = reprioritizeProviders(active(requirementsProviderService.getRequirementsProviders()));
@@ -16,8 +16,6 @@ import net.thucydides.core.requirements.model.Requirement;
 import java.util.List;
 import java.util.Set;
 
-import static ch.lambdaj.Lambda.on;
-import static ch.lambdaj.Lambda.sum;
 
 public class RequirementOutcome {
     private final Requirement requirement;
@@ -284,7 +282,7 @@ public class RequirementOutcome {
         }
 
         public int withResult(TestResult expectedResult) {
-            return sum(testOutcomes.getOutcomes(), on(TestOutcome.class).countResults(expectedResult, testType));
+            return testOutcomes.countTestsWithResult(expectedResult, testType);
         }
 
         public int withIndeterminateResult() {
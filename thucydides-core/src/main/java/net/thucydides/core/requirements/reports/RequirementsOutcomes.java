@@ -18,8 +18,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
-import static ch.lambdaj.Lambda.*;
-import static org.hamcrest.Matchers.hasItem;
 
 /**
  * A set of test results for a list of high-level requirements.
@@ -394,6 +392,12 @@ public class RequirementsOutcomes {
     private List<TestOutcome> outcomesForRelease(List<? extends TestOutcome> outcomes,
                                                  String releaseName) {
         releaseManager.enrichOutcomesWithReleaseTags(outcomes);
-        return (List<TestOutcome>) filter(having(on(TestOutcome.class).getVersions(), hasItem(releaseName)), outcomes);
+        List<TestOutcome> outcomesForRelease = Lists.newArrayList();
+        for (TestOutcome outcome : outcomes) {
+            if (outcome.getVersions().contains(releaseName)) {
+                outcomesForRelease.add(outcome);
+            }
+        }
+        return outcomesForRelease;
     }
 }
@@ -0,0 +1,180 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes screenshots using a pool of worker threads reading from a bounded queue.
+ * When the queue is full, the thread queuing a new screenshot waits until there is room for it,
+ * so that a slow disk slows the tests down rather than filling up the heap with pending screenshots.
+ * The number of threads and the size of the queue are defined by the thucydides.screenshot.processor.threads
+ * and thucydides.screenshot.queue.size system properties.
+ */
+public class MultithreadScreenshotProcessor implements ScreenshotProcessor {
+
+    public static final int DEFAULT_QUEUE_SIZE = 100;
+
+    /**
+     * Each pending screenshot is a party in the phaser, which supports at most 65535 parties.
+     */
+    private static final int MAXIMUM_QUEUE_SIZE = 10000;
+
+    private static final long POLL_INTERVAL_IN_MILLISECONDS = 100;
+
+    private final int threadCount;
+    private final BlockingQueue<PendingScreenshot> queue;
+    private final ScreenshotWriter screenshotWriter;
+    private final ScreenshotProcessorMetrics metrics;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Every screenshot registers with the phaser when it is queued, and deregisters once it has been saved.
+     * The phase advances each time there are no screenshots left to process.
+     */
+    private final Phaser pendingScreenshots = new Phaser() {
+        @Override
+        protected boolean onAdvance(int phase, int registeredParties) {
+            return false;
+        }
+    };
+
+    private ExecutorService workers;
+
+    private final Logger logger = LoggerFactory.getLogger(MultithreadScreenshotProcessor.class);
+
+    public MultithreadScreenshotProcessor(EnvironmentVariables environmentVariables) {
+        this(environmentVariables,
+             environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_PROCESSOR_THREADS,
+                                                       Runtime.getRuntime().availableProcessors()),
+             environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_QUEUE_SIZE,
+                                                       DEFAULT_QUEUE_SIZE));
+    }
+
+    public MultithreadScreenshotProcessor(EnvironmentVariables environmentVariables, int threadCount, int queueSize) {
+        this.threadCount = Math.max(threadCount, 1);
+        this.queue = new ArrayBlockingQueue<>(Math.min(Math.max(queueSize, 1), MAXIMUM_QUEUE_SIZE));
+        this.screenshotWriter = new ScreenshotWriter(environmentVariables);
+        this.metrics = new ScreenshotProcessorMetrics();
+        this.threadFactory = new ThreadFactoryBuilder().setDaemon(true)
+                                                       .setNameFormat("thucydides-screenshot-processor-%d")
+                                                       .build();
+    }
+
+    public void queueScreenshot(QueuedScreenshot queuedScreenshot) {
+        startWorkersIfRequired();
+        PendingScreenshot pendingScreenshot = new PendingScreenshot(queuedScreenshot);
+        pendingScreenshots.register();
+        try {
+            queue.put(pendingScreenshot);
+            metrics.recordQueueDepth(queue.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process(pendingScreenshot);
+        }
+    }
+
+    public void waitUntilDone() {
+        int phase = pendingScreenshots.getPhase();
+        if (pendingScreenshots.getRegisteredParties() > 0) {
+            pendingScreenshots.awaitAdvance(phase);
+        }
+    }
+
+    /**
+     * Stop the worker threads once the screenshots currently in the queue have been processed.
+     * New worker threads will be started if another screenshot is queued later on.
+     */
+    public synchronized void terminate() {
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+        logger.debug("Screenshot processing metrics: {}", metrics);
+    }
+
+    public boolean isEmpty() {
+        return pendingScreenshots.getRegisteredParties() == 0;
+    }
+
+    /**
+     * The number of screenshots waiting for a worker thread to process them.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public ScreenshotProcessorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private synchronized void startWorkersIfRequired() {
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(threadCount, threadFactory);
+            for (int i = 0; i < threadCount; i++) {
+                workers.execute(new Worker(workers));
+            }
+        }
+    }
+
+    private void process(PendingScreenshot pendingScreenshot) {
+        try {
+            screenshotWriter.write(pendingScreenshot.getScreenshot());
+        } catch (Throwable e) {
+            logger.warn("Failed to process screenshot: " + e.getMessage());
+        } finally {
+            metrics.recordProcessedScreenshot(System.nanoTime() - pendingScreenshot.getQueuedTime());
+            pendingScreenshots.arriveAndDeregister();
+        }
+    }
+
+    class Worker implements Runnable {
+
+        private final ExecutorService pool;
+
+        Worker(ExecutorService pool) {
+            this.pool = pool;
+        }
+
+        public void run() {
+            while (!pool.isShutdown() || !queue.isEmpty()) {
+                try {
+                    PendingScreenshot pendingScreenshot = queue.poll(POLL_INTERVAL_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+                    if (pendingScreenshot != null) {
+                        process(pendingScreenshot);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class PendingScreenshot {
+        private final QueuedScreenshot screenshot;
+        private final long queuedTime;
+
+        PendingScreenshot(QueuedScreenshot screenshot) {
+            this.screenshot = screenshot;
+            this.queuedTime = System.nanoTime();
+        }
+
+        public QueuedScreenshot getScreenshot() {
+            return screenshot;
+        }
+
+        public long getQueuedTime() {
+            return queuedTime;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.images.PerceptualHash;
+import net.thucydides.core.util.EnvironmentVariables;
+
+import java.io.File;
+
+/**
+ * Remembers the perceptual hash of the last screenshot taken, so that a new screenshot that looks the same
+ * can be linked to the existing file rather than being stored again.
+ * Only used if thucydides.similar.screenshot.distance is set.
+ */
+public class PerceptualHashIndex {
+
+    private final int maximumDistance;
+
+    private PerceptualHash previousHash;
+    private File previousScreenshot;
+
+    public PerceptualHashIndex(int maximumDistance) {
+        this.maximumDistance = maximumDistance;
+    }
+
+    public static Optional<PerceptualHashIndex> fromConfiguration(EnvironmentVariables environmentVariables) {
+        int maximumDistance
+                = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SIMILAR_SCREENSHOT_DISTANCE, -1);
+        if (maximumDistance < 0) {
+            return Optional.absent();
+        }
+        return Optional.of(new PerceptualHashIndex(maximumDistance));
+    }
+
+    public synchronized Optional<File> findScreenshotSimilarTo(PerceptualHash hash) {
+        if ((previousHash != null) && hash.isSimilarTo(previousHash, maximumDistance)) {
+            return Optional.of(previousScreenshot);
+        }
+        return Optional.absent();
+    }
+
+    public synchronized void recordScreenshot(PerceptualHash hash, File screenshot) {
+        previousHash = hash;
+        previousScreenshot = screenshot;
+    }
+
+    public synchronized void clear() {
+        previousHash = null;
+        previousScreenshot = null;
+    }
+}
@@ -2,11 +2,12 @@ package net.thucydides.core.screenshots;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.jhlabs.image.BoxBlurFilter;
 import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.images.PerceptualHash;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.webdriver.ProvidedDriverConfiguration;
 import net.thucydides.core.webdriver.WebDriverFacade;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
@@ -15,13 +16,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.awt.image.WritableRaster;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 
 /**
  * The photographer takes and stores screenshots during the test.
@@ -33,6 +32,8 @@ import java.nio.file.Path;
  */
 public class Photographer {
 
+    private static final String PAGE_SOURCE_SUFFIX = ".html.gz";
+
     private final WebDriver driver;
     private final File targetDirectory;
     private Optional<BlurLevel> blurLevel;
@@ -40,6 +41,7 @@ public class Photographer {
     private final Logger logger = LoggerFactory.getLogger(Photographer.class);
     private ScreenshotProcessor screenshotProcessor;
     private EnvironmentVariables environmentVariables;
+    private Optional<PerceptualHashIndex> perceptualHashIndex = Optional.absent();
 
     protected Logger getLogger() {
         return logger;
@@ -87,24 +89,23 @@ public class Photographer {
 
     /**
      * Take a screenshot of the current browser and store it in the output directory.
+     * The screenshot is kept in memory until the screenshot processor blurs (if required) and saves it.
      */
     public Optional<File> takeScreenshot() {
         if (driver != null && driverCanTakeSnapshots()) {
             try {
-                File screenshotTempFile = null;
-                Object capturedScreenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-                if (isAFile(capturedScreenshot)) {
-                    screenshotTempFile = (File) capturedScreenshot;
-                } else if (isByteArray(capturedScreenshot)) {
-                    screenshotTempFile = saveScreenshotData((byte[]) capturedScreenshot);
-                }
-                if (screenshotTempFile != null && blurLevel.isPresent()) {
-                    screenshotTempFile = blur(screenshotTempFile);
-                }
-                if (screenshotTempFile != null) {
-                    String storedFilename = getDigestScreenshotNameFor(screenshotTempFile);
+                Object capturedScreenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                byte[] screenshotData = screenshotDataFrom(capturedScreenshot);
+                if (screenshotData != null) {
+                    Optional<PerceptualHash> perceptualHash = perceptualHashOf(screenshotData);
+                    Optional<File> similarScreenshot = screenshotSimilarTo(perceptualHash);
+                    if (similarScreenshot.isPresent()) {
+                        return similarScreenshot;
+                    }
+                    String storedFilename = getDigestScreenshotNameFor(screenshotData);
                     File savedScreenshot = targetScreenshot(storedFilename);
-                    screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotTempFile, savedScreenshot));
+                    screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotData, savedScreenshot, blurLevel.orNull()));
+                    recordPerceptualHash(perceptualHash, savedScreenshot);
                     return Optional.of(savedScreenshot);
                 }
             } catch (Throwable e) {
@@ -118,36 +119,65 @@ public class Photographer {
         return driver.getPageSource();
     }
 
-    private String getDigestScreenshotNameFor(File screenshotTempFile) throws IOException {
-        ScreenshotDigest screenshotDigest = new ScreenshotDigest(environmentVariables, blurLevel.orNull());
-        return screenshotDigest.forScreenshot(screenshotTempFile);
+    /**
+     * Capture the source code of the current page and queue it to be compressed and saved by the screenshot processor.
+     * Page sources are named after a digest of their contents, so identical pages share the same file.
+     */
+    public Optional<File> recordPageSource() {
+        if (driver != null) {
+            try {
+                String pageSource = getPageSource();
+                if (pageSource != null) {
+                    byte[] pageSourceData = pageSource.getBytes(StandardCharsets.UTF_8);
+                    File savedPageSource = targetScreenshot(DigestUtils.md5Hex(pageSourceData) + PAGE_SOURCE_SUFFIX);
+                    screenshotProcessor.queueScreenshot(QueuedScreenshot.forPageSource(pageSourceData, savedPageSource));
+                    return Optional.of(savedPageSource);
+                }
+            } catch (Throwable e) {
+                getLogger().warn("Failed to record the page source: " + e.getMessage());
+            }
+        }
+        return Optional.absent();
     }
 
-    protected File blur(File srcFile) throws IOException {
-        BufferedImage srcImage = ImageIO.read(srcFile);
-        BufferedImage destImage = deepCopy(srcImage);
-        BoxBlurFilter boxBlurFilter = new BoxBlurFilter();
-        boxBlurFilter.setRadius(blurLevel.get().getRadius());
-        boxBlurFilter.setIterations(3);
-        destImage = boxBlurFilter.filter(srcImage, destImage);
+    /**
+     * Some drivers return a file even when asked for the raw image data.
+     */
+    private byte[] screenshotDataFrom(Object capturedScreenshot) throws IOException {
+        if (isByteArray(capturedScreenshot)) {
+            return (byte[]) capturedScreenshot;
+        } else if (isAFile(capturedScreenshot)) {
+            return Files.readAllBytes(((File) capturedScreenshot).toPath());
+        }
+        return null;
+    }
 
-        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
-        ImageIO.write(destImage, "png", outStream);
+    private Optional<PerceptualHash> perceptualHashOf(byte[] screenshotData) throws IOException {
+        if (perceptualHashIndex.isPresent()) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshotData));
+            if (image != null) {
+                return Optional.of(PerceptualHash.of(image));
+            }
+        }
+        return Optional.absent();
+    }
 
-        return saveScreenshotData(outStream.toByteArray());
+    private Optional<File> screenshotSimilarTo(Optional<PerceptualHash> perceptualHash) {
+        if (perceptualHash.isPresent()) {
+            return perceptualHashIndex.get().findScreenshotSimilarTo(perceptualHash.get());
+        }
+        return Optional.absent();
     }
 
-    private BufferedImage deepCopy(BufferedImage srcImage) {
-        ColorModel cm = srcImage.getColorModel();
-        boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
-        WritableRaster raster = srcImage.copyData(null);
-        return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
+    private void recordPerceptualHash(Optional<PerceptualHash> perceptualHash, File savedScreenshot) {
+        if (perceptualHash.isPresent()) {
+            perceptualHashIndex.get().recordScreenshot(perceptualHash.get(), savedScreenshot);
+        }
     }
 
-    private File saveScreenshotData(byte[] capturedScreenshot) throws IOException {
-        Path temporaryScreenshotFile = Files.createTempFile("screenshot", "");
-        Files.write(temporaryScreenshotFile, capturedScreenshot);
-        return temporaryScreenshotFile.toFile();
+    private String getDigestScreenshotNameFor(byte[] screenshotData) {
+        ScreenshotDigest screenshotDigest = new ScreenshotDigest(environmentVariables, blurLevel.orNull());
+        return screenshotDigest.forScreenshot(screenshotData);
     }
 
     private boolean isAFile(Object screenshot) {
@@ -182,6 +212,13 @@ public class Photographer {
         return false;
     }
 
+    /**
+     * Screenshots that look the same as the last one recorded in this index will not be stored again.
+     */
+    public void setPerceptualHashIndex(PerceptualHashIndex perceptualHashIndex) {
+        this.perceptualHashIndex = Optional.fromNullable(perceptualHashIndex);
+    }
+
     public void setScreenshotProcessor(ScreenshotProcessor screenshotProcessor) {
         this.screenshotProcessor = screenshotProcessor;
     }
@@ -1,15 +1,55 @@
 package net.thucydides.core.screenshots;
 
+import com.google.common.base.Optional;
+
 import java.io.File;
 
+/**
+ * A screenshot waiting to be saved by a screenshot processor.
+ * The screenshot is either held in memory, as the raw image data returned by the driver,
+ * or in a temporary file. The HTML source code of the page can be queued in the same way,
+ * so that it is compressed and written to disk by the screenshot processor rather than by the test thread.
+ */
 public class QueuedScreenshot {
 
     private final File destinationFilename;
     private final File sourceFilename;
+    private final byte[] screenshotData;
+    private final Optional<BlurLevel> blurLevel;
+    private final boolean pageSource;
 
     public QueuedScreenshot(File sourceFilename, File destinationFilename) {
         this.sourceFilename = sourceFilename;
         this.destinationFilename = destinationFilename;
+        this.screenshotData = null;
+        this.blurLevel = Optional.absent();
+        this.pageSource = false;
+    }
+
+    public QueuedScreenshot(byte[] screenshotData, File destinationFilename) {
+        this(screenshotData, destinationFilename, null);
+    }
+
+    /**
+     * The screenshot will be blurred by the screenshot processor before it is saved.
+     */
+    public QueuedScreenshot(byte[] screenshotData, File destinationFilename, BlurLevel blurLevel) {
+        this(screenshotData, destinationFilename, blurLevel, false);
+    }
+
+    private QueuedScreenshot(byte[] data, File destinationFilename, BlurLevel blurLevel, boolean pageSource) {
+        this.sourceFilename = null;
+        this.destinationFilename = destinationFilename;
+        this.screenshotData = data;
+        this.blurLevel = Optional.fromNullable(blurLevel);
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * The UTF-8 encoded source code of a page, to be saved in gzip format.
+     */
+    public static QueuedScreenshot forPageSource(byte[] pageSource, File destinationFilename) {
+        return new QueuedScreenshot(pageSource, destinationFilename, null, true);
     }
 
     public File getDestinationFile() {
@@ -19,4 +59,20 @@ public class QueuedScreenshot {
     public File getSourceFile() {
         return sourceFilename;
     }
+
+    public boolean isInMemory() {
+        return (screenshotData != null);
+    }
+
+    public byte[] getScreenshotData() {
+        return screenshotData;
+    }
+
+    public boolean isPageSource() {
+        return pageSource;
+    }
+
+    public Optional<BlurLevel> getBlurLevel() {
+        return blurLevel;
+    }
 }
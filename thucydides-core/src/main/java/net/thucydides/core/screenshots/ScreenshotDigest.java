@@ -2,28 +2,42 @@ package net.thucydides.core.screenshots;
 
 import com.google.common.base.Optional;
 import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.images.ImageEncoding;
 import net.thucydides.core.util.EnvironmentVariables;
 import org.apache.commons.codec.digest.DigestUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 public class ScreenshotDigest {
 
     public ScreenshotDigest(EnvironmentVariables environmentVariables, BlurLevel blurLevel) {
         this.environmentVariables = environmentVariables;
         this.blurLevel = Optional.fromNullable(blurLevel);
+        this.encoding = ImageEncoding.fromConfiguration(environmentVariables);
     }
 
     private final Optional<BlurLevel> blurLevel;
     private final EnvironmentVariables environmentVariables;
+    private final ImageEncoding encoding;
 
     public String forScreenshot(File screenshotFile) throws IOException {
-        return DigestUtils.md5Hex(new FileInputStream(screenshotFile))
+        try (InputStream screenshotStream = new FileInputStream(screenshotFile)) {
+            return nameFor(DigestUtils.md5Hex(screenshotStream));
+        }
+    }
+
+    public String forScreenshot(byte[] screenshotData) {
+        return nameFor(DigestUtils.md5Hex(screenshotData));
+    }
+
+    private String nameFor(String digest) {
+        return digest
                + "_" + blurLevel.or(BlurLevel.NONE).toString()
                + optionalWidth()
-               + ".png";
+               + encoding.getFileSuffix();
     }
 
     private String optionalWidth() {
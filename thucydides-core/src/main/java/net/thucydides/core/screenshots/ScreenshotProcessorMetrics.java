@@ -0,0 +1,57 @@
+package net.thucydides.core.screenshots;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of how quickly screenshots are being processed.
+ * Latency is measured from the moment a screenshot is queued to the moment it has been saved.
+ */
+public class ScreenshotProcessorMetrics {
+
+    private final AtomicLong processedScreenshots = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maximumLatency = new AtomicLong();
+    private final AtomicLong peakQueueDepth = new AtomicLong();
+
+    public void recordQueueDepth(int queueDepth) {
+        long peak;
+        do {
+            peak = peakQueueDepth.get();
+        } while (queueDepth > peak && !peakQueueDepth.compareAndSet(peak, queueDepth));
+    }
+
+    public void recordProcessedScreenshot(long latencyInNanoseconds) {
+        processedScreenshots.incrementAndGet();
+        totalLatency.addAndGet(latencyInNanoseconds);
+        long maximum;
+        do {
+            maximum = maximumLatency.get();
+        } while (latencyInNanoseconds > maximum && !maximumLatency.compareAndSet(maximum, latencyInNanoseconds));
+    }
+
+    public long getProcessedScreenshots() {
+        return processedScreenshots.get();
+    }
+
+    public long getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    public long getAverageLatencyInMilliseconds() {
+        long processed = processedScreenshots.get();
+        return (processed == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatency.get() / processed);
+    }
+
+    public long getMaximumLatencyInMilliseconds() {
+        return TimeUnit.NANOSECONDS.toMillis(maximumLatency.get());
+    }
+
+    @Override
+    public String toString() {
+        return "processed screenshots: " + getProcessedScreenshots()
+                + ", peak queue depth: " + getPeakQueueDepth()
+                + ", average latency: " + getAverageLatencyInMilliseconds() + " ms"
+                + ", maximum latency: " + getMaximumLatencyInMilliseconds() + " ms";
+    }
+}
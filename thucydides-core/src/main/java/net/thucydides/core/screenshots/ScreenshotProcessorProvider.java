@@ -0,0 +1,30 @@
+package net.thucydides.core.screenshots;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+
+/**
+ * Uses a single background thread to process screenshots by default,
+ * or a pool of worker threads if thucydides.screenshot.processor.threads is greater than 1.
+ */
+public class ScreenshotProcessorProvider implements Provider<ScreenshotProcessor> {
+
+    private final EnvironmentVariables environmentVariables;
+
+    @Inject
+    public ScreenshotProcessorProvider(EnvironmentVariables environmentVariables) {
+        this.environmentVariables = environmentVariables;
+    }
+
+    @Override
+    public ScreenshotProcessor get() {
+        int threadCount = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_PROCESSOR_THREADS, 1);
+        if (threadCount > 1) {
+            return new MultithreadScreenshotProcessor(environmentVariables);
+        } else {
+            return new SingleThreadScreenshotProcessor(environmentVariables);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.pages.SystemClock;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides whether a screenshot should be taken after a web element action, so that verbose screenshot
+ * settings do not overload remote browsers. Action screenshots can be limited to a maximum number per second,
+ * and can be skipped when the DOM has not changed since the last screenshot.
+ * The sampler only applies to optional action screenshots: screenshots of failures are always taken.
+ */
+public class ScreenshotSampler {
+
+    /**
+     * Installs a mutation observer the first time it is called on a page, and returns the number of DOM mutations
+     * seen since then, or -1 if the observer has only just been installed (for example after a new page has loaded).
+     */
+    private static final String DOM_MUTATION_COUNTER =
+            "var counter = window.__thucydidesDomMutations;"
+            + "if (!counter) {"
+            + "  if (typeof MutationObserver === 'undefined') { return -1; }"
+            + "  counter = window.__thucydidesDomMutations = { count: 0 };"
+            + "  new MutationObserver(function(mutations) { counter.count += mutations.length; })"
+            + "      .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  return -1;"
+            + "}"
+            + "return counter.count;";
+
+    private static final long UNKNOWN_DOM_STATE = -1;
+
+    private final SystemClock clock;
+    private final long minimumIntervalInMilliseconds;
+    private final boolean skipUnchangedPages;
+
+    private long lastScreenshotTime = Long.MIN_VALUE;
+    private long lastDomMutationCount = UNKNOWN_DOM_STATE;
+
+    private final Logger logger = LoggerFactory.getLogger(ScreenshotSampler.class);
+
+    public ScreenshotSampler(EnvironmentVariables environmentVariables, SystemClock clock) {
+        this.clock = clock;
+        int maxScreenshotsPerSecond
+                = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_MAX_SCREENSHOTS_PER_SECOND, 0);
+        this.minimumIntervalInMilliseconds = (maxScreenshotsPerSecond > 0) ? 1000 / maxScreenshotsPerSecond : 0;
+        this.skipUnchangedPages
+                = environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_SKIP_SCREENSHOTS_OF_UNCHANGED_PAGES, false);
+    }
+
+    public synchronized boolean shouldTakeActionScreenshotWith(WebDriver driver) {
+        if (tooSoonAfterPreviousScreenshot()) {
+            return false;
+        }
+        if (skipUnchangedPages) {
+            long domMutationCount = domMutationCountFrom(driver);
+            if (domMutationCount == UNKNOWN_DOM_STATE) {
+                lastDomMutationCount = 0;
+                return true;
+            }
+            boolean domHasChanged = (domMutationCount != lastDomMutationCount);
+            lastDomMutationCount = domMutationCount;
+            return domHasChanged;
+        }
+        return true;
+    }
+
+    /**
+     * Record that a screenshot has been taken, whatever the reason, so that the rate limit also takes into account
+     * the screenshots taken at the start and end of each step.
+     */
+    public synchronized void screenshotTaken() {
+        lastScreenshotTime = clock.getCurrentTime().getMillis();
+    }
+
+    private boolean tooSoonAfterPreviousScreenshot() {
+        if (minimumIntervalInMilliseconds == 0 || lastScreenshotTime == Long.MIN_VALUE) {
+            return false;
+        }
+        return (clock.getCurrentTime().getMillis() - lastScreenshotTime) < minimumIntervalInMilliseconds;
+    }
+
+    private long domMutationCountFrom(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return UNKNOWN_DOM_STATE;
+        }
+        try {
+            Object mutationCount = ((JavascriptExecutor) driver).executeScript(DOM_MUTATION_COUNTER);
+            return (mutationCount instanceof Number) ? ((Number) mutationCount).longValue() : UNKNOWN_DOM_STATE;
+        } catch (RuntimeException e) {
+            logger.debug("Could not count DOM mutations: {}", e.getMessage());
+            return UNKNOWN_DOM_STATE;
+        }
+    }
+}
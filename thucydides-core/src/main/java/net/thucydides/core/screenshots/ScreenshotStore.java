@@ -0,0 +1,145 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.HardLinks;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A content-addressed screenshot store shared between builds.
+ * Screenshot names are derived from a digest of their contents, so a screenshot with a given name only needs
+ * to be stored once: each build output directory gets a hard link to the stored copy rather than a copy of its own.
+ * Stored screenshots are sharded into sub-directories using the first characters of their names.
+ * The store is only used if the thucydides.screenshot.store property is set.
+ * <p>
+ * The number of hard links to a stored screenshot acts as its reference count: a screenshot
+ * that is no longer linked from any output directory can be removed by calling prune().
+ * </p>
+ */
+public class ScreenshotStore {
+
+    /**
+     * Screenshots are never pruned if they have been stored or used more recently than this,
+     * so that a screenshot being stored by a running build is not removed before it is linked.
+     */
+    public static final long DEFAULT_PRUNE_DELAY_IN_HOURS = 24;
+
+    private static final int SHARD_NAME_LENGTH = 2;
+
+    private final Path storeDirectory;
+    private final long pruneDelayInMilliseconds;
+
+    private final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+
+    public ScreenshotStore(File storeDirectory) {
+        this(storeDirectory, TimeUnit.HOURS.toMillis(DEFAULT_PRUNE_DELAY_IN_HOURS));
+    }
+
+    public ScreenshotStore(File storeDirectory, long pruneDelayInMilliseconds) {
+        this.storeDirectory = storeDirectory.toPath();
+        this.pruneDelayInMilliseconds = pruneDelayInMilliseconds;
+    }
+
+    public static Optional<ScreenshotStore> fromConfiguration(EnvironmentVariables environmentVariables) {
+        String storeDirectory = ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_STORE.from(environmentVariables);
+        if (StringUtils.isEmpty(storeDirectory)) {
+            return Optional.absent();
+        }
+        return Optional.of(new ScreenshotStore(new File(storeDirectory)));
+    }
+
+    public boolean contains(String screenshotName) {
+        return Files.exists(storedScreenshot(screenshotName));
+    }
+
+    /**
+     * Store a screenshot if it is not already in the store.
+     * The screenshot is written to a temporary file first, so that other builds never see a partially written file.
+     */
+    public void save(String screenshotName, byte[] screenshotData) throws IOException {
+        Path storedScreenshot = storedScreenshot(screenshotName);
+        if (Files.notExists(storedScreenshot)) {
+            Files.createDirectories(storedScreenshot.getParent());
+            Path temporaryFile = Files.createTempFile(storedScreenshot.getParent(), screenshotName, ".tmp");
+            try {
+                Files.write(temporaryFile, screenshotData);
+                Files.move(temporaryFile, storedScreenshot, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    /**
+     * Make a stored screenshot available at the given destination, using a hard link if possible.
+     */
+    public void linkTo(String screenshotName, Path destination) throws IOException {
+        Path storedScreenshot = storedScreenshot(screenshotName);
+        Files.setLastModifiedTime(storedScreenshot, FileTime.fromMillis(System.currentTimeMillis()));
+        linkOrCopy(storedScreenshot, destination);
+    }
+
+    /**
+     * Create a hard link to the source file, or copy it if the file system does not support hard links
+     * (for example, if the source and destination are on different volumes).
+     */
+    public static void linkOrCopy(Path source, Path destination) throws IOException {
+        HardLinks.linkOrCopy(source, destination);
+    }
+
+    /**
+     * Remove stored screenshots that are no longer linked from anywhere else.
+     *
+     * @return the number of screenshots removed
+     */
+    public int prune() throws IOException {
+        if (Files.notExists(storeDirectory)) {
+            return 0;
+        }
+        final AtomicInteger prunedScreenshots = new AtomicInteger();
+        final long cutoffTime = System.currentTimeMillis() - pruneDelayInMilliseconds;
+        Files.walkFileTree(storeDirectory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (isUnused(file, attributes, cutoffTime)) {
+                    Files.deleteIfExists(file);
+                    prunedScreenshots.incrementAndGet();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        logger.debug("Pruned {} unused screenshots from {}", prunedScreenshots.get(), storeDirectory);
+        return prunedScreenshots.get();
+    }
+
+    private boolean isUnused(Path file, BasicFileAttributes attributes, long cutoffTime) throws IOException {
+        if (attributes.lastModifiedTime().toMillis() > cutoffTime) {
+            return false;
+        }
+        try {
+            return ((Integer) Files.getAttribute(file, "unix:nlink")) <= 1;
+        } catch (UnsupportedOperationException | IllegalArgumentException linkCountNotAvailable) {
+            return false;
+        }
+    }
+
+    protected Path storedScreenshot(String screenshotName) {
+        return storeDirectory.resolve(screenshotName.substring(0, Math.min(SHARD_NAME_LENGTH, screenshotName.length())))
+                             .resolve(screenshotName);
+    }
+}
@@ -0,0 +1,58 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.images.ImageEncoding;
+import net.thucydides.core.images.ImageProcessingPipeline;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Creates the small versions of screenshots displayed next to each step in the test reports.
+ * Thumbnails are normally created by the screenshot processor as each screenshot is saved, so that
+ * the reports only need to link to them; the reports create any thumbnails that are still missing.
+ */
+public class ScreenshotThumbnails {
+
+    public static final int THUMBNAIL_WIDTH = 120;
+
+    private static final String THUMBNAIL_PREFIX = "thumbnail_";
+
+    private final ImageProcessingPipeline thumbnailPipeline;
+
+    private final Logger logger = LoggerFactory.getLogger(ScreenshotThumbnails.class);
+
+    public ScreenshotThumbnails(EnvironmentVariables environmentVariables) {
+        this.thumbnailPipeline = ImageProcessingPipeline.forImages()
+                                                        .resizedToWidth(THUMBNAIL_WIDTH)
+                                                        .encodedAs(ImageEncoding.fromConfiguration(environmentVariables));
+    }
+
+    public static File thumbnailFileFor(File screenshotFile) {
+        return new File(screenshotFile.getParentFile(), THUMBNAIL_PREFIX + screenshotFile.getName());
+    }
+
+    public void createThumbnailFor(File screenshotFile) {
+        File thumbnailFile = thumbnailFileFor(screenshotFile);
+        if (thumbnailFile.exists() || !screenshotFile.exists()) {
+            return;
+        }
+        try {
+            byte[] thumbnail = thumbnailPipeline.process(Files.readAllBytes(screenshotFile.toPath()));
+            Path thumbnailPath = thumbnailFile.toPath();
+            Path temporaryFile = Files.createTempFile(thumbnailPath.getParent(), thumbnailFile.getName(), ".tmp");
+            try {
+                Files.write(temporaryFile, thumbnail);
+                Files.move(temporaryFile, thumbnailPath, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (Throwable e) {
+            logger.warn("Failed to create a thumbnail for " + screenshotFile.getName() + ": " + e.getMessage());
+        }
+    }
+}
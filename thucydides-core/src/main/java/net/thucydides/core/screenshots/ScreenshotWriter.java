@@ -0,0 +1,229 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.images.ImageEncoding;
+import net.thucydides.core.images.ImageProcessingPipeline;
+import net.thucydides.core.images.SimpleImageInfo;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.CopyOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves a queued screenshot to its final destination, blurring, resizing and re-encoding it on the way if required.
+ * A thumbnail is created for each screenshot as it is saved, and queued page sources are compressed
+ * and saved alongside the screenshots.
+ * Used by the screenshot processors, from whatever thread they happen to process screenshots on.
+ */
+public class ScreenshotWriter {
+
+    private final EnvironmentVariables environmentVariables;
+    private final Optional<ScreenshotStore> screenshotStore;
+    private final ImageEncoding encoding;
+    private final ScreenshotThumbnails thumbnails;
+
+    private final Logger logger = LoggerFactory.getLogger(ScreenshotWriter.class);
+
+    public ScreenshotWriter(EnvironmentVariables environmentVariables) {
+        this.environmentVariables = environmentVariables;
+        this.screenshotStore = ScreenshotStore.fromConfiguration(environmentVariables);
+        this.encoding = ImageEncoding.fromConfiguration(environmentVariables);
+        this.thumbnails = new ScreenshotThumbnails(environmentVariables);
+    }
+
+    public void write(QueuedScreenshot queuedScreenshot) {
+        if (queuedScreenshot.isPageSource()) {
+            if (!queuedScreenshot.getDestinationFile().exists()) {
+                savePageSource(queuedScreenshot);
+            }
+            return;
+        }
+        if (!queuedScreenshot.getDestinationFile().exists()) {
+            if (screenshotStore.isPresent()) {
+                linkFromScreenshotStore(queuedScreenshot);
+            } else {
+                saveScreenshot(queuedScreenshot);
+            }
+        }
+        thumbnails.createThumbnailFor(queuedScreenshot.getDestinationFile());
+    }
+
+    /**
+     * Screenshots already in the store do not need to be processed or written again.
+     */
+    private void linkFromScreenshotStore(QueuedScreenshot queuedScreenshot) {
+        String screenshotName = queuedScreenshot.getDestinationFile().getName();
+        try {
+            if (!screenshotStore.get().contains(screenshotName)) {
+                screenshotStore.get().save(screenshotName, processedScreenshotDataFor(queuedScreenshot));
+            }
+            screenshotStore.get().linkTo(screenshotName, queuedScreenshot.getDestinationFile().toPath());
+            deleteSourceFileOf(queuedScreenshot);
+        } catch (Throwable e) {
+            logger.warn("Failed to use the screenshot store: " + e.getMessage());
+            saveScreenshot(queuedScreenshot);
+        }
+    }
+
+    /**
+     * Page sources are named after a digest of their contents, so each distinct page source is only written once.
+     */
+    private void savePageSource(QueuedScreenshot queuedScreenshot) {
+        Path destinationPath = queuedScreenshot.getDestinationFile().toPath();
+        try {
+            Files.createDirectories(destinationPath.getParent());
+            Path temporaryFile = temporaryFileFor(destinationPath);
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+                    out.write(queuedScreenshot.getScreenshotData());
+                }
+                Files.move(temporaryFile, destinationPath, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (Throwable e) {
+            logger.warn("Failed to save the page source: " + e.getMessage());
+        }
+    }
+
+    private void saveScreenshot(QueuedScreenshot queuedScreenshot) {
+        if (!queuedScreenshot.isInMemory() && !requiresProcessing(queuedScreenshot)) {
+            moveScreenshot(queuedScreenshot);
+            return;
+        }
+        try {
+            saveScreenshotData(queuedScreenshot, processedScreenshotDataFor(queuedScreenshot));
+            deleteSourceFileOf(queuedScreenshot);
+        } catch (Throwable e) {
+            if (mustBeBlurred(queuedScreenshot)) {
+                logger.warn("Failed to blur screenshot: the screenshot will not be saved " + e.getMessage());
+                deleteSourceFileOf(queuedScreenshot);
+            } else {
+                logger.warn("Failed to process screenshot: using original image " + e.getMessage());
+                saveOriginalScreenshot(queuedScreenshot);
+            }
+        }
+    }
+
+    /**
+     * A screenshot that was meant to be blurred is never saved as it was taken, as it may show sensitive data.
+     */
+    private boolean mustBeBlurred(QueuedScreenshot queuedScreenshot) {
+        return queuedScreenshot.getBlurLevel().isPresent();
+    }
+
+
+    private void saveOriginalScreenshot(QueuedScreenshot queuedScreenshot) {
+        if (queuedScreenshot.isInMemory()) {
+            try {
+                saveScreenshotData(queuedScreenshot, queuedScreenshot.getScreenshotData());
+            } catch (Throwable e) {
+                logger.warn("Failed to save the screenshot to the destination directory: " + e.getMessage());
+            }
+        } else {
+            moveScreenshot(queuedScreenshot);
+        }
+    }
+
+    private byte[] processedScreenshotDataFor(QueuedScreenshot queuedScreenshot) throws IOException {
+        return pipelineFor(queuedScreenshot).process(screenshotDataOf(queuedScreenshot));
+    }
+
+    private boolean requiresProcessing(QueuedScreenshot queuedScreenshot) {
+        if (mustBeBlurred(queuedScreenshot)) {
+            return true;
+        }
+        try {
+            return pipelineFor(queuedScreenshot).requiresProcessing(new SimpleImageInfo(queuedScreenshot.getSourceFile()));
+        } catch (IOException e) {
+            logger.warn("Failed to read the stored screenshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private ImageProcessingPipeline pipelineFor(QueuedScreenshot queuedScreenshot) {
+        int blurRadius = queuedScreenshot.getBlurLevel().or(BlurLevel.NONE).getRadius();
+        return ImageProcessingPipeline.forImages()
+                                      .blurredWithRadius(blurRadius)
+                                      .resizedToWidth(getResizedWidth())
+                                      .encodedAs(encoding);
+    }
+
+    private byte[] screenshotDataOf(QueuedScreenshot queuedScreenshot) throws IOException {
+        if (queuedScreenshot.isInMemory()) {
+            return queuedScreenshot.getScreenshotData();
+        } else {
+            return Files.readAllBytes(queuedScreenshot.getSourceFile().toPath());
+        }
+    }
+
+    private int getResizedWidth() {
+        return environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_RESIZED_IMAGE_WIDTH, 0);
+    }
+
+    private void moveScreenshot(QueuedScreenshot queuedScreenshot) {
+        try {
+            CopyOption[] options = new CopyOption[]{ StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING };
+
+            Path sourcePath = queuedScreenshot.getSourceFile().toPath();
+            Path destinationPath = queuedScreenshot.getDestinationFile().toPath();
+            Path destinationDir = queuedScreenshot.getDestinationFile().toPath().getParent();
+            if (Files.notExists(destinationDir)) {
+                Files.createDirectories(destinationDir);
+            }
+            if (Files.notExists(destinationPath)) {
+                Path temporaryFile = temporaryFileFor(destinationPath);
+                try {
+                    Files.copy(sourcePath, temporaryFile, options);
+                    Files.move(temporaryFile, destinationPath, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            }
+            try {
+                Files.deleteIfExists(sourcePath);
+            } catch (IOException e) {
+                queuedScreenshot.getSourceFile().deleteOnExit();
+            }
+        } catch (Throwable e) {
+            logger.warn("Failed to copy the screenshot to the destination directory: " + e.getMessage());
+        }
+    }
+
+    private void saveScreenshotData(QueuedScreenshot queuedScreenshot, byte[] screenshotData) throws IOException {
+        Path destinationPath = queuedScreenshot.getDestinationFile().toPath();
+        Files.createDirectories(destinationPath.getParent());
+        if (Files.notExists(destinationPath)) {
+            Path temporaryFile = temporaryFileFor(destinationPath);
+            try {
+                Files.write(temporaryFile, screenshotData);
+                Files.move(temporaryFile, destinationPath, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    /**
+     * Screenshots are written to a temporary file in the destination directory and then moved into place,
+     * so that another thread processing the same screenshot never sees a partially-written file.
+     */
+    private Path temporaryFileFor(Path destinationPath) throws IOException {
+        return Files.createTempFile(destinationPath.getParent(), destinationPath.getFileName().toString(), ".tmp");
+    }
+
+    private void deleteSourceFileOf(QueuedScreenshot queuedScreenshot) {
+        if (!queuedScreenshot.isInMemory()) {
+            FileUtils.deleteQuietly(queuedScreenshot.getSourceFile());
+        }
+    }
+}
@@ -23,8 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.util.*;
 
 import static net.thucydides.core.model.Stories.findStoryFrom;
@@ -62,6 +60,8 @@ public class BaseStepListener implements StepListener, StepPublisher {
     private final SystemClock clock;
 
     private ScreenshotPermission screenshots;
+
+    private ScreenshotSampler screenshotSampler;
     /**
      * The Java class (if any) containing the tests.
      */
@@ -71,6 +71,8 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     private WebDriver driver;
 
+    private Photographer photographer;
+
     private WebdriverManager webdriverManager;
 
     private File outputDirectory;
@@ -83,6 +85,11 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     ScreenshotProcessor screenshotProcessor;
 
+    /**
+     * Used to recognize screenshots that look the same as the previous one, if this feature is activated.
+     */
+    private Optional<PerceptualHashIndex> perceptualHashIndex;
+
     private boolean inFluentStepSequence;
 
     private List<String> storywideIssues;
@@ -181,6 +188,14 @@ public class BaseStepListener implements StepListener, StepPublisher {
         return screenshots;
     }
 
+    protected ScreenshotSampler screenshotSampler() {
+        if (screenshotSampler == null) {
+            screenshotSampler = new ScreenshotSampler(configuration.getEnvironmentVariables(),
+                                                      Injectors.getInjector().getInstance(SystemClock.class));
+        }
+        return screenshotSampler;
+    }
+
     private void createNewDriver() {
         setDriver(getProxyFactory().proxyDriver());
     }
@@ -259,6 +274,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     public void testStarted(final String testMethod) {
         TestOutcome newTestOutcome = TestOutcome.forTestInStory(testMethod, testSuite, testedStory);
         testOutcomes.add(newTestOutcome);
+        clearPerceptualHashIndex();
         updateSessionIdIfKnown();
         setAnnotatedResult(testMethod);
     }
@@ -536,6 +552,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
             try {
                 Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource = grabScreenshot();
                 if (screenshotAndHtmlSource.isPresent()) {
+                    screenshotSampler().screenshotTaken();
                     takeScreenshotIfRequired(screenshotType, screenshotAndHtmlSource.get());
                 }
                 removeDuplicatedInitalScreenshotsIfPresent();
@@ -617,11 +634,12 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     private Optional<ScreenshotAndHtmlSource> grabScreenshot() {
-        Optional<File> screenshot = getPhotographer().takeScreenshot();
+        Photographer photographer = getPhotographer();
+        Optional<File> screenshot = photographer.takeScreenshot();
         if (screenshot.isPresent()) {
             if (shouldStoreSourcecode()) {
-                File sourcecodeFile = sourcecodeForScreenshot(screenshot.get(), getPageSource());
-                return Optional.of(new ScreenshotAndHtmlSource(screenshot.get(), sourcecodeFile));
+                Optional<File> sourcecodeFile = photographer.recordPageSource();
+                return Optional.of(new ScreenshotAndHtmlSource(screenshot.get(), sourcecodeFile.orNull()));
             } else {
                 return Optional.of(new ScreenshotAndHtmlSource(screenshot.get()));
             }
@@ -633,27 +651,44 @@ public class BaseStepListener implements StepListener, StepPublisher {
         return getPhotographer().getPageSource();
     }
 
-    private File sourcecodeForScreenshot(File screenshotFile, String pageSource) {
-        File pageSourceFile = new File(screenshotFile.getAbsolutePath() + ".html");
-
-        try {
-            Files.write(pageSourceFile.toPath(), pageSource.getBytes());
-        } catch (IOException e) {
-            LOGGER.warn("Failed to write screen source code",e);
-        }
-        return pageSourceFile;
-    }
-
     private boolean shouldStoreSourcecode() {
         return configuration.storeHtmlSourceCode();
     }
 
+    /**
+     * The photographer is only replaced when the driver or the required blur level changes.
+     */
     public Photographer getPhotographer() {
-        ScreenshotBlurCheck blurCheck = new ScreenshotBlurCheck();
-        if (blurCheck.blurLevel().isPresent()) {
-            return new Photographer(driver, outputDirectory, blurCheck.blurLevel().get());
+        Optional<BlurLevel> blurLevel = new ScreenshotBlurCheck().blurLevel();
+        if ((photographer == null) || (!photographer.getBlurLevel().equals(blurLevel))) {
+            photographer = newPhotographerFor(blurLevel);
+        }
+        return photographer;
+    }
+
+    private Photographer newPhotographerFor(Optional<BlurLevel> blurLevel) {
+        Photographer newPhotographer;
+        if (blurLevel.isPresent()) {
+            newPhotographer = new Photographer(driver, outputDirectory, blurLevel.get());
         } else {
-            return new Photographer(driver, outputDirectory);
+            newPhotographer = new Photographer(driver, outputDirectory);
+        }
+        if (getPerceptualHashIndex().isPresent()) {
+            newPhotographer.setPerceptualHashIndex(getPerceptualHashIndex().get());
+        }
+        return newPhotographer;
+    }
+
+    private Optional<PerceptualHashIndex> getPerceptualHashIndex() {
+        if (perceptualHashIndex == null) {
+            perceptualHashIndex = PerceptualHashIndex.fromConfiguration(configuration.getEnvironmentVariables());
+        }
+        return perceptualHashIndex;
+    }
+
+    private void clearPerceptualHashIndex() {
+        if ((perceptualHashIndex != null) && perceptualHashIndex.isPresent()) {
+            perceptualHashIndex.get().clear();
         }
     }
 
@@ -684,6 +719,8 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     public void setDriver(final WebDriver driver) {
         this.driver = driver;
+        this.photographer = null;
+        this.screenshotSampler = null;
     }
 
     public WebDriver getDriver() {
@@ -717,11 +754,15 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void notifyScreenChange() {
-        if (screenshots().areAllowed(TakeScreenshots.FOR_EACH_ACTION)) {
+        if (screenshots().areAllowed(TakeScreenshots.FOR_EACH_ACTION) && actionScreenshotIsDue()) {
             take(OPTIONAL_SCREENSHOT);
         }
     }
 
+    private boolean actionScreenshotIsDue() {
+        return currentStepExists() && browserIsOpen() && screenshotSampler().shouldTakeActionScreenshotWith(driver);
+    }
+
     /**
      * Take a screenshot now.
      */
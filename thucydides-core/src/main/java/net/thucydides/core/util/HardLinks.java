@@ -0,0 +1,90 @@
+package net.thucydides.core.util;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Makes files available in another directory using hard links rather than copies wherever the file system allows it.
+ * Files that cannot be linked (for example because they are on another volume) are copied instead.
+ * <p>
+ * A linked file shares its contents with the original, so a linked file must be replaced rather than
+ * rewritten in place: see {@link #prepareToReplace(Path)}.
+ * </p>
+ */
+public final class HardLinks {
+
+    private HardLinks() {}
+
+    /**
+     * Link or copy a file, unless the destination already exists.
+     */
+    public static void linkOrCopy(Path source, Path destination) throws IOException {
+        if (Files.exists(destination)) {
+            return;
+        }
+        Files.createDirectories(destination.getParent());
+        try {
+            Files.createLink(destination, source);
+        } catch (FileAlreadyExistsException alreadyThere) {
+            // Another thread got there first
+        } catch (IOException | UnsupportedOperationException linksNotSupported) {
+            Files.copy(source, destination, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Link or copy a file, replacing any other file already at the destination.
+     */
+    public static void replaceWithLinkOrCopy(Path source, Path destination) throws IOException {
+        if (Files.exists(destination) && Files.isSameFile(source, destination)) {
+            return;
+        }
+        Files.deleteIfExists(destination);
+        linkOrCopy(source, destination);
+    }
+
+    /**
+     * Replace the files in the target directory that match the filter with links to the ones in the source directory.
+     * Sub-directories are not included.
+     */
+    public static void replaceWithLinksOrCopies(Path sourceDirectory,
+                                                Path targetDirectory,
+                                                DirectoryStream.Filter<Path> filter) throws IOException {
+        try (DirectoryStream<Path> sourceFiles = Files.newDirectoryStream(sourceDirectory, filter)) {
+            for (Path sourceFile : sourceFiles) {
+                if (Files.isRegularFile(sourceFile)) {
+                    replaceWithLinkOrCopy(sourceFile, targetDirectory.resolve(sourceFile.getFileName().toString()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Link or copy every file under the source directory to the same relative path under the target directory.
+     * Files that already exist in the target directory are left as they are.
+     */
+    public static void linkOrCopyTree(final Path sourceDirectory, final Path targetDirectory) throws IOException {
+        Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                linkOrCopy(file, targetDirectory.resolve(sourceDirectory.relativize(file).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Remove a file that is about to be rewritten, so that the new contents go to a new file rather than
+     * through a hard link into the file it was linked from.
+     */
+    public static void prepareToReplace(Path file) throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
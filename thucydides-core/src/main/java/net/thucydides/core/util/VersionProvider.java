@@ -11,6 +11,7 @@ import java.util.Properties;
  */
 public class VersionProvider {
 
+    public static final String UNKNOWN_VERSION = "UNKNOWN";
 
     private final EnvironmentVariables environmentVariables;
 
@@ -27,14 +28,14 @@ public class VersionProvider {
         String path = "/version.properties";
         InputStream stream = getClass().getResourceAsStream(path);
         if (stream == null)
-            return "UNKNOWN";
+            return UNKNOWN_VERSION;
         Properties props = new Properties();
         try {
             props.load(stream);
             stream.close();
             return (String) props.get("version");
         } catch (IOException e) {
-            return "UNKNOWN";
+            return UNKNOWN_VERSION;
         }
     }
 
@@ -71,6 +71,19 @@ class WhenManagingReleaseReporting extends Specification {
 
 
 
+    def "should find the tests for each release derived from requirements, even once the outcomes are indexed"() {
+        given:
+            def releaseManager = new ReleaseManager(environmentVariables, reportNameProvider);
+            def testOutcomes = TestOutcomes.of([outcome5])
+            testOutcomes.getTagNames()
+        when:
+            def releases = releaseManager.getFlattenedReleasesFrom(testOutcomes)
+            def releaseTestOutcomes = releases.collectEntries { [it.name, testOutcomes.withTag(it.releaseTag).outcomes] }
+        then:
+            releaseTestOutcomes["Release 1.0"] == [outcome5]
+            releaseTestOutcomes["Iteration 1.1"] == [outcome5]
+    }
+
     def "should be able to obtain a flattened list of the releases"() {
         given:
             def releaseManager = new ReleaseManager(environmentVariables, reportNameProvider);
@@ -1,10 +1,12 @@
 package net.thucydides.core.reports
 
+import com.github.goldin.spock.extensions.tempdir.TempDir
 import net.thucydides.core.model.TestOutcome
 import net.thucydides.core.model.TestResult
 import net.thucydides.core.model.TestTag
 import net.thucydides.core.util.EnvironmentVariables
 import net.thucydides.core.util.MockEnvironmentVariables
+import org.apache.commons.io.FileUtils
 import spock.lang.Specification
 
 import static net.thucydides.core.reports.matchers.TestOutcomeMatchers.*
@@ -29,6 +31,41 @@ class WhenProcessingTestOutcomes extends Specification {
         testOutcomes.size() == 220
     }
 
+    def "should load the same outcomes in the same order whatever the number of loading threads"() {
+        given:
+            def singleThreadedEnvironment = new MockEnvironmentVariables()
+            singleThreadedEnvironment.setProperty("thucydides.report.threads", "1")
+            def multiThreadedEnvironment = new MockEnvironmentVariables()
+            multiThreadedEnvironment.setProperty("thucydides.report.threads", "4")
+            def outcomeDirectory = directoryInClasspathCalled("/test-outcomes/lots-of-tests")
+        when:
+            def loadedInOneThread = new TestOutcomeLoader(singleThreadedEnvironment).forFormat(OutcomeFormat.JSON).loadFrom(outcomeDirectory)
+            def loadedInSeveralThreads = new TestOutcomeLoader(multiThreadedEnvironment).forFormat(OutcomeFormat.JSON).loadFrom(outcomeDirectory)
+        then:
+            loadedInSeveralThreads.collect { it.title } == loadedInOneThread.collect { it.title }
+    }
+
+    @TempDir File temporaryDirectory
+
+    def "should skip outcome files that cannot be read and load the others"() {
+        given:
+            FileUtils.copyDirectory(directoryInClasspathCalled("/tagged-test-outcomes"), temporaryDirectory)
+            new File(temporaryDirectory, "corrupt.xml").text = "<acceptance-test-run title='Broken"
+        when:
+            List<TestOutcome> testOutcomes = loader.forFormat(OutcomeFormat.XML).loadFrom(temporaryDirectory)
+        then:
+            testOutcomes.size() == 3
+    }
+
+    def "should load test outcomes one at a time"() {
+        when:
+            Iterable<TestOutcome> testOutcomes = loader.forFormat(OutcomeFormat.JSON).lazilyLoadFrom(directoryInClasspathCalled("/test-outcomes/lots-of-tests"))
+        then:
+            testOutcomes.iterator().next() != null
+        and:
+            testOutcomes.collect { it }.size() == 220
+    }
+
     EnvironmentVariables environmentVariables = new MockEnvironmentVariables()
 
     def "should load tests in JSON if configured"() {
@@ -233,6 +270,25 @@ class WhenProcessingTestOutcomes extends Specification {
             tests everyItem(havingTagName("a feature"))
     }
 
+    def "filtered test outcomes should only contain the tags and results of the matching tests"() {
+        given:
+            TestOutcomes testOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).from(directoryInClasspathCalled("/tagged-test-outcomes"));
+        when:
+            def featureTests = testOutcomes.withTag("a feature")
+        then:
+            featureTests.tags.every { tag -> featureTests.tests.any { it.tags.contains(tag) } }
+            featureTests.passingTests.tests.every { it.result == TestResult.SUCCESS && featureTests.tests.contains(it) }
+            featureTests.getRootOutcomes() == testOutcomes
+    }
+
+    def "filtering the same test outcomes in a different order should give the same tests"() {
+        given:
+            TestOutcomes testOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).from(directoryInClasspathCalled("/tagged-test-outcomes"));
+        expect:
+            testOutcomes.withTagType("feature").passingTests.tests == testOutcomes.passingTests.withTagType("feature").tests
+            testOutcomes.withTagType("feature").getTotalTests().withResult(TestResult.SUCCESS) == testOutcomes.withTagType("feature").passingTests.total
+    }
+
     def "should provide total test duration for a set of tests"() {
         when:
             def testOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).from(directoryInClasspathCalled("/tagged-test-outcomes"));
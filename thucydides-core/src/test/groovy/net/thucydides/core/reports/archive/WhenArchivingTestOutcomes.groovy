@@ -0,0 +1,141 @@
+package net.thucydides.core.reports.archive
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.annotations.Story
+import net.thucydides.core.model.ReportType
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.model.TestResult
+import net.thucydides.core.reports.OutcomeFormat
+import net.thucydides.core.reports.TestOutcomeLoader
+import net.thucydides.core.reports.TestOutcomes
+import net.thucydides.core.reports.integration.TestStepFactory
+import net.thucydides.core.reports.json.JSONTestOutcomeReporter
+import spock.lang.Specification
+
+class WhenArchivingTestOutcomes extends Specification {
+
+    @TempDir
+    File outputDirectory
+
+    ArchivedTestOutcomeReporter reporter = new ArchivedTestOutcomeReporter()
+
+    TestOutcomes allTestOutcomes = Mock()
+
+    def setup() {
+        reporter.setOutputDirectory(outputDirectory)
+    }
+
+    def cleanup() {
+        OutcomeArchive.closeAll()
+    }
+
+    class AUserStory {
+    }
+
+    @Story(AUserStory.class)
+    class SomeTestScenario {
+        public void should_do_this() {
+        }
+
+        public void should_do_that() {
+        }
+
+        public void should_do_something_else() {
+        }
+    }
+
+    def outcomeFor(String testName, TestResult result) {
+        def testOutcome = TestOutcome.forTest(testName, SomeTestScenario.class)
+        testOutcome.recordStep(result == TestResult.SUCCESS ? TestStepFactory.successfulTestStepCalled("a step")
+                                                            : TestStepFactory.failingTestStepCalled("a step"))
+        return testOutcome
+    }
+
+    def "all the outcomes of a test run should be stored in a single archive"() {
+        when:
+        def archives = ["should_do_this", "should_do_that", "should_do_something_else"].collect {
+            reporter.generateReportFor(outcomeFor(it, TestResult.SUCCESS), allTestOutcomes)
+        } as Set
+        OutcomeArchive.closeAll()
+        then:
+        archives.size() == 1
+        outputDirectory.list() as List == [archives.iterator().next().name]
+        and:
+        ArchivedOutcomes.readFrom(archives.iterator().next()).reportNames.size() == 3
+    }
+
+    def "an outcome should be read back by its report name"() {
+        given:
+        def testOutcome = outcomeFor("should_do_that", TestResult.SUCCESS)
+        def archive = reporter.generateReportFor(outcomeFor("should_do_this", TestResult.SUCCESS), allTestOutcomes)
+        reporter.generateReportFor(testOutcome, allTestOutcomes)
+        OutcomeArchive.closeAll()
+        when:
+        def reloadedOutcome = ArchivedOutcomes.readFrom(archive).load(testOutcome.getReportName(ReportType.ROOT))
+        then:
+        reloadedOutcome.get().title == testOutcome.title
+    }
+
+    def "an outcome stored again should replace the earlier version"() {
+        given:
+        reporter.generateReportFor(outcomeFor("should_do_this", TestResult.FAILURE), allTestOutcomes)
+        reporter.generateReportFor(outcomeFor("should_do_this", TestResult.SUCCESS), allTestOutcomes)
+        OutcomeArchive.closeAll()
+        when:
+        def outcomes = reporter.loadReportsFrom(outputDirectory)
+        then:
+        outcomes.size() == 1
+        outcomes[0].result == TestResult.SUCCESS
+    }
+
+    def "an archive that was never closed should still be readable"() {
+        given:
+        def archive = reporter.generateReportFor(outcomeFor("should_do_this", TestResult.SUCCESS), allTestOutcomes)
+        reporter.generateReportFor(outcomeFor("should_do_that", TestResult.SUCCESS), allTestOutcomes)
+        when:
+        def outcomes = reporter.loadReportsFrom(outputDirectory)
+        then:
+        outcomes.size() == 2
+        and:
+        archive.length() > 0
+    }
+
+    def "a partly written last outcome should be ignored"() {
+        given:
+        def archive = reporter.generateReportFor(outcomeFor("should_do_this", TestResult.SUCCESS), allTestOutcomes)
+        def lengthWithOneOutcome = archive.length()
+        reporter.generateReportFor(outcomeFor("should_do_that", TestResult.SUCCESS), allTestOutcomes)
+        new RandomAccessFile(archive, "rw").withCloseable { it.setLength(lengthWithOneOutcome + 20) }
+        when:
+        def outcomes = reporter.loadReportsFrom(outputDirectory)
+        then:
+        outcomes*.methodName == ["should_do_this"]
+    }
+
+    def "the test outcome loader should load every outcome in the archives of a directory"() {
+        given:
+        ["should_do_this", "should_do_that"].each {
+            reporter.generateReportFor(outcomeFor(it, TestResult.SUCCESS), allTestOutcomes)
+        }
+        OutcomeArchive.closeAll()
+        reporter.generateReportFor(outcomeFor("should_do_something_else", TestResult.FAILURE), allTestOutcomes)
+        OutcomeArchive.closeAll()
+        when:
+        def outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.ARCHIVE).from(outputDirectory)
+        then:
+        outputDirectory.list().size() == 2
+        outcomes.total == 3
+        outcomes.outcomes.count { it.result == TestResult.FAILURE } == 1
+    }
+
+    def "directories of individual outcome files should still be loaded"() {
+        given:
+        def jsonReporter = new JSONTestOutcomeReporter()
+        jsonReporter.setOutputDirectory(outputDirectory)
+        jsonReporter.generateReportFor(outcomeFor("should_do_this", TestResult.SUCCESS), allTestOutcomes)
+        when:
+        def outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.ARCHIVE).from(outputDirectory)
+        then:
+        outcomes.total == 1
+    }
+}
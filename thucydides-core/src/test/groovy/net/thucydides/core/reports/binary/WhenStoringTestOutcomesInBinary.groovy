@@ -0,0 +1,165 @@
+package net.thucydides.core.reports.binary
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.annotations.Issue
+import net.thucydides.core.annotations.Story
+import net.thucydides.core.annotations.WithTag
+import net.thucydides.core.model.DataTable
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.model.TestResult
+import net.thucydides.core.model.TestStep
+import net.thucydides.core.model.TestTag
+import net.thucydides.core.reports.OutcomeFormat
+import net.thucydides.core.reports.TestOutcomeLoader
+import net.thucydides.core.reports.TestOutcomes
+import net.thucydides.core.reports.integration.TestStepFactory
+import net.thucydides.core.reports.json.JSONTestOutcomeReporter
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource
+import org.joda.time.DateTime
+import org.joda.time.LocalDateTime
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class WhenStoringTestOutcomesInBinary extends Specification {
+
+    private static final DateTime FIRST_OF_JANUARY = new LocalDateTime(2013, 1, 1, 0, 0, 0, 0).toDateTime()
+
+    @TempDir
+    File outputDirectory
+
+    BinaryTestOutcomeReporter reporter = new BinaryTestOutcomeReporter()
+
+    TestOutcomes allTestOutcomes = Mock()
+
+    def setup() {
+        reporter.setOutputDirectory(outputDirectory)
+    }
+
+    class AUserStory {
+    }
+
+    @Story(AUserStory.class)
+    @Issue("PROJ-123")
+    @WithTag(name = "important feature", type = "feature")
+    class SomeTestScenario {
+        public void should_do_this() {
+        }
+
+        public void should_do_that() {
+        }
+    }
+
+    def "should reload a test outcome with its steps, tags and issues"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class)
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY))
+        testOutcome.recordStep(TestStepFactory.failingTestStepCalled("step 2").startingAt(FIRST_OF_JANUARY))
+        when:
+        def report = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        TestOutcome reloadedOutcome = reporter.loadReportFrom(report).get()
+        then:
+        report.name.endsWith(".outcome")
+        reloadedOutcome.title == testOutcome.title
+        reloadedOutcome.startTime == FIRST_OF_JANUARY
+        reloadedOutcome.result == TestResult.FAILURE
+        reloadedOutcome.testSteps*.description == ["step 1", "step 2"]
+        reloadedOutcome.issueKeys == ["PROJ-123"]
+        reloadedOutcome.tags.contains(TestTag.withName("important feature").andType("feature"))
+    }
+
+    def "should reload nested steps, screenshots, data tables and errors"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_that", SomeTestScenario.class)
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.useExamplesFrom(DataTable.withHeaders(["a","b"]).build())
+        testOutcome.addRow(["a":"1", "b":"2"])
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("a group").startingAt(FIRST_OF_JANUARY))
+        testOutcome.startGroup()
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("a child step").startingAt(FIRST_OF_JANUARY)
+                                   .addScreenshot(new ScreenshotAndHtmlSource(new File("screenshot.png"), new File("source.html"))))
+        testOutcome.endGroup()
+        testOutcome.recordStep(TestStep.forStepCalled("some step").withResult(TestResult.SUCCESS))
+        testOutcome.lastStepFailedWith(new RuntimeException("an error"))
+        when:
+        TestOutcome reloadedOutcome = reporter.loadReportFrom(reporter.generateReportFor(testOutcome, allTestOutcomes)).get()
+        then:
+        reloadedOutcome.testSteps[0].children[0].description == "a child step"
+        reloadedOutcome.testSteps[0].children[0].screenshots[0].screenshotFile.name == "screenshot.png"
+        reloadedOutcome.dataTable.rows[0].stringValues == ["1","2"]
+        reloadedOutcome.result == TestResult.ERROR
+        reloadedOutcome.errorMessage == "an error"
+    }
+
+    def "repeated strings should only be stored once"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class)
+        testOutcome.startTime = FIRST_OF_JANUARY
+        100.times { testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("a frequently repeated step description")) }
+        when:
+        def binaryReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        def jsonReporter = new JSONTestOutcomeReporter()
+        jsonReporter.setOutputDirectory(outputDirectory)
+        def jsonReport = jsonReporter.generateReportFor(testOutcome, allTestOutcomes)
+        then:
+        binaryReport.length() < jsonReport.length() / 3
+        and:
+        def reloadedSteps = reporter.loadReportFrom(binaryReport).get().testSteps
+        reloadedSteps.size() == 100
+        reloadedSteps[0].description.is(reloadedSteps[99].description)
+    }
+
+    def "should not load files that are not binary outcomes"() {
+        given:
+        def notAnOutcome = new File(outputDirectory, "not-an-outcome.outcome")
+        notAnOutcome.text = "{}"
+        expect:
+        !reporter.loadReportFrom(notAnOutcome).isPresent()
+    }
+
+    @Unroll
+    def "should reject outcomes with a corrupt #corruption"() {
+        given:
+        def corruptOutcome = new ByteArrayOutputStream()
+        corruptOutcome.write(BinaryOutcomeConverter.MAGIC)
+        corruptOutcome.write(BinaryOutcomeConverter.FORMAT_VERSION)
+        corruptOutcome.write(1)     // start of object
+        corruptOutcome.write(5)     // field name
+        corruptOutcome.write(varLong(position))
+        if (position == 0) {
+            corruptOutcome.write(varLong(length))
+        }
+        when:
+        new BinaryOutcomeConverter().read(new ByteArrayInputStream(corruptOutcome.toByteArray()))
+        then:
+        thrown(IOException)
+        where:
+        corruption                  | position     | length
+        "negative string length"    | 0            | -1L
+        "huge string length"        | 0            | 1L << 40
+        "truncated string"          | 0            | Integer.MAX_VALUE - 8
+        "string dictionary entry"   | 1L << 40     | 0
+        "negative dictionary entry" | -1L          | 0
+    }
+
+    private static byte[] varLong(long value) {
+        def bytes = new ByteArrayOutputStream()
+        while ((value & ~0x7FL) != 0) {
+            bytes.write((int) ((value & 0x7F) | 0x80))
+            value >>>= 7
+        }
+        bytes.write((int) value)
+        return bytes.toByteArray()
+    }
+
+    def "should load binary outcomes from a directory"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class)
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1"))
+        reporter.generateReportFor(testOutcome, allTestOutcomes)
+        when:
+        def loadedOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.BINARY).from(outputDirectory)
+        then:
+        loadedOutcomes.total == 1
+    }
+}
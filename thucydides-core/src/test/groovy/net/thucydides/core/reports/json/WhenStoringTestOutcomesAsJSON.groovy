@@ -12,6 +12,7 @@ import net.thucydides.core.reports.integration.TestStepFactory
 import net.thucydides.core.reports.json.jackson.JacksonJSONConverter
 import net.thucydides.core.screenshots.ScreenshotAndHtmlSource
 import net.thucydides.core.util.MockEnvironmentVariables
+import net.thucydides.core.util.VersionProvider
 import org.joda.time.DateTime
 import org.joda.time.LocalDateTime
 import org.junit.ComparisonFailure
@@ -732,6 +733,20 @@ class WhenStoringTestOutcomesAsJSON extends Specification {
         reloadedOutcome.methodName == testOutcome.methodName
     }
 
+    def "should map a test outcome on its own without the version field"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class)
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1"))
+        def mapper = JacksonJSONConverter.createMapper()
+        when:
+        def json = mapper.writeValueAsString(testOutcome)
+        TestOutcome reloadedOutcome = mapper.readValue(json, TestOutcome)
+        then:
+        json.startsWith('{"name":"should_do_this",')
+        reloadedOutcome.methodName == "should_do_this"
+        reloadedOutcome.testSteps.size() == 1
+    }
+
     def "should throw a violation exception if the json file is badly formed"() {
         given:
             def savedOutcome = new File(outputDirectory,"saved.json")
@@ -743,6 +758,66 @@ class WhenStoringTestOutcomesAsJSON extends Specification {
     }
 
 
+    def "should record the version of Thucydides that wrote the JSON report"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class)
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        then:
+        jsonReport.text.startsWith("""{"thucydidesVersion":"${new VersionProvider().version}",""")
+    }
+
+    def "should still check the essential fields of an outcome written by the same version"() {
+        given:
+            def savedOutcome = new File(outputDirectory,"saved.json")
+            savedOutcome << """{"thucydidesVersion":"${new VersionProvider().version}","title":"No name"}"""
+        when:
+            def loadedOutcome = loader.loadReportFrom(savedOutcome)
+        then:
+            !loadedOutcome.isPresent()
+    }
+
+    def "should fully validate outcomes written by another version"() {
+        given:
+            def savedOutcome = new File(outputDirectory,"saved.json")
+            savedOutcome << """{"thucydidesVersion":"0.0.1","title":"No name"}"""
+        when:
+            def loadedOutcome = loader.loadReportFrom(savedOutcome)
+        then:
+            !loadedOutcome.isPresent()
+    }
+
+    @Unroll
+    def "should only trust outcomes written by the same released version (#version reading #writtenBy)"() {
+        given:
+        def converter = new JacksonJSONConverter(new MockEnvironmentVariables(), version)
+        expect:
+        converter.trustsOutcomesWrittenBy(writtenBy) == trusted
+        where:
+        version          | writtenBy        | trusted
+        "1.0.0"          | "1.0.0"          | true
+        "1.0.0"          | "0.9.276"        | false
+        "1.0.0"          | null             | false
+        "UNKNOWN"        | "UNKNOWN"        | false
+        "1.0.0-SNAPSHOT" | "1.0.0-SNAPSHOT" | false
+    }
+
+    def "should load outcomes written by the same version"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class)
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1"))
+        def environmentVariables = new MockEnvironmentVariables()
+        environmentVariables.setProperty("json.always.validate", alwaysValidate)
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        when:
+        reporter.jsonConverter = new JacksonJSONConverter(environmentVariables)
+        TestOutcome loadedOutcome = reporter.loadReportFrom(jsonReport).get()
+        then:
+        loadedOutcome.methodName == "should_do_this" && loadedOutcome.testSteps.size() == 1
+        where:
+        alwaysValidate << ["true", "false"]
+    }
+
     def "should read a test outcome with tags"() {
         given:
         def serializedTestOutcome =
@@ -3,6 +3,7 @@ package net.thucydides.core.reports.json
 import net.thucydides.core.model.TestResult
 import net.thucydides.core.model.TestStep
 import net.thucydides.core.reports.json.jackson.JacksonJSONConverter
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource
 import net.thucydides.core.util.MockEnvironmentVariables
 import org.joda.time.DateTime
 import org.joda.time.LocalDateTime
@@ -157,4 +158,21 @@ line 3
         step.equals(parentStep)
         parentStep.getChildren().size() == 2
     }
-}
\ No newline at end of file
+
+    def "should read and write nested test steps with screenshots"() {
+        given:
+            TestStep group = TestStep.forStepCalled("a group").withResult(TestResult.SUCCESS).startingAt(FIRST_OF_JANUARY)
+            TestStep child = TestStep.forStepCalled("a child").withResult(TestResult.FAILURE).startingAt(FIRST_OF_JANUARY)
+            child.addScreenshot(new ScreenshotAndHtmlSource("step_1.png", "step_1.html"))
+            group.addChildStep(child)
+        when:
+            def renderedJson = converter.mapper.writeValueAsString(group)
+            def step = converter.mapper.readValue(renderedJson, TestStep)
+        then:
+            step.description == "a group"
+            step.result == TestResult.FAILURE
+            step.children[0] == child
+            step.children[0].screenshots[0].screenshotName == "step_1.png"
+            step.children[0].screenshots[0].htmlSourceName == "step_1.html"
+    }
+}
@@ -0,0 +1,64 @@
+package net.thucydides.core.images;
+
+import net.thucydides.core.util.FileSystemUtils;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class WhenComparingSimilarImages {
+
+    private BufferedImage imageFrom(String resource) throws IOException {
+        return ImageIO.read(FileSystemUtils.getResourceAsFile(resource));
+    }
+
+    private BufferedImage copyOf(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = copy.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return copy;
+    }
+
+    @Test
+    public void identical_images_should_have_identical_hashes() throws IOException {
+        BufferedImage image = imageFrom("screenshots/google_page_1.png");
+
+        assertThat(PerceptualHash.of(image).distanceTo(PerceptualHash.of(copyOf(image))), is(0));
+    }
+
+    @Test
+    public void images_with_a_small_difference_should_have_similar_hashes() throws IOException {
+        BufferedImage image = imageFrom("screenshots/google_page_1.png");
+        BufferedImage imageWithACursor = copyOf(image);
+        Graphics2D graphics = imageWithACursor.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(400, 300, 1, 16);
+        graphics.dispose();
+
+        assertThat(PerceptualHash.of(image).distanceTo(PerceptualHash.of(imageWithACursor)), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    public void different_images_should_have_different_hashes() throws IOException {
+        BufferedImage image = imageFrom("screenshots/google_page_1.png");
+        BufferedImage differentImage = copyOf(imageFrom("screenshots/amazon.png"));
+
+        assertThat(PerceptualHash.of(image).distanceTo(PerceptualHash.of(differentImage)), greaterThan(10));
+    }
+
+    @Test
+    public void images_of_different_sizes_should_never_be_similar() throws IOException {
+        BufferedImage image = imageFrom("screenshots/google_page_1.png");
+        BufferedImage smallerImage = image.getSubimage(0, 0, 600, 400);
+
+        assertThat(PerceptualHash.of(image).isSimilarTo(PerceptualHash.of(smallerImage), 256), is(false));
+    }
+}
@@ -0,0 +1,144 @@
+package net.thucydides.core.images;
+
+import net.thucydides.core.util.FileSystemUtils;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenEncodingImages {
+
+    private byte[] imageData;
+    private BufferedImage image;
+
+    @Before
+    public void loadImage() throws IOException {
+        imageData = FileUtils.readFileToByteArray(FileSystemUtils.getResourceAsFile("screenshots/google_page_1.png"));
+        image = decode(imageData);
+    }
+
+    @Test
+    public void should_encode_images_as_png_by_default() {
+        ImageEncoding encoding = ImageEncoding.fromConfiguration(new MockEnvironmentVariables());
+
+        assertThat(encoding.getFormat(), is(ImageEncoding.Format.PNG));
+        assertThat(encoding.isDefault(), is(true));
+        assertThat(encoding.getFileSuffix(), is(".png"));
+    }
+
+    @Test
+    public void should_read_the_encoding_from_the_system_properties() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.screenshot.format", "jpeg");
+        environmentVariables.setProperty("thucydides.screenshot.jpeg.quality", "60");
+
+        ImageEncoding encoding = ImageEncoding.fromConfiguration(environmentVariables);
+
+        assertThat(encoding.getFormat(), is(ImageEncoding.Format.JPEG));
+        assertThat(encoding.getFileSuffix(), is("_Q60.jpg"));
+    }
+
+    @Test
+    public void should_accept_hyphenated_format_names() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.screenshot.format", "indexed-png");
+
+        ImageEncoding encoding = ImageEncoding.fromConfiguration(environmentVariables);
+
+        assertThat(encoding.getFormat(), is(ImageEncoding.Format.INDEXED_PNG));
+        assertThat(encoding.getFileSuffix(), is("_INDEXED.png"));
+    }
+
+    @Test
+    public void should_use_png_if_the_format_is_unknown() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.screenshot.format", "webp");
+
+        assertThat(ImageEncoding.fromConfiguration(environmentVariables).getFormat(), is(ImageEncoding.Format.PNG));
+    }
+
+    @Test
+    public void should_write_png_images_with_a_given_compression_level_without_losing_any_detail() throws IOException {
+        byte[] encodedImage = ImageEncoding.png().withCompressionLevel(9).encode(image);
+
+        assertThat(pixelsOf(decode(encodedImage)), is(pixelsOf(image)));
+    }
+
+    @Test
+    public void higher_compression_levels_should_produce_smaller_png_images() throws IOException {
+        byte[] uncompressedImage = ImageEncoding.png().withCompressionLevel(0).encode(image);
+        byte[] compressedImage = ImageEncoding.png().withCompressionLevel(9).encode(image);
+
+        assertThat(compressedImage.length, lessThan(uncompressedImage.length));
+    }
+
+    @Test
+    public void should_keep_the_exact_colors_of_images_with_a_small_palette() throws IOException {
+        BufferedImage simpleImage = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = simpleImage.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 100, 50);
+        graphics.setColor(new Color(12, 34, 56));
+        graphics.fillRect(10, 10, 30, 20);
+        graphics.dispose();
+
+        byte[] encodedImage = ImageEncoding.indexedPng().encode(simpleImage);
+
+        BufferedImage decodedImage = decode(encodedImage);
+        assertThat(decodedImage.getType(), is(BufferedImage.TYPE_BYTE_INDEXED));
+        assertThat(pixelsOf(decodedImage), is(pixelsOf(simpleImage)));
+    }
+
+    @Test
+    public void should_reduce_images_with_many_colors_to_a_palette() throws IOException {
+        byte[] encodedImage = ImageEncoding.indexedPng().withCompressionLevel(9).encode(image);
+
+        BufferedImage decodedImage = decode(encodedImage);
+        assertThat(decodedImage.getWidth(), is(image.getWidth()));
+        assertThat(decodedImage.getHeight(), is(image.getHeight()));
+        assertThat(encodedImage.length, lessThan(imageData.length));
+    }
+
+    @Test
+    public void should_write_lossy_jpeg_images_of_a_given_quality() throws IOException {
+        byte[] highQualityImage = ImageEncoding.jpeg().withQuality(95).encode(image);
+        byte[] lowQualityImage = ImageEncoding.jpeg().withQuality(30).encode(image);
+
+        assertThat(new SimpleImageInfo(lowQualityImage).getWidth(), is(1200));
+        assertThat(new SimpleImageInfo(lowQualityImage).getHeight(), is(788));
+        assertThat(highQualityImage.length, greaterThan(lowQualityImage.length));
+    }
+
+    @Test
+    public void should_reencode_images_that_are_not_saved_as_default_png_files() throws IOException {
+        byte[] processedImage = ImageProcessingPipeline.forImages().encodedAs(ImageEncoding.jpeg()).process(imageData);
+
+        assertThat(processedImage, not(sameInstance(imageData)));
+        assertThat(decode(processedImage).getWidth(), is(1200));
+    }
+
+    private BufferedImage decode(byte[] encodedImage) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(encodedImage));
+    }
+
+    private int[] pixelsOf(BufferedImage image) {
+        int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = pixels[i] & 0xFFFFFF;
+        }
+        return pixels;
+    }
+}
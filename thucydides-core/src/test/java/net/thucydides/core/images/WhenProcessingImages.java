@@ -0,0 +1,63 @@
+package net.thucydides.core.images;
+
+import net.thucydides.core.util.FileSystemUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WhenProcessingImages {
+
+    private byte[] imageData;
+
+    @Before
+    public void loadImage() throws IOException {
+        imageData = FileUtils.readFileToByteArray(FileSystemUtils.getResourceAsFile("screenshots/google_page_1.png"));
+    }
+
+    @Test
+    public void should_read_the_image_dimensions_from_the_image_header() throws IOException {
+        SimpleImageInfo imageInfo = new SimpleImageInfo(imageData);
+
+        assertThat(imageInfo.getWidth(), is(1200));
+        assertThat(imageInfo.getHeight(), is(788));
+    }
+
+    @Test
+    public void should_return_the_original_image_if_no_processing_is_required() throws IOException {
+        byte[] processedImage = ImageProcessingPipeline.forImages().process(imageData);
+
+        assertThat(processedImage, sameInstance(imageData));
+    }
+
+    @Test
+    public void should_return_the_original_image_if_it_already_has_the_requested_width() throws IOException {
+        byte[] processedImage = ImageProcessingPipeline.forImages().resizedToWidth(1200).process(imageData);
+
+        assertThat(processedImage, sameInstance(imageData));
+    }
+
+    @Test
+    public void should_resize_images_proportionally() throws IOException {
+        byte[] processedImage = ImageProcessingPipeline.forImages().resizedToWidth(600).process(imageData);
+
+        SimpleImageInfo imageInfo = new SimpleImageInfo(processedImage);
+        assertThat(imageInfo.getWidth(), is(600));
+        assertThat(imageInfo.getHeight(), is(394));
+    }
+
+    @Test
+    public void should_blur_and_resize_images_in_a_single_pass() throws IOException {
+        byte[] resizedImage = ImageProcessingPipeline.forImages().resizedToWidth(600).process(imageData);
+        byte[] blurredAndResizedImage = ImageProcessingPipeline.forImages().blurredWithRadius(5).resizedToWidth(600).process(imageData);
+
+        assertThat(new SimpleImageInfo(blurredAndResizedImage).getWidth(), is(600));
+        assertThat(blurredAndResizedImage, not(resizedImage));
+    }
+}
@@ -0,0 +1,51 @@
+package net.thucydides.core.reports;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WhenIndexingTestOutcomes {
+
+    private static final Story A_STORY = Story.withId("a.story", "A story");
+
+    private TestOutcome indexedOutcome;
+    private TestOutcomeIndex index;
+
+    @Before
+    public void indexAnOutcome() {
+        indexedOutcome = TestOutcome.forTestInStory("an indexed test", A_STORY);
+        indexedOutcome.addTags(ImmutableList.of(TestTag.withName("Release 1").andType("version")));
+        indexedOutcome.addIssues(ImmutableList.of("ISSUE-1"));
+        index = new TestOutcomeIndex(ImmutableList.of(indexedOutcome));
+    }
+
+    @Test
+    public void the_index_should_be_out_of_date_when_an_indexed_outcome_is_tagged() {
+        indexedOutcome.addTags(ImmutableList.of(TestTag.withName("Release 2").andType("version")));
+
+        assertThat(index.isOutOfDate(), is(true));
+    }
+
+    @Test
+    public void the_index_should_stay_up_to_date_when_other_outcomes_are_tagged() {
+        TestOutcome otherOutcome = TestOutcome.forTestInStory("another test", A_STORY);
+        otherOutcome.addTags(ImmutableList.of(TestTag.withName("Release 2").andType("version")));
+        otherOutcome.addIssues(ImmutableList.of("ISSUE-2"));
+
+        assertThat(index.isOutOfDate(), is(false));
+    }
+
+    @Test
+    public void the_index_should_stay_up_to_date_when_existing_tags_and_issues_are_added_again() {
+        indexedOutcome.addTags(ImmutableList.of(TestTag.withName("Release 1").andType("version")));
+        indexedOutcome.addIssues(ImmutableList.of("ISSUE-1"));
+
+        assertThat(index.isOutOfDate(), is(false));
+    }
+}
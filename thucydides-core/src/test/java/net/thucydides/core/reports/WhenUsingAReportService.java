@@ -10,12 +10,14 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -27,6 +29,9 @@ public class WhenUsingAReportService {
     @Mock
     AcceptanceTestReporter reporter;
 
+    @Mock
+    AcceptanceTestReporter otherReporter;
+
     @Mock
     TestOutcome testOutcome;
 
@@ -82,6 +87,41 @@ public class WhenUsingAReportService {
         verify(reporter).setOutputDirectory(outputDirectory);
     }
 
+    @Test
+    public void a_report_service_should_generate_reports_for_every_reporter_and_outcome() throws Exception {
+        List<TestOutcome> testOutcomeResults = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            testOutcomeResults.add(TestOutcome.forTestInStory("test" + i, Story.withId("s1", "Story 1")));
+        }
+
+        ReportService reportService = new ReportService(outputDirectory, new ArrayList<AcceptanceTestReporter>());
+        reportService.subscribe(reporter);
+        reportService.subscribe(otherReporter);
+
+        reportService.generateReportsFor(testOutcomeResults);
+
+        verify(reporter, times(100)).generateReportFor(Matchers.any(TestOutcome.class), Matchers.any(TestOutcomes.class));
+        verify(otherReporter, times(100)).generateReportFor(Matchers.any(TestOutcome.class), Matchers.any(TestOutcomes.class));
+    }
+
+    @Test(expected = ReportGenerationFailedError.class)
+    public void a_report_service_should_report_failures_once_the_reports_are_generated() throws Exception {
+        List<TestOutcome> testOutcomeResults = new ArrayList<>();
+        testOutcomeResults.add(testOutcome);
+        doThrow(new IOException("Disk full"))
+                .when(reporter).generateReportFor(eq(testOutcome), Matchers.any(TestOutcomes.class));
+
+        ReportService reportService = new ReportService(outputDirectory, new ArrayList<AcceptanceTestReporter>());
+        reportService.subscribe(reporter);
+        reportService.subscribe(otherReporter);
+
+        try {
+            reportService.generateReportsFor(testOutcomeResults);
+        } finally {
+            verify(otherReporter).generateReportFor(eq(testOutcome), Matchers.any(TestOutcomes.class));
+        }
+    }
+
     @Test
     public void default_reporters_should_include_xml_html_and_json() {
         List reporters = ReportService.getDefaultReporters();
@@ -0,0 +1,90 @@
+package net.thucydides.core.reports.html;
+
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class WhenCopyingReportResources {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    MockEnvironmentVariables environmentVariables;
+    File cacheDirectory;
+
+    @Before
+    public void setupCacheDirectory() throws IOException {
+        cacheDirectory = temporaryFolder.newFolder("cache");
+        environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.report.resource.cache", cacheDirectory.getAbsolutePath());
+    }
+
+    @Test
+    public void the_report_resources_should_be_available_in_each_report_directory() throws IOException {
+        File firstReportDirectory = temporaryFolder.newFolder("first");
+        File secondReportDirectory = temporaryFolder.newFolder("second");
+
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(firstReportDirectory);
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(secondReportDirectory);
+
+        assertThat(new File(firstReportDirectory, "css/core.css").exists(), is(true));
+        assertThat(new File(secondReportDirectory, "css/core.css").exists(), is(true));
+        assertThat(new File(secondReportDirectory, "scripts/test-table.js").exists(), is(true));
+    }
+
+    @Test
+    public void the_report_resources_should_only_be_unpacked_once() throws IOException {
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(temporaryFolder.newFolder("first"));
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(temporaryFolder.newFolder("second"));
+
+        assertThat(cacheDirectory.list().length, lessThanOrEqualTo(1));
+    }
+
+    @Test
+    public void the_report_resources_should_be_unpacked_again_if_cached_files_have_been_deleted() throws IOException {
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(temporaryFolder.newFolder("first"));
+        for (File cachedStylesheet : FileUtils.listFiles(cacheDirectory, new NameFileFilter("core.css"), TrueFileFilter.INSTANCE)) {
+            FileUtils.forceDelete(cachedStylesheet);
+        }
+
+        File secondReportDirectory = temporaryFolder.newFolder("second");
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(secondReportDirectory);
+
+        assertThat(new File(secondReportDirectory, "css/core.css").exists(), is(true));
+        assertThat(cacheDirectory.list().length, is(1));
+    }
+
+    @Test
+    public void the_report_resources_should_be_cached_in_the_home_directory_by_default() throws IOException {
+        File homeDirectory = temporaryFolder.newFolder("home");
+        MockEnvironmentVariables defaultEnvironmentVariables = new MockEnvironmentVariables();
+        defaultEnvironmentVariables.setProperty("user.home", homeDirectory.getAbsolutePath());
+
+        new HtmlResourceCopier("report-resources", defaultEnvironmentVariables).copyHTMLResourcesTo(temporaryFolder.newFolder("first"));
+
+        assertThat(new File(homeDirectory, ".thucydides/report-resources").list().length, is(1));
+    }
+
+    @Test
+    public void the_report_resources_should_be_copied_directly_if_the_cache_cannot_be_used() throws IOException {
+        File unusableCache = temporaryFolder.newFile("not-a-directory");
+        environmentVariables.setProperty("thucydides.report.resource.cache", unusableCache.getAbsolutePath());
+        File reportDirectory = temporaryFolder.newFolder("first");
+
+        new HtmlResourceCopier("report-resources", environmentVariables).copyHTMLResourcesTo(reportDirectory);
+
+        assertThat(new File(reportDirectory, "css/core.css").exists(), is(true));
+    }
+}
@@ -0,0 +1,155 @@
+package net.thucydides.core.reports.html;
+
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class WhenRenderingReportPagesInParallel {
+
+    @Test
+    public void the_number_of_threads_should_be_configurable() {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.report.threads", "3");
+
+        assertThat(ReportPageRenderer.fromConfiguration(environmentVariables).getThreadCount(), is(3));
+    }
+
+    @Test
+    public void should_wait_for_pages_submitted_by_other_pages() throws IOException {
+        final ReportPageRenderer renderer = new ReportPageRenderer(4);
+        final AtomicInteger renderedPages = new AtomicInteger();
+        try {
+            for (int i = 0; i < 20; i++) {
+                renderer.submit(new ReportPageRenderer.PageJob() {
+                    @Override
+                    public void render() throws IOException {
+                        renderedPages.incrementAndGet();
+                        for (int j = 0; j < 10; j++) {
+                            renderer.submit(new ReportPageRenderer.PageJob() {
+                                @Override
+                                public void render() throws IOException {
+                                    renderedPages.incrementAndGet();
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+            renderer.waitUntilDone();
+        } finally {
+            renderer.shutdown();
+        }
+        assertThat(renderedPages.get(), is(220));
+    }
+
+    @Test
+    public void should_wait_for_more_pending_pages_than_a_phaser_can_hold() throws IOException {
+        final ReportPageRenderer renderer = new ReportPageRenderer(4);
+        final AtomicInteger renderedPages = new AtomicInteger();
+        final CountDownLatch allPagesSubmitted = new CountDownLatch(1);
+        try {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    try {
+                        for (int i = 0; i < 70000; i++) {
+                            renderer.submit(new ReportPageRenderer.PageJob() {
+                                @Override
+                                public void render() throws IOException {
+                                    awaitUninterruptibly(allPagesSubmitted);
+                                    renderedPages.incrementAndGet();
+                                }
+                            });
+                        }
+                    } finally {
+                        allPagesSubmitted.countDown();
+                    }
+                }
+            });
+            renderer.waitUntilDone();
+        } finally {
+            renderer.shutdown();
+        }
+        assertThat(renderedPages.get(), is(70000));
+    }
+
+    @Test
+    public void pages_should_be_rendered_on_several_threads() throws IOException {
+        ReportPageRenderer renderer = new ReportPageRenderer(4);
+        final Set<String> threadNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        try {
+            for (int i = 0; i < 50; i++) {
+                renderer.submit(new ReportPageRenderer.PageJob() {
+                    @Override
+                    public void render() throws IOException {
+                        threadNames.add(Thread.currentThread().getName());
+                    }
+                });
+            }
+            renderer.waitUntilDone();
+        } finally {
+            renderer.shutdown();
+        }
+        for (String threadName : threadNames) {
+            assertThat(threadName.startsWith("thucydides-report-renderer-"), is(true));
+        }
+    }
+
+    @Test
+    public void a_single_thread_renderer_should_render_pages_in_order_in_the_calling_thread() throws IOException {
+        ReportPageRenderer renderer = new ReportPageRenderer(1);
+        final List<String> renderedPages = new CopyOnWriteArrayList<>();
+        final String callingThread = Thread.currentThread().getName();
+        for (final String page : new String[]{"index.html", "tag.html", "release.html"}) {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    assertThat(Thread.currentThread().getName(), is(callingThread));
+                    renderedPages.add(page);
+                }
+            });
+        }
+        renderer.waitUntilDone();
+
+        assertThat(renderedPages, contains("index.html", "tag.html", "release.html"));
+    }
+
+    @Test(expected = IOException.class)
+    public void a_page_failure_should_be_reported_once_the_other_pages_are_rendered() throws IOException {
+        ReportPageRenderer renderer = new ReportPageRenderer(2);
+        final AtomicInteger renderedPages = new AtomicInteger();
+        try {
+            renderer.submit(new ReportPageRenderer.PageJob() {
+                @Override
+                public void render() throws IOException {
+                    throw new IOException("Disk full");
+                }
+            });
+            for (int i = 0; i < 5; i++) {
+                renderer.submit(new ReportPageRenderer.PageJob() {
+                    @Override
+                    public void render() throws IOException {
+                        renderedPages.incrementAndGet();
+                    }
+                });
+            }
+            renderer.waitUntilDone();
+        } finally {
+            renderer.shutdown();
+            assertThat(renderedPages.get(), is(5));
+        }
+    }
+}
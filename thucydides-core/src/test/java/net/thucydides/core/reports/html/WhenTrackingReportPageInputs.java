@@ -0,0 +1,91 @@
+package net.thucydides.core.reports.html;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WhenTrackingReportPageInputs {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    File outputDirectory;
+
+    @Before
+    public void createOutputDirectory() throws IOException {
+        outputDirectory = temporaryFolder.newFolder("site");
+    }
+
+    @Test
+    public void pages_rendered_from_the_same_inputs_should_not_need_rendering_again() throws IOException {
+        renderPage("index.html", "digest-1");
+
+        ReportManifest manifest = ReportManifest.inDirectory(outputDirectory);
+
+        assertThat(manifest.needsRendering("index.html", "digest-1"), is(false));
+    }
+
+    @Test
+    public void pages_should_be_rendered_again_when_their_inputs_change() throws IOException {
+        renderPage("index.html", "digest-1");
+
+        ReportManifest manifest = ReportManifest.inDirectory(outputDirectory);
+
+        assertThat(manifest.needsRendering("index.html", "digest-2"), is(true));
+    }
+
+    @Test
+    public void pages_should_be_rendered_again_if_they_have_been_deleted() throws IOException {
+        renderPage("index.html", "digest-1");
+        new File(outputDirectory, "index.html").delete();
+
+        ReportManifest manifest = ReportManifest.inDirectory(outputDirectory);
+
+        assertThat(manifest.needsRendering("index.html", "digest-1"), is(true));
+    }
+
+    @Test
+    public void skipped_pages_should_be_kept_in_the_manifest() throws IOException {
+        renderPage("index.html", "digest-1");
+
+        ReportManifest secondAggregation = ReportManifest.inDirectory(outputDirectory);
+        secondAggregation.needsRendering("index.html", "digest-1");
+        secondAggregation.save();
+
+        assertThat(ReportManifest.inDirectory(outputDirectory).needsRendering("index.html", "digest-1"), is(false));
+    }
+
+    @Test
+    public void a_disabled_manifest_should_always_render_pages() throws IOException {
+        renderPage("index.html", "digest-1");
+
+        ReportManifest manifest = ReportManifest.disabled();
+
+        assertThat(manifest.needsRendering("index.html", "digest-1"), is(true));
+    }
+
+    @Test
+    public void an_unreadable_manifest_should_render_every_page() throws IOException {
+        FileUtils.writeStringToFile(new File(outputDirectory, "index.html"), "<html/>");
+        FileUtils.writeStringToFile(new File(outputDirectory, ReportManifest.MANIFEST_FILE), "index.html=\\u00");
+
+        ReportManifest manifest = ReportManifest.inDirectory(outputDirectory);
+
+        assertThat(manifest.needsRendering("index.html", "digest-1"), is(true));
+    }
+
+    private void renderPage(String reportName, String inputDigest) throws IOException {
+        ReportManifest manifest = ReportManifest.inDirectory(outputDirectory);
+        FileUtils.writeStringToFile(new File(outputDirectory, reportName), "<html/>");
+        manifest.recordRendered(reportName, inputDigest);
+        manifest.save();
+    }
+}
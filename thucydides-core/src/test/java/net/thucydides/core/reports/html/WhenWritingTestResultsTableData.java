@@ -0,0 +1,48 @@
+package net.thucydides.core.reports.html;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.reports.TestOutcomes;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+public class WhenWritingTestResultsTableData {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void the_data_file_should_be_named_after_the_report() {
+        assertThat(TestResultsTableData.dataFileFor("tag_feature_a.html"), is("tag_feature_a-tests.js"));
+    }
+
+    @Test
+    public void each_test_should_be_written_as_a_row_of_the_table() throws IOException {
+        TestOutcome passingTest = TestOutcome.forTestInStory("a passing test", Story.withId("1", "A story"));
+        passingTest.recordStep(TestStep.forStepCalled("a step").withResult(TestResult.SUCCESS));
+        TestOutcome failingTest = TestOutcome.forTestInStory("a failing test", Story.withId("1", "A story"));
+        failingTest.recordStep(TestStep.forStepCalled("a step").withResult(TestResult.FAILURE));
+
+        File dataFile = new TestResultsTableData(temporaryFolder.getRoot())
+                              .write("index-tests.js", TestOutcomes.of(ImmutableList.of(passingTest, failingTest)));
+
+        String tableData = FileUtils.readFileToString(dataFile, "UTF-8");
+        assertThat(tableData, startsWith("thucydidesTestTable.loaded([[\"FAILURE\",false,"));
+        assertThat(tableData, containsString("[\"SUCCESS\",false,\"" + passingTest.getReportName() + "\""));
+        assertThat(tableData, endsWith("]]);\n"));
+    }
+}
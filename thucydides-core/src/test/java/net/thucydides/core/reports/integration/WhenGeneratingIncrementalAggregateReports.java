@@ -0,0 +1,98 @@
+package net.thucydides.core.reports.integration;
+
+import net.thucydides.core.issues.IssueTracking;
+import net.thucydides.core.reports.html.HtmlAggregateStoryReporter;
+import net.thucydides.core.reports.html.ReportManifest;
+import net.thucydides.core.requirements.RequirementsService;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static net.thucydides.core.matchers.FileMatchers.exists;
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+
+public class WhenGeneratingIncrementalAggregateReports {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private EnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+    private File outputDirectory;
+    private File sourceDirectory;
+
+    @Before
+    public void setupReporter() throws IOException {
+        environmentVariables.setProperty("output.formats", "xml");
+        outputDirectory = temporaryFolder.newFolder("site");
+        sourceDirectory = directoryInClasspathCalled("/test-outcomes/containing-nostep-errors");
+    }
+
+    @Test
+    public void unchanged_pages_should_not_be_rendered_again() throws IOException {
+        environmentVariables.setProperty("thucydides.incremental.reports", "true");
+        generateReports();
+        File homePage = new File(outputDirectory, "index.html");
+        FileUtils.writeStringToFile(homePage, "previously rendered");
+
+        generateReports();
+
+        assertThat(FileUtils.readFileToString(homePage), is("previously rendered"));
+    }
+
+    @Test
+    public void deleted_pages_should_be_rendered_again() throws IOException {
+        environmentVariables.setProperty("thucydides.incremental.reports", "true");
+        generateReports();
+        File homePage = new File(outputDirectory, "index.html");
+        homePage.delete();
+
+        generateReports();
+
+        assertThat(homePage, exists());
+    }
+
+    @Test
+    public void every_page_should_be_rendered_again_when_the_report_options_change() throws IOException {
+        environmentVariables.setProperty("thucydides.incremental.reports", "true");
+        generateReports();
+        File homePage = new File(outputDirectory, "index.html");
+        FileUtils.writeStringToFile(homePage, "previously rendered");
+
+        environmentVariables.setProperty("show.pie.charts", "false");
+        generateReports();
+
+        assertThat(FileUtils.readFileToString(homePage), is(not("previously rendered")));
+    }
+
+    @Test
+    public void every_page_should_be_rendered_by_default() throws IOException {
+        generateReports();
+        File homePage = new File(outputDirectory, "index.html");
+        FileUtils.writeStringToFile(homePage, "previously rendered");
+
+        generateReports();
+
+        assertThat(FileUtils.readFileToString(homePage), is(not("previously rendered")));
+        assertThat(new File(outputDirectory, ReportManifest.MANIFEST_FILE), not(exists()));
+    }
+
+    private void generateReports() throws IOException {
+        HtmlAggregateStoryReporter reporter = new HtmlAggregateStoryReporter("project", "",
+                                                                              mock(IssueTracking.class),
+                                                                              mock(RequirementsService.class),
+                                                                              environmentVariables);
+        reporter.setOutputDirectory(outputDirectory);
+        reporter.generateReportsForTestResultsFrom(sourceDirectory);
+    }
+}
@@ -0,0 +1,67 @@
+package net.thucydides.core.reports.integration;
+
+import net.thucydides.core.issues.IssueTracking;
+import net.thucydides.core.reports.html.HtmlAggregateStoryReporter;
+import net.thucydides.core.requirements.RequirementsService;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static net.thucydides.core.matchers.FileMatchers.exists;
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+
+public class WhenGeneratingReportsWithLazyTestTables {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private EnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+    private File outputDirectory;
+
+    @Before
+    public void setupReporter() throws IOException {
+        environmentVariables.setProperty("output.formats", "xml");
+        outputDirectory = temporaryFolder.newFolder("site");
+    }
+
+    @Test
+    public void large_test_tables_should_be_loaded_from_a_separate_data_file() throws IOException {
+        environmentVariables.setProperty("thucydides.report.lazy.table.threshold", "1");
+
+        generateReports();
+
+        String homePage = FileUtils.readFileToString(new File(outputDirectory, "index.html"));
+        assertThat(homePage, containsString("thucydidesTestTable.load('#test-results-table', 'index-tests.js'"));
+        assertThat(homePage, not(containsString("<tr class=\"test-")));
+        assertThat(new File(outputDirectory, "index-tests.js"), exists());
+    }
+
+    @Test
+    public void test_tables_should_be_rendered_into_the_page_by_default() throws IOException {
+        generateReports();
+
+        String homePage = FileUtils.readFileToString(new File(outputDirectory, "index.html"));
+        assertThat(homePage, containsString("<tr class=\"test-"));
+        assertThat(new File(outputDirectory, "index-tests.js"), not(exists()));
+    }
+
+    private void generateReports() throws IOException {
+        HtmlAggregateStoryReporter reporter = new HtmlAggregateStoryReporter("project", "",
+                                                                              mock(IssueTracking.class),
+                                                                              mock(RequirementsService.class),
+                                                                              environmentVariables);
+        reporter.setOutputDirectory(outputDirectory);
+        reporter.generateReportsForTestResultsFrom(directoryInClasspathCalled("/test-outcomes/containing-nostep-errors"));
+    }
+}
@@ -1,6 +1,8 @@
 package net.thucydides.core.reports.integration;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.thoughtworks.xstream.XStreamException;
 import net.thucydides.core.model.*;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.reports.xml.XMLTestOutcomeReporter;
@@ -12,6 +14,11 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -58,6 +65,25 @@ public class WhenReadingAnXMLReport {
         assertThat(testOutcome.get().getDescription(), is("Some description"));
     }
 
+    @Test(expected = XStreamException.class)
+    public void should_not_resolve_external_entities_when_loading_a_report() throws Exception {
+        File secret = temporaryDirectory.newFile("secret.txt");
+        FileUtils.writeStringToFile(secret, "top secret");
+        String storedReportXML =
+            "<!DOCTYPE acceptance-test-run [<!ENTITY x SYSTEM '" + secret.toURI() + "'>]>\n"
+          + "<acceptance-test-run title='Should do this' name='should_do_this' steps='1' successful='1' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS'  timestamp='2013-01-01T00:00:00.000-05:00'>\n"
+          + "  <user-story id='net.thucydides.core.reports.integration.WhenGeneratingAnXMLReport.AUserStory' name='A user story' />\n"
+          + "  <test-step result='SUCCESS'>\n"
+          + "    <description>&x;</description>\n"
+          + "  </test-step>\n"
+          + "</acceptance-test-run>";
+
+        File report = temporaryDirectory.newFile("saved-report.xml");
+        FileUtils.writeStringToFile(report, storedReportXML);
+
+        outcomeReporter.loadReportFrom(report);
+    }
+
     @Test
     public void should_load_manual_acceptance_test_report_from_xml_file() throws Exception {
         String storedReportXML =
@@ -497,4 +523,39 @@ public class WhenReadingAnXMLReport {
         assertThat(testOutcome.get().getTitleWithLinks(), is("Search for news [euro]"));
     }
 
+    @Test
+    public void should_load_reports_from_several_threads_at_once() throws Exception {
+        final List<File> reports = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            StringBuilder storedReportXML = new StringBuilder(
+                    "<acceptance-test-run title='Test " + i + "' name='test_" + i + "' steps='50' successful='50' failures='0' skipped='0' ignored='0' pending='0' result='SUCCESS'>\n");
+            for (int step = 0; step < 50; step++) {
+                storedReportXML.append("  <test-step result='SUCCESS'><description>step " + step + "</description></test-step>\n");
+            }
+            storedReportXML.append("</acceptance-test-run>");
+            File report = temporaryDirectory.newFile("saved-report-" + i + ".xml");
+            FileUtils.writeStringToFile(report, storedReportXML.toString());
+            reports.add(report);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<TestOutcome>>> loadedOutcomes = Lists.newArrayList();
+            for (final File report : reports) {
+                loadedOutcomes.add(executor.submit(new Callable<Optional<TestOutcome>>() {
+                    @Override
+                    public Optional<TestOutcome> call() {
+                        return new XMLTestOutcomeReporter().loadReportFrom(report);
+                    }
+                }));
+            }
+            for (int i = 0; i < reports.size(); i++) {
+                TestOutcome testOutcome = loadedOutcomes.get(i).get().get();
+                assertThat(testOutcome.getTitle(), is("Test " + i));
+                assertThat(testOutcome.getTestSteps().size(), is(50));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -1,8 +1,12 @@
 package net.thucydides.core.reports.templates;
 
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.StringWriter;
 import java.util.HashMap;
@@ -10,9 +14,13 @@ import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class WhenMergingFreeMarkerTemplates {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void should_load_freemarker_template_from_classpath() throws Exception {
         FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
@@ -28,7 +36,7 @@ public class WhenMergingFreeMarkerTemplates {
 
     }
 
-    @Test(expected = TemplateMergeException.class)
+    @Test
     public void should_handle_data_errors_in_template() throws Exception {
         FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
         ReportTemplate template = templateManager.getTemplateFrom("templates/test.ftl");
@@ -39,7 +47,26 @@ public class WhenMergingFreeMarkerTemplates {
         StringWriter sw = new StringWriter();
         template.merge(context, sw);
 
+        assertThat(sw.toString(), is("Hi Joe, aged . Next year you will be "));
     }
+
+    @Test
+    public void a_data_error_in_one_merge_should_not_affect_the_next_merge() throws Exception {
+        FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
+        ReportTemplate template = templateManager.getTemplateFrom("templates/test.ftl");
+
+        Map<String, Object> context = new HashMap<String, Object>();
+        context.put("name","Joe");
+        context.put("age",null);
+        template.merge(context, new StringWriter());
+
+        context.put("age",20);
+        StringWriter sw = new StringWriter();
+        templateManager.getTemplateFrom("templates/test.ftl").merge(context, sw);
+
+        assertThat(sw.toString(), is("Hi Joe, aged 20. Next year you will be 21"));
+    }
+
     @Test(expected = FileNotFoundException.class)
     public void should_throw_exception_if_template_file_not_available() throws Exception {
         FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
@@ -63,4 +90,51 @@ public class WhenMergingFreeMarkerTemplates {
 
     }
 
+    @Test
+    public void should_merge_freemarker_template_into_a_file() throws Exception {
+        FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
+        ReportTemplate template = templateManager.getTemplateFrom("templates/test.ftl");
+
+        Map<String, Object> context = new HashMap<String, Object>();
+        context.put("name","Zoë");
+        context.put("age",20);
+        File report = new File(temporaryFolder.getRoot(), "reports/report.html");
+        template.merge(context, report);
+
+        assertThat(FileUtils.readFileToString(report, "UTF-8"), is("Hi Zoë, aged 20. Next year you will be 21"));
+        assertThat(new File(temporaryFolder.getRoot(), "reports/report.html.partial").exists(), is(false));
+    }
+
+    @Test
+    public void should_leave_an_existing_file_untouched_if_the_template_cannot_be_merged() throws Exception {
+        FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
+        ReportTemplate template = templateManager.getTemplateFrom("templates/test.ftl");
+
+        Map<String, Object> context = new HashMap<String, Object>();
+        context.put("name", new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("Name not available");
+            }
+        });
+        context.put("age",20);
+        File report = temporaryFolder.newFile("report.html");
+        FileUtils.writeStringToFile(report, "previous report");
+        try {
+            template.merge(context, report);
+        } catch (TemplateMergeException | IllegalStateException expected) {
+        }
+
+        assertThat(FileUtils.readFileToString(report), is("previous report"));
+        assertThat(new File(temporaryFolder.getRoot(), "report.html.partial").exists(), is(false));
+    }
+
+    @Test
+    public void should_only_load_each_template_once() throws Exception {
+        FreeMarkerTemplateManager templateManager = new FreeMarkerTemplateManager();
+
+        ReportTemplate template = templateManager.getTemplateFrom("templates/test.ftl");
+
+        assertThat(templateManager.getTemplateFrom("templates/test.ftl"), is(sameInstance(template)));
+    }
 }
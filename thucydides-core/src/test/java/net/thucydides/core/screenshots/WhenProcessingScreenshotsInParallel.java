@@ -0,0 +1,113 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.util.ExtendedTemporaryFolder;
+import net.thucydides.core.util.FileSystemUtils;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class WhenProcessingScreenshotsInParallel {
+
+    @Rule
+    public ExtendedTemporaryFolder temporaryDirectory = new ExtendedTemporaryFolder();
+
+    private File originalScreenshot;
+    private File screenshotDirectory;
+
+    MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+
+    @Before
+    public void prepareTemporaryFilesAndDirectories() throws IOException {
+        originalScreenshot = FileSystemUtils.getResourceAsFile("screenshots/google_page_1.png");
+        screenshotDirectory = temporaryDirectory.newFolder("screenshots");
+    }
+
+    private List<File> queueScreenshots(ScreenshotProcessor processor, int count) throws IOException {
+        List<File> destinations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            File source = temporaryDirectory.newFile("screenshot-" + System.nanoTime() + "-" + i + ".png");
+            FileUtils.copyFile(originalScreenshot, source);
+            File destination = new File(screenshotDirectory, "saved-" + System.nanoTime() + "-" + i + ".png");
+            processor.queueScreenshot(new QueuedScreenshot(source, destination));
+            destinations.add(destination);
+        }
+        return destinations;
+    }
+
+    @Test
+    public void should_save_all_queued_screenshots_before_returning_from_wait_until_done() throws IOException {
+        MultithreadScreenshotProcessor processor = new MultithreadScreenshotProcessor(environmentVariables, 4, 10);
+
+        List<File> savedScreenshots = queueScreenshots(processor, 25);
+        processor.waitUntilDone();
+
+        for (File savedScreenshot : savedScreenshots) {
+            assertThat(savedScreenshot.exists(), is(true));
+        }
+        assertThat(processor.isEmpty(), is(true));
+    }
+
+    @Test
+    public void should_never_hold_more_screenshots_than_the_queue_size() throws IOException {
+        MultithreadScreenshotProcessor processor = new MultithreadScreenshotProcessor(environmentVariables, 2, 3);
+
+        queueScreenshots(processor, 20);
+        processor.waitUntilDone();
+
+        assertThat(processor.getMetrics().getPeakQueueDepth(), lessThanOrEqualTo(3L));
+        assertThat(processor.getMetrics().getProcessedScreenshots(), is(20L));
+    }
+
+    @Test
+    public void should_resume_processing_screenshots_after_being_terminated() throws IOException {
+        MultithreadScreenshotProcessor processor = new MultithreadScreenshotProcessor(environmentVariables, 2, 10);
+
+        queueScreenshots(processor, 5);
+        processor.waitUntilDone();
+        processor.terminate();
+
+        List<File> savedScreenshots = queueScreenshots(processor, 5);
+        processor.waitUntilDone();
+
+        for (File savedScreenshot : savedScreenshots) {
+            assertThat(savedScreenshot.exists(), is(true));
+        }
+    }
+
+    @Test
+    public void should_not_save_a_screenshot_that_could_not_be_blurred() throws IOException {
+        ScreenshotWriter writer = new ScreenshotWriter(environmentVariables);
+        File destination = new File(screenshotDirectory, "blurred.png");
+
+        writer.write(new QueuedScreenshot("not an image".getBytes(), destination, BlurLevel.HEAVY));
+
+        assertThat(destination.exists(), is(false));
+    }
+
+    @Test
+    public void should_use_a_single_thread_processor_by_default() {
+        ScreenshotProcessor processor = new ScreenshotProcessorProvider(environmentVariables).get();
+
+        assertThat(processor instanceof SingleThreadScreenshotProcessor, is(true));
+    }
+
+    @Test
+    public void should_use_a_thread_pool_if_several_processor_threads_are_requested() {
+        environmentVariables.setProperty("thucydides.screenshot.processor.threads", "4");
+
+        ScreenshotProcessor processor = new ScreenshotProcessorProvider(environmentVariables).get();
+
+        assertThat(processor instanceof MultithreadScreenshotProcessor, is(true));
+    }
+}
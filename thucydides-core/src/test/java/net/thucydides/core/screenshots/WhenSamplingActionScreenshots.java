@@ -0,0 +1,86 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.pages.SystemClock;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openqa.selenium.firefox.FirefoxDriver;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WhenSamplingActionScreenshots {
+
+    @Mock
+    FirefoxDriver driver;
+
+    @Mock
+    SystemClock clock;
+
+    MockEnvironmentVariables environmentVariables;
+
+    DateTime startTime = new DateTime(2014, 1, 1, 12, 0, 0, 0);
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        environmentVariables = new MockEnvironmentVariables();
+        when(clock.getCurrentTime()).thenReturn(startTime);
+    }
+
+    @Test
+    public void action_screenshots_should_not_be_limited_by_default() {
+        ScreenshotSampler sampler = new ScreenshotSampler(environmentVariables, clock);
+
+        sampler.screenshotTaken();
+
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+        verify(driver, never()).executeScript(anyString());
+    }
+
+    @Test
+    public void action_screenshots_should_be_limited_to_the_configured_rate() {
+        environmentVariables.setProperty("thucydides.max.screenshots.per.second", "2");
+        ScreenshotSampler sampler = new ScreenshotSampler(environmentVariables, clock);
+
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+        sampler.screenshotTaken();
+
+        when(clock.getCurrentTime()).thenReturn(startTime.plusMillis(200));
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(false));
+
+        when(clock.getCurrentTime()).thenReturn(startTime.plusMillis(500));
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+    }
+
+    @Test
+    public void action_screenshots_should_be_skipped_if_the_dom_has_not_changed() {
+        environmentVariables.setProperty("thucydides.skip.screenshots.of.unchanged.pages", "true");
+        ScreenshotSampler sampler = new ScreenshotSampler(environmentVariables, clock);
+
+        when(driver.executeScript(anyString())).thenReturn(-1L, 0L, 3L, 3L);
+
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(false));
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(false));
+    }
+
+    @Test
+    public void action_screenshots_should_be_taken_if_the_dom_changes_cannot_be_counted() {
+        environmentVariables.setProperty("thucydides.skip.screenshots.of.unchanged.pages", "true");
+        ScreenshotSampler sampler = new ScreenshotSampler(environmentVariables, clock);
+
+        when(driver.executeScript(anyString())).thenThrow(new RuntimeException("No javascript here"));
+
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+        assertThat(sampler.shouldTakeActionScreenshotWith(driver), is(true));
+    }
+}
@@ -1,14 +1,17 @@
 package net.thucydides.core.screenshots;
 
 import com.google.common.base.Optional;
+import net.thucydides.core.images.SimpleImageInfo;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.util.ExtendedTemporaryFolder;
 import net.thucydides.core.util.FileSystemUtils;
 import net.thucydides.core.util.MockEnvironmentVariables;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.openqa.selenium.OutputType;
@@ -16,8 +19,16 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -33,6 +44,7 @@ public class WhenScreenshotsAreTaken {
 
     private File screenshotDirectory;
     private File screenshotTaken;
+    private byte[] screenshotData;
     private File originalScreenshot;
     private File expectedResizedScreenshot;
 
@@ -60,10 +72,6 @@ public class WhenScreenshotsAreTaken {
             return (driver != null);
         }
 
-        @Override
-        protected File blur(File srcFile) throws IOException {
-            return srcFile;
-        }
     }
 
     EnvironmentVariables environmentVariables = new MockEnvironmentVariables();
@@ -82,13 +90,14 @@ public class WhenScreenshotsAreTaken {
         expectedResizedScreenshot = FileSystemUtils.getResourceAsFile("screenshots/resized_google_page_1.png");
         screenshotTaken = temporaryDirectory.newFile("google_page_1.png");
         FileUtils.copyFile(originalScreenshot, screenshotTaken);
+        screenshotData = FileUtils.readFileToByteArray(screenshotTaken);
     }
 
     @Test
     public void the_driver_should_not_take_screenshots_if_the_driver_is_not_available() throws Exception {
 
         Photographer photographer = new MockPhotographer(null, screenshotDirectory);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -98,7 +107,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void the_driver_should_capture_the_image() throws Exception {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -109,7 +118,7 @@ public class WhenScreenshotsAreTaken {
     public void should_blur_screenshot_if_requested() throws Exception {
 
         Photographer outOfFocusPhotographer = new Photographer(driver, screenshotDirectory, BlurLevel.HEAVY);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         Optional<File> blurredScreenshot = outOfFocusPhotographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -120,7 +129,7 @@ public class WhenScreenshotsAreTaken {
     public void should_not_blur_screenshot_by_default() throws Exception {
 
         Photographer outOfFocusPhotographer = new Photographer(driver, screenshotDirectory);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         Optional<File> blurredScreenshot = outOfFocusPhotographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -130,7 +139,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void should_not_take_a_snapshot_if_unsupported_by_the_driver() throws Exception {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         Photographer photographer = new Photographer(htmlDriver, screenshotDirectory);
         photographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
@@ -141,7 +150,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void the_screenshot_should_be_stored_in_the_target_directory() throws IOException, InterruptedException{
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 
         String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -159,7 +168,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void the_photographer_should_return_the_stored_screenshot_filename() throws IOException, InterruptedException {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         
         String savedFileName = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -169,30 +178,60 @@ public class WhenScreenshotsAreTaken {
     }
 
 
-//    @Test
-//    public void the_photographer_should_provide_the_HTML_source_code_for_a_given_screenshot_if_configured() throws Exception {
-//
-//        environmentVariables.setProperty("thucydides.store.html.source","true");
-//        Photographer photographer = new Photographer(driver, screenshotDirectory,
-//                                                     Injectors.getInjector().getInstance(ScreenshotProcessor.class),
-//                                                     null,
-//                                                     environmentVariables);
-//
-//        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
-//        when(driver.getPageSource()).thenReturn("<html/>");
-//
-//        File screenshotFile = photographer.takeScreenshot().get();
-//        waitUntilScreenshotsProcessed();
-//
-//        File htmlSource = photographer.getMatchingSourceCodeFor(screenshotFile);
-//
-//        assertThat(htmlSource.isFile(), is(true));
-//    }
+    @Test
+    public void a_thumbnail_should_be_created_when_the_screenshot_is_saved() throws Exception {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+
+        File savedScreenshot = photographer.takeScreenshot().get();
+        waitUntilScreenshotsProcessed();
+
+        File thumbnail = new File(screenshotDirectory, "thumbnail_" + savedScreenshot.getName());
+        assertThat(thumbnail.isFile(), is(true));
+        assertThat(new SimpleImageInfo(thumbnail).getWidth(), is(ScreenshotThumbnails.THUMBNAIL_WIDTH));
+    }
+
+    @Test
+    public void the_photographer_should_save_the_page_source_as_a_compressed_file() throws Exception {
+        when(driver.getPageSource()).thenReturn("<html><body>Café</body></html>");
+
+        File pageSourceFile = photographer.recordPageSource().get();
+        waitUntilScreenshotsProcessed();
+
+        assertThat(pageSourceFile.getName().endsWith(".html.gz"), is(true));
+        try (InputStream pageSource = new GZIPInputStream(new FileInputStream(pageSourceFile))) {
+            assertThat(IOUtils.toString(pageSource, "UTF-8"), is("<html><body>Café</body></html>"));
+        }
+    }
+
+    @Test
+    public void identical_page_sources_should_share_the_same_file() throws Exception {
+        when(driver.getPageSource()).thenReturn("<html/>");
+        photographer.setScreenshotProcessor(screenshotProcessor);
+
+        File firstPageSource = photographer.recordPageSource().get();
+        File secondPageSource = photographer.recordPageSource().get();
+
+        assertThat(secondPageSource, is(firstPageSource));
+    }
+
+    @Test
+    public void the_page_source_should_be_saved_by_the_screenshot_processor() throws Exception {
+        when(driver.getPageSource()).thenReturn("<html/>");
+        photographer.setScreenshotProcessor(screenshotProcessor);
+
+        photographer.recordPageSource();
+
+        ArgumentCaptor<QueuedScreenshot> queuedPageSource = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedPageSource.capture());
+        assertThat(queuedPageSource.getValue().isPageSource(), is(true));
+        assertThat(queuedPageSource.getValue().getScreenshotData(), equalTo("<html/>".getBytes("UTF-8")));
+    }
 
 
     @Test
     public void calling_api_generates_a_filename_safe_hashed_name_for_the_screenshot() throws Exception {
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 
         String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -202,7 +241,7 @@ public class WhenScreenshotsAreTaken {
     
     @Test
     public void by_default_screenshot_files_start_with_Screenshot() throws Exception {
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 
         String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -210,13 +249,25 @@ public class WhenScreenshotsAreTaken {
         assertThat(screenshotFile, equalTo("6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"));
     }
 
+    @Test
+    public void the_screenshot_filename_should_reflect_the_screenshot_format() throws Exception {
+        environmentVariables.setProperty("thucydides.screenshot.format", "jpeg");
+        environmentVariables.setProperty("thucydides.screenshot.jpeg.quality", "75");
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+
+        String screenshotFile = photographer.takeScreenshot().get().getName();
+
+        assertThat(screenshotFile, equalTo("6a0bceeab7f4fe24b6add7e76b1ff833_NONE_Q75.jpg"));
+    }
+
     @Mock
     ScreenshotProcessor screenshotProcessor;
 
     @Test
     public void should_send_screenshots_to_screenshot_processor() {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.setScreenshotProcessor(screenshotProcessor);
 
         photographer.takeScreenshot();
@@ -225,26 +276,94 @@ public class WhenScreenshotsAreTaken {
     }
 
     @Test
-    public void should_blur_screenshots_if_blurScreenshots_option_is_present() throws Exception {
-        Photographer photographer = new MockPhotographer(driver, screenshotDirectory, BlurLevel.HEAVY);
-        photographer = spy(photographer);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+    public void should_send_the_screenshot_data_to_the_screenshot_processor_without_using_a_temporary_file() {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+
         photographer.takeScreenshot();
+
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedScreenshot.capture());
+        assertThat(queuedScreenshot.getValue().isInMemory(), is(true));
+        assertThat(queuedScreenshot.getValue().getScreenshotData(), equalTo(screenshotData));
+    }
+
+    @Test
+    public void should_accept_screenshots_returned_as_files_by_the_driver() throws Exception {
+
+        doReturn(screenshotTaken).when(driver).getScreenshotAs(OutputType.BYTES);
+
+        String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
 
-        verify(photographer, times(1)).blur(any(File.class));
+        assertThat(screenshotFile, equalTo("6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"));
+        assertThat(new File(screenshotDirectory, screenshotFile).isFile(), is(true));
+    }
+
+    @Test
+    public void should_reuse_the_previous_screenshot_if_a_new_one_looks_the_same() throws Exception {
+
+        byte[] almostIdenticalScreenshotData = withABlinkingCursor(screenshotData);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData).thenReturn(almostIdenticalScreenshotData);
+        photographer.setPerceptualHashIndex(new PerceptualHashIndex(4));
+
+        File firstScreenshot = photographer.takeScreenshot().get();
+        File secondScreenshot = photographer.takeScreenshot().get();
+        waitUntilScreenshotsProcessed();
+
+        assertThat(secondScreenshot, equalTo(firstScreenshot));
+    }
+
+    private byte[] withABlinkingCursor(byte[] screenshotData) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshotData));
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(400, 300, 1, 16);
+        graphics.dispose();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void should_store_screenshots_that_look_different() throws Exception {
+
+        byte[] otherScreenshotData = FileUtils.readFileToByteArray(
+                FileSystemUtils.getResourceAsFile("screenshots/google_page_2.png"));
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData).thenReturn(otherScreenshotData);
+        photographer.setPerceptualHashIndex(new PerceptualHashIndex(4));
+
+        File firstScreenshot = photographer.takeScreenshot().get();
+        File secondScreenshot = photographer.takeScreenshot().get();
+        waitUntilScreenshotsProcessed();
+
+        assertThat(secondScreenshot.equals(firstScreenshot), is(false));
+    }
+
+    @Test
+    public void should_ask_the_screenshot_processor_to_blur_screenshots_if_blurScreenshots_option_is_present() throws Exception {
+        Photographer photographer = new MockPhotographer(driver, screenshotDirectory, BlurLevel.HEAVY);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        photographer.takeScreenshot();
+
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedScreenshot.capture());
+        assertThat(queuedScreenshot.getValue().getBlurLevel().get(), is(BlurLevel.HEAVY));
         verify(driver,times(1)).getScreenshotAs((OutputType<?>) anyObject());
     }
 
     @Test
     public void should_not_blur_screenshots_if_blurScreenshots_option_is_absent() throws Exception {
         Photographer photographer = new MockPhotographer(driver, screenshotDirectory, null);
-        photographer = spy(photographer);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.takeScreenshot();
-        waitUntilScreenshotsProcessed();
 
-        verify(photographer, times(0)).blur(any(File.class));
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedScreenshot.capture());
+        assertThat(queuedScreenshot.getValue().getBlurLevel().isPresent(), is(false));
         verify(driver,times(1)).getScreenshotAs((OutputType<?>) anyObject());
     }
 }
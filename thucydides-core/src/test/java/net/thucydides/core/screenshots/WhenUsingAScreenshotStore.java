@@ -0,0 +1,112 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.util.ExtendedTemporaryFolder;
+import net.thucydides.core.util.FileSystemUtils;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WhenUsingAScreenshotStore {
+
+    @Rule
+    public ExtendedTemporaryFolder temporaryDirectory = new ExtendedTemporaryFolder();
+
+    private static final String SCREENSHOT_NAME = "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png";
+
+    private File storeDirectory;
+    private File outputDirectory;
+    private byte[] screenshotData;
+
+    @Before
+    public void prepareTemporaryFilesAndDirectories() throws IOException {
+        storeDirectory = temporaryDirectory.newFolder("store");
+        outputDirectory = temporaryDirectory.newFolder("output");
+        screenshotData = FileUtils.readFileToByteArray(FileSystemUtils.getResourceAsFile("screenshots/google_page_1.png"));
+    }
+
+    @Test
+    public void should_store_screenshots_in_directories_named_after_the_start_of_the_screenshot_name() throws IOException {
+        ScreenshotStore store = new ScreenshotStore(storeDirectory);
+
+        store.save(SCREENSHOT_NAME, screenshotData);
+
+        assertThat(store.contains(SCREENSHOT_NAME), is(true));
+        assertThat(new File(new File(storeDirectory, "6a"), SCREENSHOT_NAME).isFile(), is(true));
+    }
+
+    @Test
+    public void should_link_stored_screenshots_into_the_output_directory() throws IOException {
+        ScreenshotStore store = new ScreenshotStore(storeDirectory);
+        store.save(SCREENSHOT_NAME, screenshotData);
+
+        Path linkedScreenshot = new File(outputDirectory, SCREENSHOT_NAME).toPath();
+        store.linkTo(SCREENSHOT_NAME, linkedScreenshot);
+
+        assertThat(Files.isSameFile(linkedScreenshot, new File(new File(storeDirectory, "6a"), SCREENSHOT_NAME).toPath()), is(true));
+    }
+
+    @Test
+    public void should_prune_screenshots_that_are_no_longer_linked_from_an_output_directory() throws IOException {
+        ScreenshotStore store = new ScreenshotStore(storeDirectory, 0);
+        store.save(SCREENSHOT_NAME, screenshotData);
+        Path linkedScreenshot = new File(outputDirectory, SCREENSHOT_NAME).toPath();
+        store.linkTo(SCREENSHOT_NAME, linkedScreenshot);
+        markAsOld(SCREENSHOT_NAME);
+
+        assertThat(store.prune(), is(0));
+
+        Files.delete(linkedScreenshot);
+
+        assertThat(store.prune(), is(1));
+        assertThat(store.contains(SCREENSHOT_NAME), is(false));
+    }
+
+    @Test
+    public void should_not_prune_recently_stored_screenshots() throws IOException {
+        ScreenshotStore store = new ScreenshotStore(storeDirectory);
+        store.save(SCREENSHOT_NAME, screenshotData);
+
+        assertThat(store.prune(), is(0));
+        assertThat(store.contains(SCREENSHOT_NAME), is(true));
+    }
+
+    @Test
+    public void screenshot_processors_should_save_screenshots_through_the_store_if_configured() throws IOException {
+        MockEnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty("thucydides.screenshot.store", storeDirectory.getAbsolutePath());
+        ScreenshotWriter writer = new ScreenshotWriter(environmentVariables);
+
+        File savedScreenshot = new File(outputDirectory, SCREENSHOT_NAME);
+        writer.write(new QueuedScreenshot(screenshotData, savedScreenshot));
+
+        assertThat(savedScreenshot.isFile(), is(true));
+        assertThat(new ScreenshotStore(storeDirectory).contains(SCREENSHOT_NAME), is(true));
+    }
+
+    @Test
+    public void screenshot_processors_should_only_leave_complete_screenshots_in_the_output_directory() throws IOException {
+        ScreenshotWriter writer = new ScreenshotWriter(new MockEnvironmentVariables());
+
+        File savedScreenshot = new File(outputDirectory, SCREENSHOT_NAME);
+        writer.write(new QueuedScreenshot(screenshotData, savedScreenshot));
+
+        assertThat(FileUtils.readFileToByteArray(savedScreenshot), is(screenshotData));
+        assertThat(FileUtils.listFiles(outputDirectory, new String[]{"tmp"}, true).isEmpty(), is(true));
+    }
+
+    private void markAsOld(String screenshotName) throws IOException {
+        Path storedScreenshot = new File(new File(storeDirectory, screenshotName.substring(0, 2)), screenshotName).toPath();
+        Files.setLastModifiedTime(storedScreenshot, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+    }
+}
@@ -3,6 +3,7 @@ package net.thucydides.core.steps;
 import com.google.common.collect.Lists;
 import net.thucydides.core.ListenerInWrongPackage;
 import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.annotations.BlurScreenshots;
 import net.thucydides.core.annotations.Feature;
 import net.thucydides.core.annotations.Story;
 import net.thucydides.core.model.TestOutcome;
@@ -11,6 +12,8 @@ import net.thucydides.core.model.TestStep;
 import net.thucydides.core.model.TestTag;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.pages.Pages;
+import net.thucydides.core.screenshots.BlurLevel;
+import net.thucydides.core.screenshots.Photographer;
 import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
 import net.thucydides.core.screenshots.ScreenshotException;
 import net.thucydides.core.steps.samples.FlatScenarioSteps;
@@ -1357,6 +1360,22 @@ public class WhenRecordingStepExecutionResults {
         verify(driver, times(3)).getScreenshotAs((OutputType<?>) anyObject());
     }
 
+    @Test
+    public void screenshots_on_screen_changes_should_respect_the_maximum_screenshot_rate() {
+
+        environmentVariables.setProperty("thucydides.max.screenshots.per.second", "1");
+        configureEventBus("thucydides.take.screenshots","FOR_EACH_ACTION");
+
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_with_screen_changes();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        verify(driver, times(2)).getScreenshotAs((OutputType<?>) anyObject());
+    }
+
     @Test
     public void screenshots_should_not_be_taken_on_screen_changes_if_not_in_verbose_mode() {
 
@@ -1494,6 +1513,22 @@ public class WhenRecordingStepExecutionResults {
         verify(driver, times(2)).getScreenshotAs((OutputType<?>) anyObject());
     }
 
+    @Test
+    public void the_same_photographer_should_be_used_until_the_blur_level_or_driver_changes() {
+        Photographer photographer = stepListener.getPhotographer();
+
+        assertThat(stepListener.getPhotographer(), is(sameInstance(photographer)));
+        assertThat(blurredPhotographer().getBlurLevel().get(), is(BlurLevel.HEAVY));
+
+        stepListener.setDriver(driver);
+        assertThat(stepListener.getPhotographer(), is(not(sameInstance(photographer))));
+    }
+
+    @BlurScreenshots("HEAVY")
+    public Photographer blurredPhotographer() {
+        return stepListener.getPhotographer();
+    }
+
     @Test
     public void custom_listeners_on_the_classpath_are_registered_automatically() {
         List listeners = StepEventBus.getEventBus().getAllListeners();
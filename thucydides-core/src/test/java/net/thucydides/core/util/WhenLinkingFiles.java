@@ -0,0 +1,103 @@
+package net.thucydides.core.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WhenLinkingFiles {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    Path source;
+    Path target;
+
+    @Before
+    public void setupDirectories() throws IOException {
+        source = temporaryFolder.newFolder("source").toPath();
+        target = temporaryFolder.newFolder("target").toPath();
+    }
+
+    @Test
+    public void a_linked_file_should_have_the_same_contents_as_the_original() throws IOException {
+        Path original = write(source.resolve("results.xml"), "<results/>");
+
+        HardLinks.linkOrCopy(original, target.resolve("results.xml"));
+
+        assertThat(read(target.resolve("results.xml")), is("<results/>"));
+    }
+
+    @Test
+    public void an_existing_file_should_not_be_overwritten() throws IOException {
+        Path original = write(source.resolve("screenshot.png"), "new");
+        write(target.resolve("screenshot.png"), "old");
+
+        HardLinks.linkOrCopy(original, target.resolve("screenshot.png"));
+
+        assertThat(read(target.resolve("screenshot.png")), is("old"));
+    }
+
+    @Test
+    public void matching_files_should_replace_the_ones_already_in_the_target_directory() throws IOException {
+        write(source.resolve("results.xml"), "new results");
+        write(source.resolve("notes.txt"), "notes");
+        write(target.resolve("results.xml"), "old results");
+
+        HardLinks.replaceWithLinksOrCopies(source, target, xmlFiles());
+
+        assertThat(read(target.resolve("results.xml")), is("new results"));
+        assertThat(Files.exists(target.resolve("notes.txt")), is(false));
+    }
+
+    @Test
+    public void a_directory_tree_should_be_reproduced_in_the_target_directory() throws IOException {
+        write(source.resolve("css").resolve("core.css"), "body {}");
+        write(source.resolve("index.html"), "<html/>");
+
+        HardLinks.linkOrCopyTree(source, target);
+
+        assertThat(read(target.resolve("css").resolve("core.css")), is("body {}"));
+        assertThat(read(target.resolve("index.html")), is("<html/>"));
+    }
+
+    @Test
+    public void rewriting_a_replaced_file_should_leave_the_original_unchanged() throws IOException {
+        Path original = write(source.resolve("results.csv"), "original");
+        Path linked = target.resolve("results.csv");
+        HardLinks.linkOrCopy(original, linked);
+
+        HardLinks.prepareToReplace(linked);
+        write(linked, "rewritten");
+
+        assertThat(read(original), is("original"));
+        assertThat(read(linked), is("rewritten"));
+    }
+
+    private DirectoryStream.Filter<Path> xmlFiles() {
+        return new DirectoryStream.Filter<Path>() {
+            @Override
+            public boolean accept(Path file) {
+                return file.getFileName().toString().endsWith(".xml");
+            }
+        };
+    }
+
+    private Path write(Path file, String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
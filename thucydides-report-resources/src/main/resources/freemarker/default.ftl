@@ -273,7 +273,7 @@
                             <td width="100" class="${step.result}-text">
                                 <#if !step.isAGroup() && step.firstScreenshot??>
                                     <a href="${relativeLink!}${testOutcome.screenshotReportName}.html#screenshots?screenshot=${screenshotCount}">
-                                        <img src="${step.firstScreenshot.screenshotFile.name}"
+                                        <img src="thumbnail_${step.firstScreenshot.screenshotFile.name}"
                                              class="screenshot"
                                              width="48" height="48"/>
                                         <#assign screenshotCount = screenshotCount + step.screenshotCount />
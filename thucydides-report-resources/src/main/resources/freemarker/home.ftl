@@ -21,6 +21,7 @@
 
     <script type="text/javascript" src="scripts/jquery.js"></script>
     <script type="text/javascript" src="datatables/media/js/jquery.dataTables.min.js"></script>
+    <script type="text/javascript" src="scripts/test-table.js"></script>
     <script type="text/javascript" src="jqplot/jquery.jqplot.min.js"></script>
     <script type="text/javascript" src="jqplot/plugins/jqplot.pieRenderer.min.js"></script>
 
@@ -154,6 +155,12 @@
         });
 
         // Results table
+    <#if testTableData??>
+        thucydidesTestTable.load('#test-results-table', '${testTableData}', {
+            "relativeLink": '${relativeLink}',
+            "showStepDetails": ${reportOptions.showStepDetails?string("true", "false")}
+        });
+    <#else>
         $('#test-results-table').dataTable({
             "aaSorting": [
                 [ 1, "asc" ]
@@ -161,6 +168,7 @@
             "bJQueryUI": true,
             "iDisplayLength": 25
         });
+    </#if>
 
         // Pie charts
         $('#test-results-tabs').tabs()
@@ -382,6 +390,7 @@
                         </tr>
                         </thead>
                         <tbody>
+                        <#if !testTableData??>
                         <#assign testResultSet = testOutcomes.tests >
                         <#foreach testOutcome in testResultSet>
                             <#if testOutcome.result == "PENDING">
@@ -446,6 +455,7 @@
                             <td class="lightgreentext">${testOutcome.durationInSeconds}</td>
                         </tr>
                         </#foreach>
+                        </#if>
                         </tbody>
                     </table>
                 </div>
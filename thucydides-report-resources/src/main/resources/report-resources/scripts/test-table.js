@@ -0,0 +1,100 @@
+/*
+ * Loads the rows of a large test results table from a separate data file once the page has been displayed.
+ * The data file calls thucydidesTestTable.loaded() with one compact array per test (see TestResultsTableData).
+ * Only the rows on the current page of the table are turned into HTML.
+ */
+var thucydidesTestTable = (function ($) {
+
+    var RESULT = 0, MANUAL = 1, REPORT = 2, TITLE = 3, ERROR_MESSAGE = 4, STEPS = 5,
+        FAILURES = 6, ERRORS = 7, PENDING = 8, SKIPPED = 9, IGNORED = 10,
+        STABILITY = 11, RECENT_RUNS = 12, RECENT_PASSES = 13, RECENT_FAILURES = 14, RECENT_PENDING = 15,
+        DURATION = 16;
+
+    var RESULT_ICONS = {
+        PENDING: "pending.png",
+        IGNORED: "ignor.png",
+        FAILURE: "fail.png",
+        ERROR: "cross.png",
+        SUCCESS: "success.png"
+    };
+
+    var STABILITY_ICONS = ["traffic-in-progress.gif", "traffic-red.gif", "traffic-orange.gif",
+                           "traffic-yellow.gif", "traffic-green.gif"];
+
+    var table;
+
+    function escapeAttribute(value) {
+        return String(value === null ? "" : value).replace(/&/g, "&amp;").replace(/"/g, "&quot;");
+    }
+
+    /*
+     * Columns are sorted on the raw row values rather than on the rendered HTML.
+     */
+    function column(field, render) {
+        return {"mDataProp": field, "fnRender": render, "bUseRendered": false};
+    }
+
+    function countColumn(field) {
+        return column(field, function (cell) {
+            return cell.aData[field];
+        });
+    }
+
+    function columns(options) {
+        var tableColumns = [
+            column(RESULT, function (cell) {
+                var row = cell.aData;
+                var icon = RESULT_ICONS[row[RESULT]] || "ignor.png";
+                return '<img src="images/' + icon + '" title="' + row[RESULT] + '" class="summary-icon"/>'
+                    + (row[MANUAL] ? '<img src="images/worker.png" title="Manual test"/>' : '');
+            }),
+            $.extend(column(TITLE, function (cell) {
+                var row = cell.aData;
+                return '<a href="' + options.relativeLink + row[REPORT] + '.html" title="'
+                    + escapeAttribute(row[ERROR_MESSAGE]) + '">' + row[TITLE] + '</a>';
+            }), {
+                "fnCreatedCell": function (td, value, row) {
+                    $(td).addClass(row[RESULT] + "-text");
+                }
+            }),
+            countColumn(STEPS)
+        ];
+        if (options.showStepDetails) {
+            tableColumns.push(countColumn(FAILURES), countColumn(ERRORS), countColumn(PENDING),
+                              countColumn(SKIPPED), countColumn(IGNORED));
+        }
+        tableColumns.push(
+            column(STABILITY, function (cell) {
+                var row = cell.aData;
+                return '<img src="images/' + STABILITY_ICONS[row[STABILITY]] + '" title="Over the last '
+                    + row[RECENT_RUNS] + ' tests: ' + row[RECENT_PASSES] + ' passed, ' + row[RECENT_FAILURES]
+                    + ' failed, ' + row[RECENT_PENDING] + ' pending" class="summary-icon"/>';
+            }),
+            countColumn(DURATION)
+        );
+        return tableColumns;
+    }
+
+    return {
+        load: function (tableSelector, dataFile, options) {
+            table = {selector: tableSelector, options: options};
+            var script = document.createElement("script");
+            script.type = "text/javascript";
+            script.src = dataFile;
+            document.getElementsByTagName("head")[0].appendChild(script);
+        },
+
+        loaded: function (rows) {
+            $(table.selector).dataTable({
+                "aaData": rows,
+                "aoColumns": columns(table.options),
+                "aaSorting": [
+                    [ 1, "asc" ]
+                ],
+                "bDeferRender": true,
+                "bJQueryUI": true,
+                "iDisplayLength": 25
+            });
+        }
+    };
+})(jQuery);